@@ -0,0 +1,105 @@
+package com.csvmonitor.model;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Latest-value buffer for price ticks, keyed by row index.
+ *
+ * Producers overwrite the pending price of a row and enqueue the row only if it
+ * was not already pending, so any number of ticks per row collapse into one
+ * update. The consumer (the UI thread) drains the pending rows in arrival order.
+ *
+ * Everything is preallocated for the row count: the queue never holds a row
+ * twice, so it can never hold more than {@code capacity} entries, and neither
+ * {@link #offer(int, double)} nor {@link #drain(TickHandler)} allocate.
+ *
+ * Lock-free for any number of producers; {@link #drain} must be called from a
+ * single consumer thread.
+ */
+public class ConflatingTickBuffer {
+
+    private static final int EMPTY = -1;
+
+    /**
+     * Receives drained ticks.
+     */
+    @FunctionalInterface
+    public interface TickHandler {
+        void onTick(int row, double price);
+    }
+
+    private final int capacity;
+    private final AtomicLongArray latestPrices;
+    private final AtomicIntegerArray pending;
+    private final AtomicIntegerArray queue;
+    private final AtomicLong tail = new AtomicLong();
+    private long head;
+
+    public ConflatingTickBuffer(int capacity) {
+        this.capacity = Math.max(1, capacity);
+        this.latestPrices = new AtomicLongArray(this.capacity);
+        this.pending = new AtomicIntegerArray(this.capacity);
+        this.queue = new AtomicIntegerArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            queue.set(i, EMPTY);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Record the latest price of a row.
+     * @return true if the row was not pending yet, false if an older tick was replaced
+     */
+    public boolean offer(int row, double price) {
+        latestPrices.set(row, Double.doubleToRawLongBits(price));
+        if (!pending.compareAndSet(row, 0, 1)) {
+            return false;
+        }
+        queue.set((int) (tail.getAndIncrement() % capacity), row);
+        return true;
+    }
+
+    /**
+     * Apply every pending row once, with its latest price.
+     * @return number of rows handed to the handler
+     */
+    public int drain(TickHandler handler) {
+        return drain(handler, Integer.MAX_VALUE);
+    }
+
+    /**
+     * Apply up to {@code maxRows} pending rows; the others stay pending.
+     * @return number of rows handed to the handler
+     */
+    public int drain(TickHandler handler, int maxRows) {
+        int drained = 0;
+        while (drained < maxRows && head < tail.get()) {
+            int slot = (int) (head % capacity);
+            int row = queue.get(slot);
+            if (row == EMPTY) {
+                // Slot claimed but not written yet: pick it up on the next drain
+                break;
+            }
+            queue.set(slot, EMPTY);
+            head++;
+
+            // Clear the flag before reading, so a concurrent tick re-enqueues the row
+            pending.set(row, 0);
+            handler.onTick(row, Double.longBitsToDouble(latestPrices.get(row)));
+            drained++;
+        }
+        return drained;
+    }
+
+    /**
+     * Number of rows waiting to be drained (approximate off the consumer thread).
+     */
+    public int pendingCount() {
+        return (int) (tail.get() - head);
+    }
+}
@@ -0,0 +1,116 @@
+package com.csvmonitor.model;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+
+/**
+ * Reads CSV content through memory-mapped windows of a file.
+ *
+ * The mapped bytes are scanned in place by {@link CsvParser}: no copy into a heap
+ * buffer and no charset decoding of the numeric columns. A single mapping is
+ * limited to 2 GB, so larger ranges are processed window by window; each new
+ * window starts at the first line not consumed by the previous one.
+ */
+public class MappedCsvReader {
+
+    private static final long DEFAULT_WINDOW_SIZE = 256L << 20; // 256 MB
+    private static final long MAX_WINDOW_SIZE = Integer.MAX_VALUE;
+    // Bytes parsed between two progress reports within a window
+    private static final int PROGRESS_SLICE = 4 << 20; // 4 MB
+
+    private final long windowSize;
+
+    public MappedCsvReader() {
+        this(DEFAULT_WINDOW_SIZE);
+    }
+
+    public MappedCsvReader(long windowSize) {
+        if (windowSize <= 0 || windowSize > MAX_WINDOW_SIZE) {
+            throw new IllegalArgumentException("windowSize must be between 1 and " + MAX_WINDOW_SIZE);
+        }
+        this.windowSize = windowSize;
+    }
+
+    /**
+     * Parse the whole file.
+     */
+    public CsvParser.ParseStats parse(FileChannel channel, CsvParser parser) throws IOException {
+        return parse(channel, 0, channel.size(), parser);
+    }
+
+    /**
+     * Parse the lines in {@code [start, end)}; {@code start} must be at a line boundary.
+     */
+    public CsvParser.ParseStats parse(FileChannel channel, long start, long end, CsvParser parser) throws IOException {
+        return parse(channel, start, end, parser, null);
+    }
+
+    /**
+     * Parse the lines in {@code [start, end)}, reporting the parsed bytes to the monitor.
+     * @param monitor may be null
+     * @throws java.util.concurrent.CancellationException if the monitor is cancelled
+     */
+    public CsvParser.ParseStats parse(FileChannel channel, long start, long end, CsvParser parser,
+                                      LoadMonitor monitor) throws IOException {
+        long position = start;
+        long window = windowSize;
+
+        while (position < end) {
+            long length = Math.min(window, end - position);
+            boolean last = position + length == end;
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+
+            int consumed = monitor == null
+                    ? parser.parseLines(buffer, 0, (int) length, last)
+                    : parseSlices(buffer, (int) length, last, parser, monitor);
+            if (consumed == 0 && !last) {
+                // A single line does not fit into the window: retry with a larger one
+                if (window == MAX_WINDOW_SIZE) {
+                    throw new IOException("Line at offset " + position + " exceeds the maximum mapping size");
+                }
+                window = Math.min(window * 2, MAX_WINDOW_SIZE);
+            }
+            position += consumed;
+        }
+        return parser.getStats();
+    }
+
+    /**
+     * Parse a window slice by slice; a line crossing a slice end is parsed with the next slice.
+     */
+    private int parseSlices(MappedByteBuffer buffer, int length, boolean last, CsvParser parser,
+                            LoadMonitor monitor) {
+        int consumed = 0;
+        int to = 0;
+        while (to < length) {
+            to = (int) Math.min((long) to + PROGRESS_SLICE, length);
+            int next = parser.parseLines(buffer, consumed, to, last && to == length);
+            monitor.advance(next - consumed);
+            consumed = next;
+        }
+        return consumed;
+    }
+
+    /**
+     * Count line terminators in {@code [start, end)} the same way {@link CsvParser} does:
+     * '\n', '\r\n' and a lone '\r' each end one line.
+     */
+    public int countLines(FileChannel channel, long start, long end) throws IOException {
+        int lines = 0;
+        boolean previousCr = false;
+
+        for (long position = start; position < end; position += windowSize) {
+            int length = (int) Math.min(windowSize, end - position);
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, length);
+            for (int i = 0; i < length; i++) {
+                byte b = buffer.get(i);
+                if (b == '\n' || previousCr) {
+                    lines++;
+                }
+                previousCr = b == '\r';
+            }
+        }
+        return previousCr ? lines + 1 : lines;
+    }
+}
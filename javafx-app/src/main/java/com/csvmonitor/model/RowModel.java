@@ -1,142 +1,265 @@
 package com.csvmonitor.model;
 
 import javafx.beans.property.*;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Model class representing a single row in the CSV table.
  * Uses JavaFX Properties for data binding support.
- * 
+ *
  * Java 21 Features Used:
  * - Enhanced switch expressions in getPriceDirection()
  * - Pattern matching compatible design
- * 
+ *
  * Key features:
- * - All fields are observable properties for real-time UI updates
+ * - Thin view over one row of a {@link RowStore}; the store holds the values
+ * - Observable properties are created lazily, only for rows the UI binds to;
+ *   they write values set on them to the store, and are refreshed by the store
+ *   on every write
  * - Tracks previous price for up/down styling
  * - Supports edit locking mechanism (5 seconds after manual edit)
  */
 public class RowModel {
-    
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-    private static final long LOCK_DURATION_MS = 5000;
-    
-    private final IntegerProperty id = new SimpleIntegerProperty();
-    private final StringProperty symbol = new SimpleStringProperty();
-    private final DoubleProperty price = new SimpleDoubleProperty();
-    private final IntegerProperty qty = new SimpleIntegerProperty();
-    private final StringProperty status = new SimpleStringProperty();
-    private final StringProperty lastUpdate = new SimpleStringProperty();
-    
-    // Track previous price for conditional formatting (up/down arrows)
-    private final DoubleProperty previousPrice = new SimpleDoubleProperty();
-    
-    // Edit lock mechanism: when user manually edits, lock for 5 seconds
-    private final LongProperty editLockUntil = new SimpleLongProperty(0);
-    
+
+    private final RowStore store;
+    private final int index;
+
+    // Lazily created observable views of the columns; values set on them are written to the store
+    private IntegerProperty id;
+    private StringProperty symbol;
+    private DoubleProperty price;
+    private IntegerProperty qty;
+    private StringProperty status;
+    private StringProperty lastUpdate;
+    private DoubleProperty previousPrice;
+    private LongProperty editLockUntil;
+
+    // Set while the store refreshes a property, so the value is not written back
+    private boolean refreshing;
+
+    RowModel(RowStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Create an empty detached row backed by its own single-row store.
+     */
     public RowModel() {
+        this(0, null, 0, 0, null, null);
     }
-    
+
+    /**
+     * Create a detached row backed by its own single-row store.
+     */
     public RowModel(int id, String symbol, double price, int qty, String status, String lastUpdate) {
-        setId(id);
-        setSymbol(symbol);
-        setPrice(price);
-        setPreviousPrice(price); // Initialize previous price same as current
-        setQty(qty);
-        setStatus(status);
-        setLastUpdate(lastUpdate);
-    }
-    
+        this(new RowStore(1), 0);
+        store.append(id, symbol, price, qty, status, lastUpdate);
+        store.attachView(this);
+    }
+
+    /**
+     * Index of this row in its store.
+     */
+    public int getIndex() { return index; }
+
     // ID property
-    public int getId() { return id.get(); }
-    public void setId(int value) { id.set(value); }
-    public IntegerProperty idProperty() { return id; }
-    
+    public int getId() { return store.getId(index); }
+    public void setId(int value) { store.setId(index, value); }
+    public IntegerProperty idProperty() {
+        if (id == null) {
+            id = new SimpleIntegerProperty(this, "id", getId()) {
+                @Override
+                protected void invalidated() {
+                    int value = get();
+                    if (!refreshing) setId(value);
+                }
+            };
+        }
+        return id;
+    }
+
     // Symbol property
-    public String getSymbol() { return symbol.get(); }
-    public void setSymbol(String value) { symbol.set(value); }
-    public StringProperty symbolProperty() { return symbol; }
-    
-    // Price property with previous price tracking
-    public double getPrice() { return price.get(); }
-    public void setPrice(double value) {
-        // Store current price as previous before updating
-        setPreviousPrice(getPrice());
-        price.set(value);
-    }
-    public DoubleProperty priceProperty() { return price; }
-    
+    public String getSymbol() { return store.getSymbol(index); }
+    public void setSymbol(String value) { store.setSymbol(index, value); }
+    public StringProperty symbolProperty() {
+        if (symbol == null) {
+            symbol = new SimpleStringProperty(this, "symbol", getSymbol()) {
+                @Override
+                protected void invalidated() {
+                    String value = get();
+                    if (!refreshing) setSymbol(value);
+                }
+            };
+        }
+        return symbol;
+    }
+
+    // Price property with previous price tracking (done by the store)
+    public double getPrice() { return store.getPrice(index); }
+    public void setPrice(double value) { store.setPrice(index, value); }
+    public DoubleProperty priceProperty() {
+        if (price == null) {
+            price = new SimpleDoubleProperty(this, "price", getPrice()) {
+                @Override
+                protected void invalidated() {
+                    double value = get();
+                    if (!refreshing) setPrice(value);
+                }
+            };
+        }
+        return price;
+    }
+
     // Previous price for tracking changes
-    public double getPreviousPrice() { return previousPrice.get(); }
-    public void setPreviousPrice(double value) { previousPrice.set(value); }
-    public DoubleProperty previousPriceProperty() { return previousPrice; }
-    
+    public double getPreviousPrice() { return store.getPreviousPrice(index); }
+    public void setPreviousPrice(double value) { store.setPreviousPrice(index, value); }
+    public DoubleProperty previousPriceProperty() {
+        if (previousPrice == null) {
+            previousPrice = new SimpleDoubleProperty(this, "previousPrice", getPreviousPrice()) {
+                @Override
+                protected void invalidated() {
+                    double value = get();
+                    if (!refreshing) setPreviousPrice(value);
+                }
+            };
+        }
+        return previousPrice;
+    }
+
     // Qty property
-    public int getQty() { return qty.get(); }
-    public void setQty(int value) { qty.set(value); }
-    public IntegerProperty qtyProperty() { return qty; }
-    
+    public int getQty() { return store.getQty(index); }
+    public void setQty(int value) { store.setQty(index, value); }
+    public IntegerProperty qtyProperty() {
+        if (qty == null) {
+            qty = new SimpleIntegerProperty(this, "qty", getQty()) {
+                @Override
+                protected void invalidated() {
+                    int value = get();
+                    if (!refreshing) setQty(value);
+                }
+            };
+        }
+        return qty;
+    }
+
     // Status property
-    public String getStatus() { return status.get(); }
-    public void setStatus(String value) { status.set(value); }
-    public StringProperty statusProperty() { return status; }
-    
+    public String getStatus() { return store.getStatus(index); }
+    public void setStatus(String value) { store.setStatus(index, value); }
+    public StringProperty statusProperty() {
+        if (status == null) {
+            status = new SimpleStringProperty(this, "status", getStatus()) {
+                @Override
+                protected void invalidated() {
+                    String value = get();
+                    if (!refreshing) setStatus(value);
+                }
+            };
+        }
+        return status;
+    }
+
+    /**
+     * Get the known status of this row (aliases resolved), or null for other values.
+     */
+    public Status getKnownStatus() { return store.getKnownStatus(index); }
+
     // LastUpdate property
-    public String getLastUpdate() { return lastUpdate.get(); }
-    public void setLastUpdate(String value) { lastUpdate.set(value); }
-    public StringProperty lastUpdateProperty() { return lastUpdate; }
-    
+    public String getLastUpdate() { return store.getLastUpdate(index); }
+    public void setLastUpdate(String value) { store.setLastUpdate(index, value); }
+    public StringProperty lastUpdateProperty() {
+        if (lastUpdate == null) {
+            lastUpdate = new SimpleStringProperty(this, "lastUpdate", getLastUpdate()) {
+                @Override
+                protected void invalidated() {
+                    String value = get();
+                    if (!refreshing) setLastUpdate(value);
+                }
+            };
+        }
+        return lastUpdate;
+    }
+
     // Edit lock mechanism
-    public long getEditLockUntil() { return editLockUntil.get(); }
-    public void setEditLockUntil(long value) { editLockUntil.set(value); }
-    public LongProperty editLockUntilProperty() { return editLockUntil; }
-    
+    public long getEditLockUntil() { return store.getEditLockUntil(index); }
+    public void setEditLockUntil(long value) { store.setEditLockUntil(index, value); }
+    public LongProperty editLockUntilProperty() {
+        if (editLockUntil == null) {
+            editLockUntil = new SimpleLongProperty(this, "editLockUntil", getEditLockUntil()) {
+                @Override
+                protected void invalidated() {
+                    long value = get();
+                    if (!refreshing) setEditLockUntil(value);
+                }
+            };
+        }
+        return editLockUntil;
+    }
+
+    // Called by the store after a column of this row was written; bound properties keep their binding
+    void idChanged() { if (id != null && !id.isBound()) refresh(() -> id.set(getId())); }
+    void symbolChanged() { if (symbol != null && !symbol.isBound()) refresh(() -> symbol.set(getSymbol())); }
+    void priceChanged() { if (price != null && !price.isBound()) refresh(() -> price.set(getPrice())); }
+    void previousPriceChanged() {
+        if (previousPrice != null && !previousPrice.isBound()) refresh(() -> previousPrice.set(getPreviousPrice()));
+    }
+    void qtyChanged() { if (qty != null && !qty.isBound()) refresh(() -> qty.set(getQty())); }
+    void statusChanged() { if (status != null && !status.isBound()) refresh(() -> status.set(getStatus())); }
+    void lastUpdateChanged() {
+        if (lastUpdate != null && !lastUpdate.isBound()) refresh(() -> lastUpdate.set(getLastUpdate()));
+    }
+    void editLockUntilChanged() {
+        if (editLockUntil != null && !editLockUntil.isBound()) refresh(() -> editLockUntil.set(getEditLockUntil()));
+    }
+
+    private void refresh(Runnable update) {
+        refreshing = true;
+        try {
+            update.run();
+        } finally {
+            refreshing = false;
+        }
+    }
+
     /**
      * Lock this row from automatic updates for 5 seconds.
      * Called after manual price edit.
      */
     public void lockForEdit() {
-        setEditLockUntil(System.currentTimeMillis() + LOCK_DURATION_MS);
+        store.lockForEdit(index);
     }
-    
+
     /**
      * Unlock this row immediately, allowing automatic updates.
      */
     public void unlock() {
-        setEditLockUntil(0);
+        store.unlock(index);
     }
-    
+
     /**
      * Check if this row is currently locked from automatic updates.
      */
     public boolean isLocked() {
-        return System.currentTimeMillis() < getEditLockUntil();
+        return store.isLocked(index);
     }
-    
+
     /**
      * Get price change direction.
      * @return 1 for up, -1 for down, 0 for no change
      */
     public int getPriceDirection() {
-        double current = getPrice();
-        double previous = getPreviousPrice();
-        if (current > previous) return 1;
-        if (current < previous) return -1;
-        return 0;
+        return store.getPriceDirection(index);
     }
-    
+
     /**
      * Update the lastUpdate timestamp to current time.
      */
     public void updateTimestamp() {
-        setLastUpdate(LocalDateTime.now().format(ISO_FORMATTER));
+        store.updateTimestamp(index);
     }
-    
+
     @Override
     public String toString() {
         return String.format("RowModel{id=%d, symbol='%s', price=%.2f, qty=%d, status='%s'}",
                 getId(), getSymbol(), getPrice(), getQty(), getStatus());
     }
 }
-
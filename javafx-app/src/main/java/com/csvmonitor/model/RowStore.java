@@ -0,0 +1,684 @@
+package com.csvmonitor.model;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+
+/**
+ * Columnar storage for all table rows.
+ *
+ * Every column is a primitive array indexed by row: symbols are encoded through a
+ * {@link SymbolDictionary}, statuses as a byte whose first values are the
+ * {@link Status} ordinals, lastUpdate as epoch millis of the local timestamp
+ * plus the number of fraction digits it was written with. Values that do not fit
+ * these encodings (more than 255 distinct statuses, lastUpdate texts that are not
+ * ISO timestamps or are finer than milliseconds) are kept verbatim per row.
+ * A row costs about 50 bytes, instead of a RowModel with eight JavaFX properties.
+ *
+ * {@link RowModel} instances are optional views created on demand by {@link #view(int)}.
+ * All writes go through the store, which refreshes the view of the affected row
+ * if one exists.
+ *
+ * Not thread-safe: rows are appended by a single loader thread, and modified
+ * afterwards on the JavaFX Application Thread only.
+ */
+public class RowStore implements CsvParser.RowSink {
+
+    /**
+     * Receives rows locked by {@link #lockForEdit(int)}.
+     */
+    @FunctionalInterface
+    public interface EditLockListener {
+        void onEditLock(int row);
+
+        /**
+         * The edit lock of a row was set or cleared, by any method; called before {@link #onEditLock}.
+         */
+        default void onEditLockChanged(int row) {
+        }
+    }
+
+    /**
+     * Receives rows after a column value was set.
+     */
+    @FunctionalInterface
+    public interface RowChangeListener {
+        void onRowChanged(int row);
+    }
+
+    private static final long LOCK_DURATION_MS = 5000;
+    private static final int DEFAULT_CAPACITY = 1024;
+    private static final int MAX_STATUS_CODES = 256;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+    private static final int MAX_FRACTION_DIGITS = 3;
+    // lastUpdateDigits marker for a lastUpdate kept verbatim in rawLastUpdates
+    private static final byte VERBATIM = -1;
+
+    /** lastUpdate marker for values that are not ISO timestamps (kept verbatim) or missing */
+    static final long NO_TIMESTAMP = Long.MIN_VALUE;
+
+    /**
+     * Status code of rows whose status did not fit in the dictionary; their text is kept per row.
+     */
+    public static final int OTHER_STATUS_CODE = MAX_STATUS_CODES - 1;
+
+    private int size;
+    private int[] ids;
+    private int[] symbolCodes;
+    private double[] prices;
+    private double[] previousPrices;
+    private int[] qtys;
+    private byte[] statusCodes;
+    private long[] lastUpdates;
+    private byte[] lastUpdateDigits;
+    private long[] editLockUntil;
+    private RowModel[] views;
+
+    // Dictionaries for the encoded columns
+    private final SymbolDictionary symbolDictionary;
+    private final List<String> statuses = new ArrayList<>();
+    private final Map<String, Integer> statusCodeByName = new HashMap<>();
+    private final Status[] knownStatuses = new Status[MAX_STATUS_CODES];
+
+    // Statuses of the rows with OTHER_STATUS_CODE, by row
+    private final Map<Integer, String> rawStatuses = new HashMap<>();
+
+    // lastUpdate texts kept verbatim (not ISO timestamps, or finer than millis), by row
+    private final Map<Integer, String> rawLastUpdates = new HashMap<>();
+
+    private volatile EditLockListener editLockListener;
+
+    // Sorted indexes, built on first use and kept up to date by the price setters
+    private SortedRowIndex priceIndex;
+    private SortedRowIndex changeIndex;
+    // Dropped whenever a symbol or status is written
+    private SearchIndex searchIndex;
+    // Only called on the thread writing the store, like the views
+    private RowChangeListener rowChangeListener;
+
+    public RowStore() {
+        this(DEFAULT_CAPACITY);
+    }
+
+    public RowStore(SymbolDictionary symbolDictionary) {
+        this(DEFAULT_CAPACITY, symbolDictionary);
+    }
+
+    public RowStore(int initialCapacity) {
+        this(initialCapacity, new SymbolDictionary());
+    }
+
+    public RowStore(int initialCapacity, SymbolDictionary symbolDictionary) {
+        this.symbolDictionary = symbolDictionary;
+        int capacity = Math.max(1, initialCapacity);
+        ids = new int[capacity];
+        symbolCodes = new int[capacity];
+        prices = new double[capacity];
+        previousPrices = new double[capacity];
+        qtys = new int[capacity];
+        statusCodes = new byte[capacity];
+        lastUpdates = new long[capacity];
+        lastUpdateDigits = new byte[capacity];
+        editLockUntil = new long[capacity];
+        // Known statuses get the codes matching their ordinals
+        for (Status status : Status.values()) {
+            encodeStatus(status.name());
+        }
+    }
+
+    public int size() {
+        return size;
+    }
+
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    // ==================== Appending ====================
+
+    /**
+     * Append a row.
+     * @return index of the new row
+     */
+    public int append(int id, String symbol, double price, int qty, String status, String lastUpdate) {
+        dropIndexes();
+        ensureCapacity(size + 1);
+        int row = size++;
+        ids[row] = id;
+        symbolCodes[row] = encodeSymbol(symbol);
+        prices[row] = price;
+        previousPrices[row] = price;
+        qtys[row] = qty;
+        storeStatus(row, status);
+        storeLastUpdate(row, lastUpdate);
+        return row;
+    }
+
+    @Override
+    public void onRow(int id, String symbol, double price, int qty, String status, String lastUpdate) {
+        append(id, symbol, price, qty, status, lastUpdate);
+    }
+
+    /**
+     * Append all rows of another store, re-encoding its dictionary codes.
+     */
+    public void appendAll(RowStore other) {
+        dropIndexes();
+        int offset = size;
+        int count = other.size;
+        ensureCapacity(size + count);
+
+        System.arraycopy(other.ids, 0, ids, offset, count);
+        System.arraycopy(other.prices, 0, prices, offset, count);
+        System.arraycopy(other.previousPrices, 0, previousPrices, offset, count);
+        System.arraycopy(other.qtys, 0, qtys, offset, count);
+        System.arraycopy(other.lastUpdates, 0, lastUpdates, offset, count);
+        System.arraycopy(other.lastUpdateDigits, 0, lastUpdateDigits, offset, count);
+        System.arraycopy(other.editLockUntil, 0, editLockUntil, offset, count);
+
+        if (other.symbolDictionary == symbolDictionary) {
+            System.arraycopy(other.symbolCodes, 0, symbolCodes, offset, count);
+        } else {
+            for (int i = 0; i < count; i++) {
+                symbolCodes[offset + i] = encodeSymbol(other.getSymbol(i));
+            }
+        }
+        int[] statusMap = new int[other.statuses.size()];
+        for (int code = 0; code < statusMap.length; code++) {
+            statusMap[code] = encodeStatus(other.statuses.get(code));
+        }
+        for (int i = 0; i < count; i++) {
+            int code = other.statusCodes[i] & 0xFF;
+            if (code == OTHER_STATUS_CODE || statusMap[code] == OTHER_STATUS_CODE) {
+                storeStatus(offset + i, other.getStatus(i));
+            } else {
+                statusCodes[offset + i] = (byte) statusMap[code];
+            }
+        }
+        other.rawLastUpdates.forEach((row, text) -> rawLastUpdates.put(offset + row, text));
+
+        size += count;
+    }
+
+    /**
+     * Release unused capacity, e.g. after loading.
+     */
+    public void trimToSize() {
+        if (ids.length != size) {
+            resize(Math.max(1, size));
+        }
+    }
+
+    // ==================== Column Access ====================
+
+    public int getId(int row) { return ids[row]; }
+    public void setId(int row, int value) {
+        ids[row] = value;
+        RowModel view = viewOrNull(row);
+        if (view != null) view.idChanged();
+        fireRowChanged(row);
+    }
+
+    public String getSymbol(int row) {
+        int code = symbolCodes[row];
+        return code < 0 ? null : symbolDictionary.symbol(code);
+    }
+
+    /**
+     * Get the dictionary code of a row's symbol, -1 for no symbol.
+     */
+    public int getSymbolCode(int row) { return symbolCodes[row]; }
+
+    public SymbolDictionary getSymbolDictionary() { return symbolDictionary; }
+    public void setSymbol(int row, String value) {
+        symbolCodes[row] = encodeSymbol(value);
+        searchIndex = null;
+        RowModel view = viewOrNull(row);
+        if (view != null) view.symbolChanged();
+        fireRowChanged(row);
+    }
+
+    public double getPrice(int row) { return prices[row]; }
+    /**
+     * Set a new price, keeping the current one as previous price.
+     */
+    public void setPrice(int row, double value) {
+        double oldPrice = prices[row];
+        double oldChange = getPriceChange(row);
+        previousPrices[row] = oldPrice;
+        prices[row] = value;
+        if (priceIndex != null) priceIndex.update(row, oldPrice, value);
+        if (changeIndex != null) changeIndex.update(row, oldChange, getPriceChange(row));
+        RowModel view = viewOrNull(row);
+        if (view != null) {
+            view.previousPriceChanged();
+            view.priceChanged();
+        }
+        fireRowChanged(row);
+    }
+
+    public double getPreviousPrice(int row) { return previousPrices[row]; }
+    public void setPreviousPrice(int row, double value) {
+        double oldChange = getPriceChange(row);
+        previousPrices[row] = value;
+        if (changeIndex != null) changeIndex.update(row, oldChange, getPriceChange(row));
+        RowModel view = viewOrNull(row);
+        if (view != null) view.previousPriceChanged();
+    }
+
+    /**
+     * Relative change of the last price update, e.g. 0.01 for +1%; 0 without a previous price.
+     */
+    public double getPriceChange(int row) {
+        double previous = previousPrices[row];
+        return previous == 0 ? 0 : (prices[row] - previous) / previous;
+    }
+
+    public int getQty(int row) { return qtys[row]; }
+    public void setQty(int row, int value) {
+        qtys[row] = value;
+        RowModel view = viewOrNull(row);
+        if (view != null) view.qtyChanged();
+        fireRowChanged(row);
+    }
+
+    public String getStatus(int row) {
+        int code = statusCodes[row] & 0xFF;
+        return code == OTHER_STATUS_CODE ? rawStatuses.get(row) : statuses.get(code);
+    }
+
+    /**
+     * Get the status code of a row; codes below {@code Status.values().length} are
+     * the {@link Status} ordinals, higher codes are other values, and
+     * {@link #OTHER_STATUS_CODE} stands for values beyond the dictionary.
+     */
+    public int getStatusCode(int row) { return statusCodes[row] & 0xFF; }
+
+    /**
+     * Get the known status of a row, resolving aliases such as WARN or OK.
+     * @return the status, or null if the value is not a known status
+     */
+    public Status getKnownStatus(int row) {
+        int code = statusCodes[row] & 0xFF;
+        return code == OTHER_STATUS_CODE ? Status.parse(rawStatuses.get(row)) : knownStatuses[code];
+    }
+
+    /**
+     * Number of status codes in the dictionary, {@link #OTHER_STATUS_CODE} excluded.
+     */
+    public int statusCodeCount() { return statuses.size(); }
+
+    /**
+     * Status text of a dictionary code, as returned by {@link #getStatus(int)}.
+     */
+    public String statusName(int code) { return statuses.get(code); }
+    public void setStatus(int row, String value) {
+        storeStatus(row, value);
+        searchIndex = null;
+        RowModel view = viewOrNull(row);
+        if (view != null) view.statusChanged();
+        fireRowChanged(row);
+    }
+
+    public String getLastUpdate(int row) {
+        int digits = lastUpdateDigits[row];
+        if (digits == VERBATIM) {
+            return rawLastUpdates.get(row);
+        }
+        long millis = lastUpdates[row];
+        return millis == NO_TIMESTAMP ? null : formatTimestamp(millis, digits);
+    }
+    /**
+     * Get the lastUpdate of a row as epoch millis of the local timestamp, truncated to the millisecond.
+     * @return the millis, or {@code Long.MIN_VALUE} if the value is not an ISO timestamp or missing
+     */
+    public long getLastUpdateMillis(int row) { return lastUpdates[row]; }
+    public void setLastUpdate(int row, String value) {
+        storeLastUpdate(row, value);
+        RowModel view = viewOrNull(row);
+        if (view != null) view.lastUpdateChanged();
+        fireRowChanged(row);
+    }
+
+    /**
+     * Set the lastUpdate timestamp of a row to the current time.
+     */
+    public void updateTimestamp(int row) {
+        LocalDateTime now = LocalDateTime.now();
+        lastUpdates[row] = now.toEpochSecond(ZoneOffset.UTC) * 1000 + now.getNano() / 1_000_000;
+        lastUpdateDigits[row] = MAX_FRACTION_DIGITS;
+        rawLastUpdates.remove(row);
+        RowModel view = viewOrNull(row);
+        if (view != null) view.lastUpdateChanged();
+        fireRowChanged(row);
+    }
+
+    // ==================== Edit Lock ====================
+
+    public long getEditLockUntil(int row) { return editLockUntil[row]; }
+    public void setEditLockUntil(int row, long value) {
+        editLockUntil[row] = value;
+        RowModel view = viewOrNull(row);
+        if (view != null) view.editLockUntilChanged();
+        EditLockListener listener = editLockListener;
+        if (listener != null) {
+            listener.onEditLockChanged(row);
+        }
+    }
+
+    /**
+     * Lock a row from automatic updates for 5 seconds.
+     */
+    public void lockForEdit(int row) {
+        setEditLockUntil(row, System.currentTimeMillis() + LOCK_DURATION_MS);
+        EditLockListener listener = editLockListener;
+        if (listener != null) {
+            listener.onEditLock(row);
+        }
+    }
+
+    /**
+     * Set the listener told about rows locked for a manual edit, or null.
+     */
+    public void setEditLockListener(EditLockListener editLockListener) {
+        this.editLockListener = editLockListener;
+    }
+
+    /**
+     * Set the listener told about rows whose displayed values changed, or null.
+     */
+    public void setRowChangeListener(RowChangeListener rowChangeListener) {
+        this.rowChangeListener = rowChangeListener;
+    }
+
+    private void fireRowChanged(int row) {
+        RowChangeListener listener = rowChangeListener;
+        if (listener != null) {
+            listener.onRowChanged(row);
+        }
+    }
+
+    public void unlock(int row) {
+        setEditLockUntil(row, 0);
+    }
+
+    public void unlockAll() {
+        for (int row = 0; row < size; row++) {
+            if (editLockUntil[row] != 0) {
+                unlock(row);
+            }
+        }
+    }
+
+    public boolean isLocked(int row) {
+        return System.currentTimeMillis() < editLockUntil[row];
+    }
+
+    /**
+     * Get price change direction of a row.
+     * @return 1 for up, -1 for down, 0 for no change
+     */
+    public int getPriceDirection(int row) {
+        double current = prices[row];
+        double previous = previousPrices[row];
+        if (current > previous) return 1;
+        if (current < previous) return -1;
+        return 0;
+    }
+
+    // ==================== Sorted Indexes ====================
+
+    /**
+     * Rows ordered by price, for range, rank and top-N queries.
+     * Built on the first call, then updated with every price change.
+     */
+    public SortedRowIndex priceIndex() {
+        if (priceIndex == null) {
+            priceIndex = new SortedRowIndex(prices, size);
+        }
+        return priceIndex;
+    }
+
+    /**
+     * Rows ordered by {@link #getPriceChange(int)}, for top gainers and losers.
+     * Built on the first call, then updated with every price change.
+     */
+    public SortedRowIndex changeIndex() {
+        if (changeIndex == null) {
+            double[] changes = new double[size];
+            for (int row = 0; row < size; row++) {
+                changes[row] = getPriceChange(row);
+            }
+            changeIndex = new SortedRowIndex(changes, size);
+        }
+        return changeIndex;
+    }
+
+    /**
+     * Substring index over symbols and statuses.
+     * Built on the first call after a symbol or status changed.
+     */
+    public SearchIndex searchIndex() {
+        if (searchIndex == null) {
+            searchIndex = new SearchIndex(this);
+        }
+        return searchIndex;
+    }
+
+    // Appended rows are not indexed: rebuild on next use
+    private void dropIndexes() {
+        priceIndex = null;
+        changeIndex = null;
+        searchIndex = null;
+    }
+
+    // ==================== Views ====================
+
+    /**
+     * Get the observable view of a row, creating it on first use.
+     * Views are cached so listeners stay attached to a single instance per row.
+     */
+    public RowModel view(int row) {
+        Objects.checkIndex(row, size);
+        if (views == null) {
+            views = new RowModel[ids.length];
+        }
+        RowModel view = views[row];
+        if (view == null) {
+            view = new RowModel(this, row);
+            views[row] = view;
+        }
+        return view;
+    }
+
+    /**
+     * Register a view created outside of {@link #view(int)}.
+     */
+    void attachView(RowModel view) {
+        if (views == null) {
+            views = new RowModel[ids.length];
+        }
+        views[view.getIndex()] = view;
+    }
+
+    /**
+     * Drop the cached view of a row so it can be garbage collected.
+     */
+    public void releaseView(int row) {
+        if (views != null && row >= 0 && row < size) {
+            views[row] = null;
+        }
+    }
+
+    private RowModel viewOrNull(int row) {
+        return views == null ? null : views[row];
+    }
+
+    // ==================== Encoding ====================
+
+    private int encodeSymbol(String symbol) {
+        return symbol == null ? -1 : symbolDictionary.encode(symbol);
+    }
+
+    private int encodeStatus(String status) {
+        String key = status == null ? "" : status;
+        Integer code = statusCodeByName.get(key);
+        if (code == null) {
+            if (statuses.size() == OTHER_STATUS_CODE) {
+                return OTHER_STATUS_CODE;
+            }
+            code = statuses.size();
+            statuses.add(status);
+            statusCodeByName.put(key, code);
+            knownStatuses[code] = Status.parse(status);
+        }
+        return code;
+    }
+
+    private void storeStatus(int row, String value) {
+        int code = encodeStatus(value);
+        statusCodes[row] = (byte) code;
+        if (code == OTHER_STATUS_CODE) {
+            rawStatuses.put(row, value);
+        } else {
+            rawStatuses.remove(row);
+        }
+    }
+
+    private void storeLastUpdate(int row, String value) {
+        long millis = parseTimestamp(value);
+        lastUpdates[row] = millis;
+        int digits = value == null || value.length() <= 19 ? 0 : value.length() - 20;
+        if (value != null && (millis == NO_TIMESTAMP || digits > MAX_FRACTION_DIGITS)) {
+            // Sorted by the millis if any, but displayed and saved as written
+            lastUpdateDigits[row] = VERBATIM;
+            rawLastUpdates.put(row, value);
+        } else {
+            lastUpdateDigits[row] = (byte) digits;
+            rawLastUpdates.remove(row);
+        }
+    }
+
+    /**
+     * Parse an ISO local date-time ({@code yyyy-MM-ddTHH:mm:ss[.fraction]}) into epoch
+     * millis, treating it as UTC so the value round-trips exactly (to the millisecond).
+     * @return the millis, or {@link #NO_TIMESTAMP} if the text has another format
+     */
+    static long parseTimestamp(String text) {
+        if (text == null || text.length() < 19 || text.length() > 29
+                || text.charAt(4) != '-' || text.charAt(7) != '-' || text.charAt(10) != 'T'
+                || text.charAt(13) != ':' || text.charAt(16) != ':') {
+            return NO_TIMESTAMP;
+        }
+
+        int year = parseDigits(text, 0, 4);
+        int month = parseDigits(text, 5, 2);
+        int day = parseDigits(text, 8, 2);
+        int hour = parseDigits(text, 11, 2);
+        int minute = parseDigits(text, 14, 2);
+        int second = parseDigits(text, 17, 2);
+        if (year < 0 || month < 0 || day < 0 || hour < 0 || hour > 23
+                || minute < 0 || minute > 59 || second < 0 || second > 59) {
+            return NO_TIMESTAMP;
+        }
+
+        int millis = 0;
+        if (text.length() > 19) {
+            int fractionDigits = text.length() - 20;
+            if (text.charAt(19) != '.' || fractionDigits == 0 || parseDigits(text, 20, fractionDigits) < 0) {
+                return NO_TIMESTAMP;
+            }
+            millis = parseDigits(text, 20, Math.min(3, fractionDigits));
+            for (int i = fractionDigits; i < 3; i++) {
+                millis *= 10;
+            }
+        }
+
+        try {
+            long epochDay = LocalDate.of(year, month, day).toEpochDay();
+            return epochDay * MILLIS_PER_DAY + ((hour * 60L + minute) * 60 + second) * 1000 + millis;
+        } catch (DateTimeException e) {
+            return NO_TIMESTAMP;
+        }
+    }
+
+    /**
+     * Format epoch millis as {@code yyyy-MM-ddTHH:mm:ss}, followed by the first
+     * {@code fractionDigits} digits of the milliseconds if not 0, as {@link #parseTimestamp} read it.
+     */
+    static String formatTimestamp(long millis, int fractionDigits) {
+        LocalDate date = LocalDate.ofEpochDay(Math.floorDiv(millis, MILLIS_PER_DAY));
+        int millisOfDay = (int) Math.floorMod(millis, MILLIS_PER_DAY);
+        int secondOfDay = millisOfDay / 1000;
+        char[] text = new char[fractionDigits == 0 ? 19 : 20 + fractionDigits];
+        putDigits(text, 0, 4, date.getYear());
+        text[4] = '-';
+        putDigits(text, 5, 2, date.getMonthValue());
+        text[7] = '-';
+        putDigits(text, 8, 2, date.getDayOfMonth());
+        text[10] = 'T';
+        putDigits(text, 11, 2, secondOfDay / 3600);
+        text[13] = ':';
+        putDigits(text, 14, 2, secondOfDay / 60 % 60);
+        text[16] = ':';
+        putDigits(text, 17, 2, secondOfDay % 60);
+        if (fractionDigits > 0) {
+            text[19] = '.';
+            int fraction = millisOfDay % 1000;
+            for (int i = fractionDigits; i < MAX_FRACTION_DIGITS; i++) {
+                fraction /= 10;
+            }
+            putDigits(text, 20, fractionDigits, fraction);
+        }
+        return new String(text);
+    }
+
+    private static void putDigits(char[] text, int start, int length, int value) {
+        for (int i = start + length - 1; i >= start; i--) {
+            text[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private static int parseDigits(String text, int start, int length) {
+        int value = 0;
+        for (int i = start; i < start + length; i++) {
+            int digit = text.charAt(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return -1;
+            }
+            value = value * 10 + digit;
+        }
+        return value;
+    }
+
+    // ==================== Capacity ====================
+
+    private void ensureCapacity(int required) {
+        if (required > ids.length) {
+            resize(Math.max(required, ids.length + (ids.length >> 1)));
+        }
+    }
+
+    private void resize(int capacity) {
+        ids = Arrays.copyOf(ids, capacity);
+        symbolCodes = Arrays.copyOf(symbolCodes, capacity);
+        prices = Arrays.copyOf(prices, capacity);
+        previousPrices = Arrays.copyOf(previousPrices, capacity);
+        qtys = Arrays.copyOf(qtys, capacity);
+        statusCodes = Arrays.copyOf(statusCodes, capacity);
+        lastUpdates = Arrays.copyOf(lastUpdates, capacity);
+        lastUpdateDigits = Arrays.copyOf(lastUpdateDigits, capacity);
+        editLockUntil = Arrays.copyOf(editLockUntil, capacity);
+        if (views != null) {
+            views = Arrays.copyOf(views, capacity);
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.csvmonitor.model;
+
+import java.util.BitSet;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * Substring search over the symbols and statuses of a {@link RowStore}.
+ *
+ * Both columns are dictionary encoded, so a query is matched against the
+ * distinct texts only, then expanded to rows through the rows grouped by
+ * code. Symbols are found through a trigram index (the codes containing each
+ * three-letter sequence); shorter queries and statuses, which have few
+ * distinct values, are matched by scanning the texts. A query thus costs
+ * about the number of matching rows, not the number of rows; only statuses
+ * beyond the dictionary ({@link RowStore#OTHER_STATUS_CODE}) are matched row by row.
+ *
+ * Matching is case-insensitive. The index is a snapshot: {@link RowStore}
+ * drops it when a symbol or status is written.
+ */
+public class SearchIndex {
+
+    private static final int GRAM = 3;
+
+    private final int rowCount;
+
+    // Upper-cased texts by code; null for codes no row uses
+    private final String[] symbolTexts;
+    private final String[] statusTexts;
+
+    // Rows grouped by code: the rows of code c are rows[start[c]] .. rows[start[c + 1] - 1]
+    private final int[] symbolStart;
+    private final int[] symbolRows;
+    private final int[] statusStart;
+    private final int[] statusRows;
+
+    // Rows with a status beyond the dictionary, and their upper-cased status
+    private final int[] otherStatusRows;
+    private final String[] otherStatusTexts;
+
+    // Symbol codes containing each trigram
+    private final Map<Long, BitSet> symbolTrigrams = new HashMap<>();
+
+    SearchIndex(RowStore store) {
+        rowCount = store.size();
+        int symbolCodes = store.getSymbolDictionary().size();
+        int statusCodes = store.statusCodeCount();
+
+        symbolStart = new int[symbolCodes + 1];
+        statusStart = new int[statusCodes + 1];
+        int otherStatusCount = 0;
+        for (int row = 0; row < rowCount; row++) {
+            int symbol = store.getSymbolCode(row);
+            if (symbol >= 0) {
+                symbolStart[symbol + 1]++;
+            }
+            int status = store.getStatusCode(row);
+            if (status == RowStore.OTHER_STATUS_CODE) {
+                otherStatusCount++;
+            } else {
+                statusStart[status + 1]++;
+            }
+        }
+        for (int code = 0; code < symbolCodes; code++) {
+            symbolStart[code + 1] += symbolStart[code];
+        }
+        for (int code = 0; code < statusCodes; code++) {
+            statusStart[code + 1] += statusStart[code];
+        }
+
+        symbolRows = new int[symbolStart[symbolCodes]];
+        statusRows = new int[statusStart[statusCodes]];
+        int[] symbolNext = symbolStart.clone();
+        int[] statusNext = statusStart.clone();
+        otherStatusRows = new int[otherStatusCount];
+        otherStatusTexts = new String[otherStatusCount];
+        int otherNext = 0;
+        for (int row = 0; row < rowCount; row++) {
+            int symbol = store.getSymbolCode(row);
+            if (symbol >= 0) {
+                symbolRows[symbolNext[symbol]++] = row;
+            }
+            int status = store.getStatusCode(row);
+            if (status == RowStore.OTHER_STATUS_CODE) {
+                otherStatusRows[otherNext] = row;
+                otherStatusTexts[otherNext++] = normalize(store.getStatus(row));
+            } else {
+                statusRows[statusNext[status]++] = row;
+            }
+        }
+
+        symbolTexts = new String[symbolCodes];
+        for (int code = 0; code < symbolCodes; code++) {
+            if (symbolStart[code + 1] > symbolStart[code]) {
+                String text = normalize(store.getSymbolDictionary().symbol(code));
+                symbolTexts[code] = text;
+                for (int i = 0; i + GRAM <= text.length(); i++) {
+                    symbolTrigrams.computeIfAbsent(trigram(text, i), key -> new BitSet()).set(code);
+                }
+            }
+        }
+        statusTexts = new String[statusCodes];
+        for (int code = 0; code < statusCodes; code++) {
+            String status = store.statusName(code);
+            if (status != null && statusStart[code + 1] > statusStart[code]) {
+                statusTexts[code] = normalize(status);
+            }
+        }
+    }
+
+    /**
+     * Rows whose symbol or status contains the query; empty for a blank query.
+     */
+    public BitSet search(String query) {
+        BitSet result = new BitSet(rowCount);
+        String text = normalize(query);
+        if (text.isEmpty()) {
+            return result;
+        }
+
+        if (text.length() >= GRAM) {
+            // Candidates contain every trigram of the query; the substring check removes false positives
+            BitSet candidates = null;
+            for (int i = 0; i + GRAM <= text.length(); i++) {
+                BitSet codes = symbolTrigrams.get(trigram(text, i));
+                if (codes == null) {
+                    candidates = null;
+                    break;
+                }
+                if (candidates == null) {
+                    candidates = (BitSet) codes.clone();
+                } else {
+                    candidates.and(codes);
+                }
+            }
+            if (candidates != null) {
+                for (int code = candidates.nextSetBit(0); code >= 0; code = candidates.nextSetBit(code + 1)) {
+                    if (symbolTexts[code].contains(text)) {
+                        addRows(result, symbolStart, symbolRows, code);
+                    }
+                }
+            }
+        } else {
+            for (int code = 0; code < symbolTexts.length; code++) {
+                if (symbolTexts[code] != null && symbolTexts[code].contains(text)) {
+                    addRows(result, symbolStart, symbolRows, code);
+                }
+            }
+        }
+
+        for (int code = 0; code < statusTexts.length; code++) {
+            if (statusTexts[code] != null && statusTexts[code].contains(text)) {
+                addRows(result, statusStart, statusRows, code);
+            }
+        }
+        for (int i = 0; i < otherStatusRows.length; i++) {
+            if (otherStatusTexts[i].contains(text)) {
+                result.set(otherStatusRows[i]);
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Whether the current symbol or status of a row contains the query, as
+     * {@link #search(String)} would tell after rebuilding the index; for rows
+     * changed since. Allocates nothing.
+     */
+    public static boolean matches(RowStore store, int row, String query) {
+        String text = query == null ? "" : query.trim();
+        return !text.isEmpty() && (containsIgnoreCase(store.getSymbol(row), text)
+                || containsIgnoreCase(store.getStatus(row), text));
+    }
+
+    private static boolean containsIgnoreCase(String value, String text) {
+        if (value == null) {
+            return false;
+        }
+        for (int i = 0; i + text.length() <= value.length(); i++) {
+            if (value.regionMatches(true, i, text, 0, text.length())) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void addRows(BitSet result, int[] start, int[] rows, int code) {
+        for (int i = start[code]; i < start[code + 1]; i++) {
+            result.set(rows[i]);
+        }
+    }
+
+    private static String normalize(String text) {
+        return text == null ? "" : text.trim().toUpperCase(Locale.ROOT);
+    }
+
+    private static long trigram(String text, int from) {
+        return ((long) text.charAt(from) << 32) | ((long) text.charAt(from + 1) << 16) | text.charAt(from + 2);
+    }
+}
@@ -0,0 +1,67 @@
+package com.csvmonitor.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Two-way mapping between symbols and dense int codes.
+ *
+ * Every distinct symbol is stored once; rows only keep its code, so symbol
+ * equality becomes an int compare. Codes are never reassigned, so a dictionary
+ * shared by several stores (e.g. all chunks of a parallel load) gives them
+ * directly comparable codes.
+ *
+ * Thread-safe: lookups are lock-free, new symbols are added under a lock.
+ */
+public class SymbolDictionary {
+
+    private final Map<String, Integer> codes = new ConcurrentHashMap<>();
+    private volatile String[] symbols = new String[256];
+    private volatile int size;
+
+    /**
+     * Get the code of a symbol, adding it if needed.
+     */
+    public int encode(String symbol) {
+        Integer code = codes.get(symbol);
+        return code != null ? code : add(symbol);
+    }
+
+    /**
+     * Get the code of a symbol without adding it.
+     * @return the code, or -1 if the symbol is unknown
+     */
+    public int codeOf(String symbol) {
+        Integer code = codes.get(symbol);
+        return code != null ? code : -1;
+    }
+
+    /**
+     * Get the symbol for a code returned by {@link #encode(String)}.
+     */
+    public String symbol(int code) {
+        return symbols[code];
+    }
+
+    public int size() {
+        return size;
+    }
+
+    private synchronized int add(String symbol) {
+        Integer existing = codes.get(symbol);
+        if (existing != null) {
+            return existing;
+        }
+        int code = size;
+        String[] current = symbols;
+        if (code == current.length) {
+            current = Arrays.copyOf(current, code * 2);
+        }
+        current[code] = symbol;
+        symbols = current;
+        size = code + 1;
+        codes.put(symbol, code);
+        return code;
+    }
+}
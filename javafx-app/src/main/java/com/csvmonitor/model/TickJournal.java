@@ -0,0 +1,204 @@
+package com.csvmonitor.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Append-only binary journal of price updates on memory-mapped segment files.
+ *
+ * Each segment starts with a {@value #HEADER_SIZE}-byte header (magic,
+ * version, record size, record count) followed by fixed-width
+ * {@value #RECORD_SIZE}-byte little-endian records:
+ * <pre>
+ *  0  long   timestamp (epoch millis)
+ *  8  double price
+ * 16  int    id
+ * 20  int    qty
+ * 24  int    row
+ * 28  byte   kind ({@link #KIND_TICK} or {@link #KIND_EDIT}; 0 marks the end)
+ * </pre>
+ * A new segment is mapped when the current one is full. Appending is a few
+ * plain writes into the mapping; the OS flushes pages in the background.
+ *
+ * Meant for a single writer thread; {@link #close()} may be called from any thread.
+ */
+public class TickJournal implements Closeable {
+
+    private static final Logger logger = LoggerFactory.getLogger(TickJournal.class);
+
+    public static final int MAGIC = 0x544B4A31; // "TKJ1"
+    public static final int VERSION = 1;
+    public static final int HEADER_SIZE = 16;
+    public static final int RECORD_SIZE = 32;
+
+    public static final byte KIND_TICK = 1;
+    public static final byte KIND_EDIT = 2;
+
+    public static final String FILE_EXTENSION = ".tkj";
+
+    private static final DateTimeFormatter SESSION_FORMAT = DateTimeFormatter.ofPattern("yyyyMMdd-HHmmss-SSS");
+
+    /**
+     * Receives the records read back from a segment.
+     */
+    @FunctionalInterface
+    public interface RecordHandler {
+        void onRecord(long timestamp, int id, int row, double price, int qty, byte kind);
+    }
+
+    private final Path directory;
+    private final String session;
+    private final int recordsPerSegment;
+
+    private FileChannel channel;
+    private MappedByteBuffer buffer;
+    private int segmentIndex = -1;
+    private int segmentRecords;
+    private long totalRecords;
+    private boolean closed;
+
+    /**
+     * Create a journal writing segments of about {@code segmentBytes} into a directory.
+     */
+    public TickJournal(Path directory, long segmentBytes) throws IOException {
+        if (segmentBytes < HEADER_SIZE + RECORD_SIZE) {
+            throw new IllegalArgumentException("segmentBytes too small: " + segmentBytes);
+        }
+        this.directory = Files.createDirectories(directory);
+        this.session = "ticks-" + LocalDateTime.now().format(SESSION_FORMAT);
+        this.recordsPerSegment = (int) Math.min(Integer.MAX_VALUE / RECORD_SIZE - 1,
+                (segmentBytes - HEADER_SIZE) / RECORD_SIZE);
+        rotate();
+    }
+
+    /**
+     * Append one record, rotating to a new segment when the current one is full.
+     * Ignored once the journal is closed.
+     */
+    public synchronized void append(long timestamp, int id, int row, double price, int qty, byte kind) {
+        if (closed) {
+            return;
+        }
+        if (segmentRecords == recordsPerSegment) {
+            try {
+                rotate();
+            } catch (IOException e) {
+                logger.error("Failed to rotate tick journal, recording stopped: {}", e.getMessage(), e);
+                closeQuietly();
+                return;
+            }
+        }
+        int offset = HEADER_SIZE + segmentRecords * RECORD_SIZE;
+        buffer.putLong(offset, timestamp);
+        buffer.putDouble(offset + 8, price);
+        buffer.putInt(offset + 16, id);
+        buffer.putInt(offset + 20, qty);
+        buffer.putInt(offset + 24, row);
+        buffer.put(offset + 28, kind);
+        segmentRecords++;
+        totalRecords++;
+    }
+
+    /**
+     * Records appended since the journal was opened.
+     */
+    public synchronized long getRecordCount() {
+        return totalRecords;
+    }
+
+    public Path getDirectory() {
+        return directory;
+    }
+
+    /**
+     * Force the current segment to disk.
+     */
+    public synchronized void flush() {
+        if (!closed) {
+            buffer.force();
+        }
+    }
+
+    @Override
+    public synchronized void close() {
+        if (!closed) {
+            closeQuietly();
+            logger.info("Tick journal closed after {} records in {} segment(s)", totalRecords, segmentIndex + 1);
+        }
+    }
+
+    private void rotate() throws IOException {
+        finishSegment();
+        segmentIndex++;
+        segmentRecords = 0;
+        Path file = directory.resolve("%s-%05d%s".formatted(session, segmentIndex, FILE_EXTENSION));
+        channel = FileChannel.open(file, StandardOpenOption.CREATE_NEW,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0,
+                HEADER_SIZE + (long) recordsPerSegment * RECORD_SIZE);
+        buffer.order(ByteOrder.LITTLE_ENDIAN);
+        buffer.putInt(0, MAGIC);
+        buffer.putInt(4, VERSION);
+        buffer.putInt(8, RECORD_SIZE);
+        buffer.putInt(12, 0);
+        logger.debug("Tick journal segment opened: {}", file.getFileName());
+    }
+
+    // Store the record count in the header and release the segment file; the
+    // pages are written back by the OS, without blocking the writer on a sync
+    private void finishSegment() throws IOException {
+        if (channel == null) {
+            return;
+        }
+        buffer.putInt(12, segmentRecords);
+        channel.close();
+        channel = null;
+    }
+
+    private void closeQuietly() {
+        closed = true;
+        try {
+            finishSegment();
+        } catch (IOException e) {
+            logger.warn("Failed to close tick journal segment: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * Read the records of one segment in order.
+     * @return number of records read
+     */
+    public static long read(Path segment, RecordHandler handler) throws IOException {
+        try (FileChannel in = FileChannel.open(segment, StandardOpenOption.READ)) {
+            MappedByteBuffer data = in.map(FileChannel.MapMode.READ_ONLY, 0, in.size());
+            data.order(ByteOrder.LITTLE_ENDIAN);
+            if (data.limit() < HEADER_SIZE || data.getInt(0) != MAGIC) {
+                throw new IOException("Not a tick journal segment: " + segment);
+            }
+            int recordSize = data.getInt(8);
+            long count = 0;
+            // Stop at the first empty record, so segments of a crashed session are readable too
+            for (int offset = HEADER_SIZE; offset + recordSize <= data.limit(); offset += recordSize) {
+                byte kind = data.get(offset + 28);
+                if (kind == 0) {
+                    break;
+                }
+                handler.onRecord(data.getLong(offset), data.getInt(offset + 16), data.getInt(offset + 24),
+                        data.getDouble(offset + 8), data.getInt(offset + 20), kind);
+                count++;
+            }
+            return count;
+        }
+    }
+}
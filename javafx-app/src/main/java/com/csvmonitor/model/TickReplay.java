@@ -0,0 +1,223 @@
+package com.csvmonitor.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Replays a recorded tick file into an {@link UpdateEngine}.
+ *
+ * File format: one tick per line, {@code timestamp,id,price,qty}. The
+ * timestamp is either epoch millis or an ISO local date-time; an optional
+ * header line, blank lines and lines starting with '#' are skipped. Ticks are
+ * matched to rows by id. The qty column is read past but not applied, since
+ * the engine only streams prices.
+ *
+ * Segments written by {@link TickJournal} ({@value TickJournal#FILE_EXTENSION}
+ * files) are replayed too; their manual edit records are skipped.
+ *
+ * The file is streamed line by line, so its size is not limited by memory.
+ * Ticks are paced by their timestamps divided by the speed factor
+ * ({@link #MAX_SPEED} disables pacing).
+ */
+public class TickReplay {
+
+    private static final Logger logger = LoggerFactory.getLogger(TickReplay.class);
+
+    /** Replay as fast as the engine accepts ticks */
+    public static final double MAX_SPEED = Double.POSITIVE_INFINITY;
+
+    private static final int READ_BUFFER_SIZE = 1 << 16;
+
+    private final UpdateEngine engine;
+    // (id << 32) | row, sorted, so ids resolve by binary search without boxing
+    private final long[] idIndex;
+
+    private volatile boolean running;
+    private volatile long ticksReplayed;
+    private volatile long ticksSkipped;
+    
+    // Pacing state, only used by the replay thread
+    private double speed;
+    private long firstTimestamp;
+    private long startNanos;
+
+    /**
+     * @param store rows the engine is currently updating; ticks are matched against its ids
+     */
+    public TickReplay(UpdateEngine engine, RowStore store) {
+        this.engine = engine;
+        this.idIndex = new long[store.size()];
+        for (int row = 0; row < idIndex.length; row++) {
+            idIndex[row] = ((long) store.getId(row) << 32) | row;
+        }
+        Arrays.sort(idIndex);
+    }
+
+    /**
+     * Start replaying a file on a virtual thread.
+     * @param speed 1 for real time, N for N times faster, {@link #MAX_SPEED} for no pacing
+     * @return completes with the number of ticks replayed when the file ends or {@link #stop()} is called
+     */
+    public synchronized CompletableFuture<Long> start(Path file, double speed) {
+        if (!(speed > 0)) throw new IllegalArgumentException("speed must be positive");
+        if (running) throw new IllegalStateException("Replay already running");
+        running = true;
+
+        CompletableFuture<Long> done = new CompletableFuture<>();
+        Thread.ofVirtual().name("TickReplay").start(() -> {
+            try {
+                replay(file, speed);
+                done.complete(ticksReplayed);
+            } catch (IOException e) {
+                done.completeExceptionally(new UncheckedIOException(e));
+            } catch (RuntimeException e) {
+                done.completeExceptionally(e);
+            } finally {
+                running = false;
+            }
+        });
+        return done;
+    }
+
+    /**
+     * Stop after the current tick.
+     */
+    public void stop() {
+        running = false;
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    public long getTicksReplayed() {
+        return ticksReplayed;
+    }
+
+    /**
+     * Lines skipped because they were malformed or their id is unknown.
+     */
+    public long getTicksSkipped() {
+        return ticksSkipped;
+    }
+
+    private void replay(Path file, double speed) throws IOException {
+        logger.info("Replaying {} at {} speed", file.getFileName(), speed == MAX_SPEED ? "max" : speed + "x");
+        this.speed = speed;
+        this.firstTimestamp = Long.MIN_VALUE;
+
+        if (file.getFileName().toString().endsWith(TickJournal.FILE_EXTENSION)) {
+            TickJournal.read(file, (timestamp, id, row, price, qty, kind) -> {
+                if (kind != TickJournal.KIND_TICK || !running) {
+                    return;
+                }
+                int target = rowOf(id);
+                if (target < 0) {
+                    ticksSkipped++;
+                } else {
+                    emit(timestamp, target, price);
+                }
+            });
+        } else {
+            replayText(file);
+        }
+        logger.info("Replay of {} ended: {} ticks, {} skipped", file.getFileName(), ticksReplayed, ticksSkipped);
+    }
+
+    private void replayText(Path file) throws IOException {
+        try (BufferedReader reader = new BufferedReader(
+                new InputStreamReader(Files.newInputStream(file), StandardCharsets.UTF_8), READ_BUFFER_SIZE)) {
+            String line;
+            while (running && (line = reader.readLine()) != null) {
+                if (line.isBlank() || line.charAt(0) == '#' || !isNumericStart(line)) {
+                    continue;
+                }
+
+                int c1 = line.indexOf(',');
+                int c2 = c1 < 0 ? -1 : line.indexOf(',', c1 + 1);
+                if (c2 < 0) {
+                    ticksSkipped++;
+                    continue;
+                }
+                int c3 = line.indexOf(',', c2 + 1);
+
+                long timestamp;
+                int row;
+                double price;
+                try {
+                    timestamp = parseTimestamp(line.substring(0, c1).trim());
+                    row = rowOf(Integer.parseInt(line.substring(c1 + 1, c2).trim()));
+                    price = Double.parseDouble(line.substring(c2 + 1, c3 < 0 ? line.length() : c3).trim());
+                } catch (NumberFormatException e) {
+                    timestamp = RowStore.NO_TIMESTAMP;
+                    row = -1;
+                    price = 0;
+                }
+                if (timestamp == RowStore.NO_TIMESTAMP || row < 0) {
+                    ticksSkipped++;
+                    continue;
+                }
+
+                emit(timestamp, row, price);
+            }
+        }
+    }
+
+    // Wait until the tick is due, then publish it
+    private void emit(long timestamp, int row, double price) {
+        if (speed != MAX_SPEED) {
+            if (firstTimestamp == Long.MIN_VALUE) {
+                firstTimestamp = timestamp;
+                startNanos = System.nanoTime();
+            }
+            long due = startNanos + (long) ((timestamp - firstTimestamp) * 1_000_000L / speed);
+            long wait;
+            while (running && (wait = due - System.nanoTime()) > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            if (!running) {
+                return;
+            }
+        }
+        engine.publishTick(row, price);
+        ticksReplayed++;
+    }
+
+    // Header and other text lines do not start with a digit
+    private static boolean isNumericStart(String line) {
+        char first = line.charAt(0);
+        return (first >= '0' && first <= '9') || first == ' ';
+    }
+
+    private static long parseTimestamp(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c < '0' || c > '9') {
+                return RowStore.parseTimestamp(text);
+            }
+        }
+        return text.isEmpty() ? RowStore.NO_TIMESTAMP : Long.parseLong(text);
+    }
+
+    /**
+     * First row with the given id, or -1.
+     */
+    private int rowOf(int id) {
+        int index = Arrays.binarySearch(idIndex, (long) id << 32);
+        if (index < 0) {
+            index = -index - 1;
+        }
+        return index < idIndex.length && (int) (idIndex[index] >> 32) == id ? (int) idIndex[index] : -1;
+    }
+}
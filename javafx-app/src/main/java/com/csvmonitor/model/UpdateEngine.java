@@ -1,18 +1,20 @@
 package com.csvmonitor.model;
 
+import javafx.animation.AnimationTimer;
 import javafx.application.Platform;
-import javafx.collections.ObservableList;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Random;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Engine for real-time price updates.
@@ -25,7 +27,13 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Key features:
  * - Runs on background thread, updates UI via Platform.runLater
  * - Respects edit locks (rows manually edited are not auto-updated for 5 seconds)
- * - Batch updates for performance
+ * - Ticks flow through a preallocated {@link TickRingBuffer} into a
+ *   {@link TickPipeline}: lock check, then apply, then derived metrics, then
+ *   the optional {@link TickJournal} recorder (which also gets manual edits)
+ * - Accepted ticks are conflated per row in a {@link ConflatingTickBuffer}; at
+ *   most one drain is queued on the FX thread, however fast ticks arrive
+ * - In {@link ApplyMode#PULSE} mode ticks are applied at the start of each
+ *   pulse within a time budget, leftovers carry over to the next frame
  */
 public class UpdateEngine {
     
@@ -37,9 +45,53 @@ public class UpdateEngine {
     
     private final Random random = new Random();
     private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final ConflatingTickBuffer.TickHandler tickApplier = this::applyTick;
+    
+    private static final int RING_CAPACITY = 1 << 16;
+    
+    // Any thread may publish ticks (generator, replay, ...)
+    private final TickRingBuffer ring = new TickRingBuffer(RING_CAPACITY, TickRingBuffer.ProducerType.MULTI);
+    private final TickPipeline pipeline = new TickPipeline(ring, "UpdateEngine-ticks",
+            this::checkLock, this::offerAccepted, this::updateMetrics, this::recordUpdate);
+    
+    private volatile TickJournal journal;
+    
+    // Apply stage only: whether the current batch offered anything
+    private boolean offeredInBatch;
+    
+    // Metrics stage only writes these
+    private volatile long ticksReceived;
+    private volatile long ticksApplied;
+    private volatile long upTicks;
+    private volatile long downTicks;
+    
+    // Rows applied between two budget checks in PULSE mode
+    private static final int PULSE_CHUNK_ROWS = 256;
+    
+    /**
+     * How drained ticks are applied on the FX thread.
+     */
+    public enum ApplyMode {
+        /** Drain everything in a Platform.runLater task as soon as ticks arrive */
+        RUN_LATER,
+        /** Drain from an AnimationTimer, at most the frame budget per pulse */
+        PULSE
+    }
+    
+    private volatile ApplyMode applyMode = ApplyMode.PULSE;
+    private volatile long frameBudgetNanos = TimeUnit.MILLISECONDS.toNanos(4);
+    
+    // Only runs while ticks are pending, so an idle engine does not force pulses
+    private final AnimationTimer pulseDrain = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            drainOnPulse();
+        }
+    };
     
     private ScheduledFuture<?> updateTask;
-    private ObservableList<RowModel> data;
+    private volatile TickTarget target;
     
     // Configuration using record for immutability
     private UpdateConfig config = new UpdateConfig(500, 5, 1000, 0.20);
@@ -64,15 +116,73 @@ public class UpdateEngine {
     }
     
     /**
-     * Internal record to hold pending price updates.
+     * Counters maintained by the metrics stage since the engine was created.
+     */
+    public record TickStats(long received, long applied, long upTicks, long downTicks) {}
+    
+    /**
+     * Store being updated together with the tick buffer sized for it. Ticks
+     * published for an older epoch are dropped.
+     *
+     * The stages never read the store, which belongs to the UI thread: they
+     * use the row count, ids and quantities copied when the target is created,
+     * the edit locks mirrored by the store's {@link RowStore.EditLockListener},
+     * and prices tracked by the metrics stage itself.
      */
-    private record PriceUpdate(RowModel row, double newPrice) {}
+    private record TickTarget(RowStore store, ConflatingTickBuffer ticks, int epoch,
+                              int rowCount, int[] ids, int[] qtys, AtomicLongArray lockedUntil,
+                              double[] lastPrices) {
+        
+        static TickTarget of(RowStore store, int epoch) {
+            int rowCount = store.size();
+            int[] ids = new int[rowCount];
+            int[] qtys = new int[rowCount];
+            double[] prices = new double[rowCount];
+            AtomicLongArray lockedUntil = new AtomicLongArray(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                ids[row] = store.getId(row);
+                qtys[row] = store.getQty(row);
+                prices[row] = store.getPrice(row);
+                lockedUntil.set(row, store.getEditLockUntil(row));
+            }
+            return new TickTarget(store, new ConflatingTickBuffer(rowCount), epoch,
+                    rowCount, ids, qtys, lockedUntil, prices);
+        }
+        
+        boolean isCurrent(TickRingBuffer ring, long sequence) {
+            int row = ring.row(sequence);
+            return epoch == ring.epoch(sequence) && row >= 0 && row < rowCount;
+        }
+    }
+    
+    private int epoch;
+    
+    // Store being drained, only used on the FX thread
+    private RowStore drainStore;
     
     /**
-     * Set the data source for updates.
+     * Set the data source for updates; called on the thread owning the store.
      */
-    public void setData(ObservableList<RowModel> data) {
-        this.data = data;
+    public synchronized void setData(RowStore data) {
+        TickTarget previous = target;
+        if (previous != null) {
+            previous.store().setEditLockListener(null);
+        }
+        TickTarget next = data != null ? TickTarget.of(data, ++epoch) : null;
+        if (next != null) {
+            data.setEditLockListener(new RowStore.EditLockListener() {
+                @Override
+                public void onEditLock(int row) {
+                    publishEdit(next, row);
+                }
+                
+                @Override
+                public void onEditLockChanged(int row) {
+                    next.lockedUntil().set(row, data.getEditLockUntil(row));
+                }
+            });
+        }
+        this.target = next;
         logger.info("UpdateEngine data source set with {} rows", data != null ? data.size() : 0);
     }
     
@@ -83,16 +193,37 @@ public class UpdateEngine {
         this.config = config;
     }
     
+    /**
+     * Choose how ticks are applied on the FX thread.
+     */
+    public void setApplyMode(ApplyMode applyMode) {
+        this.applyMode = applyMode;
+    }
+    
+    public ApplyMode getApplyMode() {
+        return applyMode;
+    }
+    
+    /**
+     * Set the time spent applying ticks per frame in {@link ApplyMode#PULSE} mode.
+     */
+    public void setFrameBudgetMs(double frameBudgetMs) {
+        if (frameBudgetMs <= 0) throw new IllegalArgumentException("frameBudgetMs must be positive");
+        this.frameBudgetNanos = (long) (frameBudgetMs * 1_000_000);
+    }
+    
     /**
      * Start the real-time update engine.
      */
     public void start() {
-        if (data == null || data.isEmpty()) {
+        TickTarget current = target;
+        if (current == null || current.store().isEmpty()) {
             logger.warn("Cannot start UpdateEngine: no data available");
             return;
         }
         
         if (running.compareAndSet(false, true)) {
+            pipeline.start();
             logger.info("Starting UpdateEngine with {}ms interval (Virtual Threads)", config.intervalMs());
             
             updateTask = scheduler.scheduleAtFixedRate(
@@ -131,7 +262,10 @@ public class UpdateEngine {
      */
     public void shutdown() {
         pause();
+        Platform.runLater(pulseDrain::stop);
         scheduler.shutdown();
+        pipeline.halt();
+        stopRecording();
         try {
             if (!scheduler.awaitTermination(1, TimeUnit.SECONDS)) {
                 scheduler.shutdownNow();
@@ -148,40 +282,28 @@ public class UpdateEngine {
      * Only updates the price column.
      */
     private void performUpdate() {
-        if (data == null || data.isEmpty()) {
+        TickTarget current = target;
+        if (current == null || current.store().isEmpty()) {
             return;
         }
         
         try {
-            int dataSize = data.size();
+            RowStore store = current.store();
+            int dataSize = store.size();
             int rowsToUpdate = config.minRowsToUpdate() + 
                     random.nextInt(config.maxRowsToUpdate() - config.minRowsToUpdate() + 1);
             rowsToUpdate = Math.min(rowsToUpdate, dataSize);
             
-            // Collect price updates using Stream API
-            List<PriceUpdate> updates = new ArrayList<>(rowsToUpdate);
-            
             for (int i = 0; i < rowsToUpdate; i++) {
-                int index = random.nextInt(dataSize);
-                RowModel row = data.get(index);
+                int row = random.nextInt(dataSize);
                 
-                // Skip locked rows
-                if (row.isLocked()) {
-                    continue;
-                }
-                
-                // Generate new price
-                double currentPrice = row.getPrice();
+                // Generate new price (locked rows are filtered by the pipeline)
+                double currentPrice = store.getPrice(row);
                 double priceChange = currentPrice * config.priceChangePercent() * (random.nextDouble() * 2 - 1);
                 double newPrice = Math.max(0.01, currentPrice + priceChange);
                 newPrice = Math.round(newPrice * 100.0) / 100.0;
                 
-                updates.add(new PriceUpdate(row, newPrice));
-            }
-            
-            // Apply updates on JavaFX thread
-            if (!updates.isEmpty()) {
-                Platform.runLater(() -> applyUpdates(updates));
+                publish(current, row, newPrice);
             }
             
         } catch (Exception e) {
@@ -190,15 +312,237 @@ public class UpdateEngine {
     }
     
     /**
-     * Apply price updates to the model.
-     * Uses record accessor methods for clean code.
+     * Feed a price tick for a row of the current data source into the pipeline.
+     * Thread-safe; waits if the ring is full, so not meant for the UI thread.
+     */
+    public void publishTick(int row, double price) {
+        TickTarget current = target;
+        if (current == null) {
+            return;
+        }
+        if (!pipeline.isRunning()) {
+            pipeline.start();
+        }
+        publish(current, row, price);
+    }
+    
+    /**
+     * Record every applied tick and manual edit into a journal in the given
+     * directory, rotating segments at about {@code segmentBytes}.
+     */
+    public synchronized void startRecording(Path directory, long segmentBytes) throws IOException {
+        stopRecording();
+        journal = new TickJournal(directory, segmentBytes);
+        if (!pipeline.isRunning()) {
+            pipeline.start();
+        }
+        logger.info("Recording ticks to {}", directory);
+    }
+    
+    /**
+     * Stop recording; does nothing if not recording.
+     */
+    public synchronized void stopRecording() {
+        TickJournal current = journal;
+        journal = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+    
+    public boolean isRecording() {
+        return journal != null;
+    }
+    
+    /**
+     * Get the counters of the metrics stage.
+     */
+    public TickStats getTickStats() {
+        return new TickStats(ticksReceived, ticksApplied, upTicks, downTicks);
+    }
+    
+    private void publish(TickTarget current, int row, double price) {
+        long sequence = ring.next();
+        ring.set(sequence, row, price, System.currentTimeMillis(), current.epoch());
+        ring.publish(sequence);
+    }
+    
+    // Manual edits only go through the pipeline to reset the metrics price and be recorded in order with the ticks
+    private void publishEdit(TickTarget current, int row) {
+        if (current != target || !pipeline.isRunning()) {
+            return;
+        }
+        double price = current.store().getPrice(row);
+        long timestamp = System.currentTimeMillis();
+        long sequence = ring.tryNext();
+        if (sequence >= 0) {
+            publishEdit(current, sequence, row, price, timestamp);
+            return;
+        }
+        // Ring full: the UI thread never waits, the scheduler publishes the edit once there is room
+        try {
+            scheduler.execute(() -> publishEdit(current, ring.next(), row, price, timestamp));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Edit of row {} not published: engine shut down", row);
+        }
+    }
+    
+    private void publishEdit(TickTarget current, long sequence, int row, double price, long timestamp) {
+        ring.set(sequence, row, price, timestamp, current.epoch());
+        ring.addFlags(sequence, TickRingBuffer.FLAG_EDIT);
+        ring.publish(sequence);
+    }
+    
+    // Stage 1: accept ticks for the current data source whose row is not locked
+    private void checkLock(TickRingBuffer ring, long sequence, boolean endOfBatch) {
+        if ((ring.flags(sequence) & TickRingBuffer.FLAG_EDIT) != 0) {
+            return;
+        }
+        TickTarget current = target;
+        if (current != null && current.isCurrent(ring, sequence)
+                && System.currentTimeMillis() >= current.lockedUntil().get(ring.row(sequence))) {
+            ring.addFlags(sequence, TickRingBuffer.FLAG_ACCEPTED);
+        }
+    }
+    
+    // Stage 2: conflate accepted ticks, queue one drain per batch
+    private void offerAccepted(TickRingBuffer ring, long sequence, boolean endOfBatch) {
+        TickTarget current = target;
+        if ((ring.flags(sequence) & TickRingBuffer.FLAG_ACCEPTED) != 0
+                && current != null && current.epoch() == ring.epoch(sequence)) {
+            current.ticks().offer(ring.row(sequence), ring.price(sequence));
+            offeredInBatch = true;
+        }
+        if (endOfBatch && offeredInBatch) {
+            offeredInBatch = false;
+            scheduleDrain();
+        }
+    }
+    
+    // Stage 3: tick direction against the last accepted or edited price, and counters
+    private void updateMetrics(TickRingBuffer ring, long sequence, boolean endOfBatch) {
+        TickTarget current = target;
+        boolean matches = current != null && current.isCurrent(ring, sequence);
+        if ((ring.flags(sequence) & TickRingBuffer.FLAG_EDIT) != 0) {
+            if (matches) {
+                current.lastPrices()[ring.row(sequence)] = ring.price(sequence);
+            }
+            return;
+        }
+        ticksReceived++;
+        if ((ring.flags(sequence) & TickRingBuffer.FLAG_ACCEPTED) == 0) {
+            return;
+        }
+        ticksApplied++;
+        if (!matches) {
+            return;
+        }
+        double[] lastPrices = current.lastPrices();
+        int row = ring.row(sequence);
+        double previous = lastPrices[row];
+        double price = ring.price(sequence);
+        lastPrices[row] = price;
+        if (price > previous) {
+            ring.addFlags(sequence, TickRingBuffer.FLAG_UP);
+            upTicks++;
+        } else if (price < previous) {
+            ring.addFlags(sequence, TickRingBuffer.FLAG_DOWN);
+            downTicks++;
+        }
+    }
+    
+    // Stage 4: journal applied ticks and manual edits while recording
+    private void recordUpdate(TickRingBuffer ring, long sequence, boolean endOfBatch) {
+        TickJournal recorder = journal;
+        if (recorder == null) {
+            return;
+        }
+        byte flags = ring.flags(sequence);
+        byte kind;
+        if ((flags & TickRingBuffer.FLAG_EDIT) != 0) {
+            kind = TickJournal.KIND_EDIT;
+        } else if ((flags & TickRingBuffer.FLAG_ACCEPTED) != 0) {
+            kind = TickJournal.KIND_TICK;
+        } else {
+            return;
+        }
+        TickTarget current = target;
+        if (current == null || !current.isCurrent(ring, sequence)) {
+            return;
+        }
+        int row = ring.row(sequence);
+        recorder.append(ring.timestamp(sequence), current.ids()[row], row,
+                ring.price(sequence), current.qtys()[row], kind);
+    }
+    
+    /**
+     * Queue a drain on the FX thread unless one is already queued.
+     */
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            if (applyMode == ApplyMode.PULSE) {
+                Platform.runLater(pulseDrain::start);
+            } else {
+                Platform.runLater(this::drainTicks);
+            }
+        }
+    }
+    
+    /**
+     * Apply pending ticks until the frame budget is spent, then stop the
+     * timer once nothing is left.
+     */
+    private void drainOnPulse() {
+        drainScheduled.set(false);
+        TickTarget current = target;
+        if (current == null) {
+            pulseDrain.stop();
+            return;
+        }
+        ConflatingTickBuffer ticks = current.ticks();
+        long deadline = System.nanoTime() + frameBudgetNanos;
+        int applied = 0;
+        drainStore = current.store();
+        int chunk;
+        do {
+            chunk = ticks.drain(tickApplier, PULSE_CHUNK_ROWS);
+            applied += chunk;
+        } while (chunk == PULSE_CHUNK_ROWS && System.nanoTime() < deadline);
+        drainStore = null;
+        
+        if (ticks.pendingCount() > 0) {
+            // Leftovers: keep the timer running, no need for producers to restart it
+            drainScheduled.set(true);
+        } else {
+            // A tick offered after this point sees the flag cleared and restarts the timer
+            pulseDrain.stop();
+        }
+        
+        logger.trace("Applied {} price updates this pulse", applied);
+    }
+    
+    /**
+     * Apply the latest pending price of every ticked row to the model.
      */
-    private void applyUpdates(List<PriceUpdate> updates) {
-        updates.stream()
-                .filter(update -> !update.row().isLocked())
-                .forEach(update -> update.row().setPrice(update.newPrice()));
+    private void drainTicks() {
+        // Reset first: ticks arriving during the drain queue the next one
+        drainScheduled.set(false);
+        TickTarget current = target;
+        if (current == null) {
+            return;
+        }
+        drainStore = current.store();
+        int applied = current.ticks().drain(tickApplier);
+        drainStore = null;
         
-        logger.trace("Applied {} price updates", updates.size());
+        logger.trace("Applied {} price updates", applied);
+    }
+    
+    private void applyTick(int row, double price) {
+        // Re-check the lock: the row may have been edited since the tick was produced
+        if (!drainStore.isLocked(row)) {
+            drainStore.setPrice(row, price);
+        }
     }
     
     // Legacy setters for backward compatibility
@@ -0,0 +1,119 @@
+package com.csvmonitor.view;
+
+import javafx.animation.AnimationTimer;
+import javafx.css.PseudoClass;
+import javafx.scene.Node;
+import javafx.util.Duration;
+
+import java.util.Arrays;
+import java.util.IdentityHashMap;
+import java.util.Iterator;
+import java.util.Map;
+
+/**
+ * Shared timer for the price flash of table cells.
+ *
+ * A flash is recorded per row index with its expiry time, so it outlives the
+ * cell that noticed the change: a recycled cell showing the row picks it up.
+ * Cells show the flash through the {@code :flash-up} / {@code :flash-down}
+ * pseudo-classes, switched only when a cell's state actually changes. While
+ * any cell flashes, a single AnimationTimer expires them; it stops when none
+ * is left.
+ *
+ * FX thread only.
+ */
+final class FlashScheduler {
+
+    static final PseudoClass FLASH_UP = PseudoClass.getPseudoClass("flash-up");
+    static final PseudoClass FLASH_DOWN = PseudoClass.getPseudoClass("flash-down");
+
+    private final long durationNanos;
+
+    // Flash expiry (System.nanoTime) and direction by row index
+    private long[] expiresAt = new long[0];
+    private byte[] directions = new byte[0];
+
+    // Nodes currently showing a flash, with the row they show
+    private final Map<Node, Integer> flashing = new IdentityHashMap<>();
+
+    private final AnimationTimer timer = new AnimationTimer() {
+        @Override
+        public void handle(long now) {
+            expire(now);
+        }
+    };
+    private boolean timerRunning;
+
+    FlashScheduler(Duration duration) {
+        this.durationNanos = (long) (duration.toMillis() * 1_000_000);
+    }
+
+    /**
+     * Start or restart the flash of a row.
+     * @param direction positive for up, negative for down
+     */
+    void flash(int row, int direction) {
+        if (row >= expiresAt.length) {
+            int capacity = Math.max(row + 1, expiresAt.length * 2);
+            expiresAt = Arrays.copyOf(expiresAt, capacity);
+            directions = Arrays.copyOf(directions, capacity);
+        }
+        expiresAt[row] = System.nanoTime() + durationNanos;
+        directions[row] = (byte) Integer.signum(direction);
+    }
+
+    /**
+     * Show the current flash state of a row on a node (e.g. after the node got a new item).
+     */
+    void show(Node node, int row) {
+        int direction = directionAt(row, System.nanoTime());
+        apply(node, direction);
+        if (direction != 0) {
+            flashing.put(node, row);
+            if (!timerRunning) {
+                timerRunning = true;
+                timer.start();
+            }
+        } else {
+            flashing.remove(node);
+        }
+    }
+
+    /**
+     * Remove any flash from a node, e.g. when it becomes empty.
+     */
+    void clear(Node node) {
+        apply(node, 0);
+        flashing.remove(node);
+    }
+
+    private void expire(long now) {
+        for (Iterator<Map.Entry<Node, Integer>> it = flashing.entrySet().iterator(); it.hasNext(); ) {
+            Map.Entry<Node, Integer> entry = it.next();
+            if (directionAt(entry.getValue(), now) == 0) {
+                apply(entry.getKey(), 0);
+                it.remove();
+            }
+        }
+        if (flashing.isEmpty()) {
+            timer.stop();
+            timerRunning = false;
+        }
+    }
+
+    private int directionAt(int row, long now) {
+        return row >= 0 && row < expiresAt.length && expiresAt[row] - now > 0 ? directions[row] : 0;
+    }
+
+    // Pseudo-class changes are cheap, but still only made when the state differs
+    private static void apply(Node node, int direction) {
+        boolean up = direction > 0;
+        boolean down = direction < 0;
+        if (node.getPseudoClassStates().contains(FLASH_UP) != up) {
+            node.pseudoClassStateChanged(FLASH_UP, up);
+        }
+        if (node.getPseudoClassStates().contains(FLASH_DOWN) != down) {
+            node.pseudoClassStateChanged(FLASH_DOWN, down);
+        }
+    }
+}
@@ -1,22 +1,30 @@
 package com.csvmonitor.view;
 
+import com.csvmonitor.model.PriceFormatter;
+import com.csvmonitor.model.Status;
+import com.csvmonitor.model.TickJournal;
+import com.csvmonitor.model.TickReplay;
 import com.csvmonitor.viewmodel.ColumnConfig;
 import com.csvmonitor.viewmodel.RowViewModel;
 import com.csvmonitor.viewmodel.TableViewModel;
-import javafx.animation.PauseTransition;
 import javafx.application.Platform;
 import javafx.beans.binding.Bindings;
+import javafx.beans.value.ChangeListener;
 import javafx.beans.value.ObservableValue;
+import javafx.beans.value.WeakChangeListener;
+import javafx.collections.FXCollections;
+import javafx.css.PseudoClass;
 import javafx.geometry.Insets;
 import javafx.geometry.Orientation;
 import javafx.geometry.Pos;
+import javafx.scene.Node;
 import javafx.scene.control.*;
 import javafx.scene.layout.*;
-import javafx.scene.paint.Color;
 import javafx.scene.text.Font;
 import javafx.scene.text.FontWeight;
 import javafx.scene.text.Text;
 import javafx.scene.text.TextFlow;
+import javafx.stage.DirectoryChooser;
 import javafx.stage.FileChooser;
 import javafx.util.Duration;
 import org.drombler.commons.docking.DockableKind;
@@ -51,40 +59,44 @@ public class MainController {
 
     // ==================== Constants ====================
 
-    /** Background colors for each status type */
-    private static final Map<String, Color> STATUS_BG_COLORS = new HashMap<>();
-    static {
-        // ALERT - red
-        STATUS_BG_COLORS.put("ALERT", Color.web("#ffcccc"));
-        STATUS_BG_COLORS.put("WARN", Color.web("#ffcccc"));
-        STATUS_BG_COLORS.put("WARNING", Color.web("#ffcccc"));
-        // NORMAL - green
-        STATUS_BG_COLORS.put("NORMAL", Color.web("#e6ffe6"));
-        STATUS_BG_COLORS.put("OK", Color.web("#e6ffe6"));
-        STATUS_BG_COLORS.put("GOOD", Color.web("#e6ffe6"));
-        // PENDING - orange/yellow
-        STATUS_BG_COLORS.put("PENDING", Color.web("#fff2cc"));
-        STATUS_BG_COLORS.put("WAIT", Color.web("#fff2cc"));
-        // ACTIVE - blue
-        STATUS_BG_COLORS.put("ACTIVE", Color.web("#cce6ff"));
-        STATUS_BG_COLORS.put("LIVE", Color.web("#cce6ff"));
-        STATUS_BG_COLORS.put("RUNNING", Color.web("#cce6ff"));
-        // CLOSED - gray
-        STATUS_BG_COLORS.put("CLOSED", Color.web("#e6e6e6"));
-        STATUS_BG_COLORS.put("DONE", Color.web("#e6e6e6"));
-        STATUS_BG_COLORS.put("COMPLETE", Color.web("#e6e6e6"));
-    }
+    /** Table rows by Status ordinal (aliases are resolved by the model), colored by styles.css */
+    private static final PseudoClass[] ROW_STATUS = Arrays.stream(Status.values())
+            .map(status -> PseudoClass.getPseudoClass("row-" + status.name().toLowerCase(Locale.ROOT)))
+            .toArray(PseudoClass[]::new);
+
+    /** Status cells by Status ordinal, colored by styles.css */
+    private static final PseudoClass[] CELL_STATUS = Arrays.stream(Status.values())
+            .map(status -> PseudoClass.getPseudoClass("status-" + status.name().toLowerCase(Locale.ROOT)))
+            .toArray(PseudoClass[]::new);
+
+    /** Price cells of rows whose last update moved the price up or down */
+    private static final PseudoClass PRICE_UP = PseudoClass.getPseudoClass("price-up");
+    private static final PseudoClass PRICE_DOWN = PseudoClass.getPseudoClass("price-down");
+
+    /** Table rows matching the search text */
+    private static final PseudoClass SEARCH_MATCH = PseudoClass.getPseudoClass("search-match");
 
     // ==================== Fields ====================
 
     private final TableViewModel viewModel = new TableViewModel();
+    // Times the price flashes of all price cells
+    private final FlashScheduler flashScheduler = new FlashScheduler(Duration.millis(500));
     private final List<FilteredTableColumn<RowViewModel, ?>> columns = new ArrayList<>();
 
     private DockingPane dockingPane;
     private VBox tableContainer;
     private FilteredTableView<RowViewModel> filteredTableView;
     private Button startPauseButton;
+    private Button replayButton;
+    private Button recordButton;
+    private ChoiceBox<String> replaySpeedChoice;
+    private CheckBox holdOrderCheck;
+    private TextField minPriceField;
+    private TextField maxPriceField;
+    private TextField searchField;
+    private Label searchMatchLabel;
     private Label statusLabel;
+    private ProgressBar loadProgressBar;
     private Label rowCountLabel;
     private Label detailIdValue;
     private Label detailSymbolValue;
@@ -162,8 +174,62 @@ public class MainController {
         unlockAllButton.getStyleClass().add("toolbar-button");
         unlockAllButton.setOnAction(e -> onUnlockAll());
 
-        HBox controlGroup = new HBox(6, startPauseButton, unlockAllButton);
+        holdOrderCheck = new CheckBox("Hold Order");
+        holdOrderCheck.setSelected(true);
+        holdOrderCheck.setTooltip(new Tooltip("Keep sorted rows in place while the pointer is over the table or a row is selected"));
+
+        HBox controlGroup = new HBox(6, startPauseButton, unlockAllButton, holdOrderCheck);
         controlGroup.getStyleClass().add("button-group");
+        controlGroup.setAlignment(Pos.CENTER_LEFT);
+
+        // Tick replay
+        replayButton = new Button("Replay Ticks");
+        replayButton.getStyleClass().add("toolbar-button");
+        replayButton.setOnAction(e -> onReplayTicks());
+
+        replaySpeedChoice = new ChoiceBox<>(FXCollections.observableArrayList("1x", "10x", "100x", "Max"));
+        replaySpeedChoice.setValue("1x");
+
+        recordButton = new Button("Record");
+        recordButton.getStyleClass().add("toolbar-button");
+        recordButton.setOnAction(e -> onRecord());
+
+        HBox replayGroup = new HBox(6, replayButton, replaySpeedChoice, recordButton);
+        replayGroup.getStyleClass().add("button-group");
+        replayGroup.setAlignment(Pos.CENTER_LEFT);
+
+        // Price range filter, answered from the sorted price index
+        minPriceField = new TextField();
+        minPriceField.setPromptText("Min price");
+        minPriceField.setPrefColumnCount(6);
+        minPriceField.setOnAction(e -> onPriceRange());
+
+        maxPriceField = new TextField();
+        maxPriceField.setPromptText("Max price");
+        maxPriceField.setPrefColumnCount(6);
+        maxPriceField.setOnAction(e -> onPriceRange());
+
+        HBox priceGroup = new HBox(6, new Label("Price"), minPriceField, maxPriceField);
+        priceGroup.getStyleClass().add("button-group");
+        priceGroup.setAlignment(Pos.CENTER_LEFT);
+
+        // Symbol/status search
+        searchField = new TextField();
+        searchField.setPromptText("Search symbol/status");
+        searchField.setPrefColumnCount(12);
+        searchField.textProperty().addListener((obs, oldText, newText) -> onSearch(newText));
+        searchField.setOnAction(e -> onNextMatch());
+
+        Button nextMatchButton = new Button("Next");
+        nextMatchButton.getStyleClass().add("toolbar-button");
+        nextMatchButton.setOnAction(e -> onNextMatch());
+
+        searchMatchLabel = new Label();
+        searchMatchLabel.getStyleClass().add("info-label");
+
+        HBox searchGroup = new HBox(6, searchField, nextMatchButton, searchMatchLabel);
+        searchGroup.getStyleClass().add("button-group");
+        searchGroup.setAlignment(Pos.CENTER_LEFT);
 
         // Toolbar layout
         Region toolbarSpacer = new Region();
@@ -174,6 +240,11 @@ public class MainController {
                 new Separator(Orientation.VERTICAL),
                 controlGroup,
                 new Separator(Orientation.VERTICAL),
+                replayGroup,
+                new Separator(Orientation.VERTICAL),
+                priceGroup,
+                new Separator(Orientation.VERTICAL),
+                searchGroup,
                 toolbarSpacer);
         mainToolbar.setAlignment(Pos.CENTER_LEFT);
         mainToolbar.getStyleClass().add("main-toolbar");
@@ -291,7 +362,11 @@ public class MainController {
         Label hintLabel = new Label("Use column filters to search data");
         hintLabel.getStyleClass().add("hint-text");
 
-        HBox statusBar = new HBox(12, statusLabel, spacer, hintLabel);
+        loadProgressBar = new ProgressBar();
+        loadProgressBar.setPrefWidth(160);
+        loadProgressBar.managedProperty().bind(loadProgressBar.visibleProperty());
+
+        HBox statusBar = new HBox(12, statusLabel, loadProgressBar, spacer, hintLabel);
         statusBar.getStyleClass().add("status-bar");
         statusBar.setAlignment(Pos.CENTER_LEFT);
         statusBar.setPadding(new Insets(8, 16, 8, 16));
@@ -353,6 +428,7 @@ public class MainController {
 
     private <T> FilteredTableColumn<RowViewModel, T> createColumn(ColumnConfig<T> config) {
         FilteredTableColumn<RowViewModel, T> column = new FilteredTableColumn<>(config.title());
+        column.setId(config.id());
 
         column.setCellValueFactory(cellData -> 
                 (ObservableValue<T>) config.propertyGetter().apply(cellData.getValue()));
@@ -369,6 +445,46 @@ public class MainController {
 
     private void setupTableBinding() {
         filteredTableView.setItems(viewModel.getViewData());
+        // Filtering is done by the view model (see setupToolbarBindings); the default
+        // policy would wrap the items into a FilteredList that re-tests every row
+        filteredTableView.setFilterPolicy(table -> true);
+        // Sorting too: the default policy cannot sort the view data, and a SortedList
+        // would sort every row again on each tick; only the first sort column is used
+        filteredTableView.setSortPolicy(table -> {
+            List<TableColumn<RowViewModel, ?>> sortOrder = table.getSortOrder();
+            if (sortOrder.isEmpty()) {
+                viewModel.clearSort();
+            } else {
+                TableColumn<RowViewModel, ?> column = sortOrder.get(0);
+                viewModel.sortBy(column.getId(), column.getSortType() == TableColumn.SortType.ASCENDING);
+            }
+            return true;
+        });
+
+        // Rows shown by a TableRow must stay materialized to keep updating. The row
+        // is colored by the status of its item, so the cells need no background of their own
+        filteredTableView.setRowFactory(table -> {
+            TableRow<RowViewModel> row = new TableRow<>();
+            ChangeListener<String> statusListener = (obs, oldStatus, newStatus) -> updateRowStatus(row);
+            // A new search re-evaluates the highlight of the rows in place; the row holds the
+            // listener, so the weak registration lives as long as the row
+            ChangeListener<Number> searchListener = (obs, oldSearch, newSearch) -> updateSearchMatch(row);
+            row.getProperties().put(SEARCH_MATCH, searchListener);
+            viewModel.searchGenerationProperty().addListener(new WeakChangeListener<>(searchListener));
+            row.itemProperty().addListener((obs, oldItem, newItem) -> {
+                if (oldItem != null) {
+                    viewModel.unpinRow(oldItem);
+                    oldItem.statusProperty().removeListener(statusListener);
+                }
+                if (newItem != null) {
+                    viewModel.pinRow(newItem);
+                    newItem.statusProperty().addListener(statusListener);
+                }
+                updateSearchMatch(row);
+                updateRowStatus(row);
+            });
+            return row;
+        });
         logger.info("Table binding configured");
     }
 
@@ -399,22 +515,46 @@ public class MainController {
                         .then("Pause")
                         .otherwise("Start"));
 
+        replayButton.textProperty().bind(
+                Bindings.when(viewModel.replayRunningProperty())
+                        .then("Stop Replay")
+                        .otherwise("Replay Ticks"));
+
+        recordButton.textProperty().bind(
+                Bindings.when(viewModel.recordingProperty())
+                        .then("Stop Recording")
+                        .otherwise("Record"));
+
         statusLabel.textProperty().bind(viewModel.statusMessageProperty());
+        searchMatchLabel.textProperty().bind(Bindings.createStringBinding(
+                () -> searchField.getText().isBlank() ? "" : "%d matches".formatted(viewModel.searchMatchCountProperty().get()),
+                viewModel.searchMatchCountProperty(), searchField.textProperty()));
+        loadProgressBar.progressProperty().bind(viewModel.loadProgressProperty());
+        loadProgressBar.visibleProperty().bind(viewModel.loadingProperty());
+
+        // The view model filters and counts rows incrementally, as the predicate and the rows change
+        filteredTableView.predicateProperty().addListener(
+                (obs, oldPredicate, newPredicate) -> viewModel.setFilterPredicate(newPredicate));
+
+        // Sorted rows stay in place while the user points at or selects rows, if asked to
+        holdOrderCheck.selectedProperty().addListener((obs, oldValue, newValue) -> updateOrderFrozen());
+        filteredTableView.hoverProperty().addListener((obs, oldValue, newValue) -> updateOrderFrozen());
+        filteredTableView.getSelectionModel().selectedItemProperty().addListener(
+                (obs, oldSelection, newSelection) -> updateOrderFrozen());
 
         rowCountLabel.textProperty().bind(
                 Bindings.createStringBinding(() -> {
                     int total = viewModel.getTotalRowCount();
-                    int filtered = total;
-                    if (filteredTableView.getPredicate() != null) {
-                        filtered = (int) viewModel.getViewData().stream()
-                                .filter(filteredTableView.getPredicate())
-                                .count();
-                    }
-                    viewModel.setFilteredRowCount(filtered);
+                    int filtered = viewModel.getFilteredRowCount();
                     return filtered == total
                             ? "Rows: %d".formatted(total)
                             : "Rows: %d / %d".formatted(filtered, total);
-                }, filteredTableView.predicateProperty(), viewModel.totalRowCountProperty()));
+                }, viewModel.filteredRowCountProperty(), viewModel.totalRowCountProperty()));
+    }
+
+    private void updateOrderFrozen() {
+        viewModel.setOrderFrozen(holdOrderCheck.isSelected()
+                && (filteredTableView.isHover() || filteredTableView.getSelectionModel().getSelectedItem() != null));
     }
 
     private void setupDetailsBinding() {
@@ -469,36 +609,100 @@ public class MainController {
         }
     }
 
+    private void onReplayTicks() {
+        if (viewModel.replayRunningProperty().get()) {
+            viewModel.stopReplay();
+            return;
+        }
+
+        FileChooser chooser = new FileChooser();
+        chooser.setTitle("Open Tick File");
+        chooser.getExtensionFilters().addAll(
+                new FileChooser.ExtensionFilter("Tick Files", "*.csv", "*.ticks", "*" + TickJournal.FILE_EXTENSION),
+                new FileChooser.ExtensionFilter("All Files", "*.*"));
+
+        File file = chooser.showOpenDialog(filteredTableView.getScene().getWindow());
+        if (file != null) {
+            viewModel.replayTickFile(file, replaySpeed(replaySpeedChoice.getValue()));
+        }
+    }
+
+    private void onRecord() {
+        if (viewModel.recordingProperty().get()) {
+            viewModel.stopRecording();
+            return;
+        }
+
+        DirectoryChooser chooser = new DirectoryChooser();
+        chooser.setTitle("Choose Tick Journal Directory");
+
+        File directory = chooser.showDialog(filteredTableView.getScene().getWindow());
+        if (directory != null) {
+            viewModel.startRecording(directory);
+        }
+    }
+
+    private static double replaySpeed(String choice) {
+        return "Max".equals(choice)
+                ? TickReplay.MAX_SPEED
+                : Double.parseDouble(choice.substring(0, choice.length() - 1));
+    }
+
     private void onStartPause() {
         viewModel.toggleUpdates();
     }
 
+    private void onSearch(String text) {
+        viewModel.search(text);
+    }
+
+    private void onNextMatch() {
+        int index = viewModel.nextSearchMatch();
+        if (index >= 0) {
+            filteredTableView.getSelectionModel().clearAndSelect(index);
+            filteredTableView.scrollTo(index);
+        }
+    }
+
+    private void onPriceRange() {
+        String min = minPriceField.getText().trim();
+        String max = maxPriceField.getText().trim();
+        if (min.isEmpty() && max.isEmpty()) {
+            viewModel.clearPriceRange();
+            return;
+        }
+        try {
+            double low = min.isEmpty() ? Double.NEGATIVE_INFINITY : Double.parseDouble(min);
+            double high = max.isEmpty() ? Double.POSITIVE_INFINITY : Double.parseDouble(max);
+            viewModel.setPriceRange(low, high);
+        } catch (IllegalArgumentException e) {
+            viewModel.statusMessageProperty().set("Invalid price range: " + e.getMessage());
+        }
+    }
+
     private void onUnlockAll() {
         viewModel.unlockAllRows();
     }
 
-    // ==================== Cell Background Helper ====================
+    // ==================== Row Status ====================
 
-    private Color getStatusBackgroundColor(String status) {
-        return status == null ? null : STATUS_BG_COLORS.get(status.toUpperCase());
+    private void updateSearchMatch(TableRow<RowViewModel> row) {
+        RowViewModel item = row.getItem();
+        updatePseudoClass(row, SEARCH_MATCH, item != null && viewModel.isSearchMatch(item));
     }
 
-    private void applyCellBackground(TableCell<RowViewModel, ?> cell) {
-        RowViewModel row = cell.getTableRow() != null ? cell.getTableRow().getItem() : null;
-        if (row != null) {
-            Color color = getStatusBackgroundColor(row.getStatus());
-            if (color != null) {
-                cell.setBackground(new Background(new BackgroundFill(color, CornerRadii.EMPTY, Insets.EMPTY)));
-                return;
-            }
+    private static void updateRowStatus(TableRow<RowViewModel> row) {
+        RowViewModel item = row.getItem();
+        Status status = item != null ? item.getKnownStatus() : null;
+        for (Status candidate : Status.values()) {
+            updatePseudoClass(row, ROW_STATUS[candidate.ordinal()], candidate == status);
         }
-        cell.setBackground(Background.EMPTY);
     }
 
     // ==================== Custom Cell Classes ====================
 
     /**
-     * Generic cell with background color based on row status.
+     * Generic text cell; its background is the row's.
      */
     private class ColoredCell<T> extends TableCell<RowViewModel, T> {
         
@@ -509,18 +713,13 @@ public class MainController {
         @Override
         protected void updateItem(T item, boolean empty) {
             super.updateItem(item, empty);
-            if (empty || item == null) {
-                setText(null);
-                setBackground(Background.EMPTY);
-            } else {
-                setText(item.toString());
-                applyCellBackground(this);
-            }
+            setText(empty || item == null ? null : item.toString());
         }
     }
 
     /**
      * Price cell with flash animation and special decimal formatting.
+     * Direction and flash are shown through pseudo-classes; flashes are timed by the shared {@link FlashScheduler}.
      */
     private class PriceTableCell extends TableCell<RowViewModel, Number> {
 
@@ -531,14 +730,15 @@ public class MainController {
         private final Text prefixText;
         private final Text highlightText;
         private final Text suffixText;
-        private final PauseTransition flashTimer;
+        private final PriceFormatter priceFormatter = new PriceFormatter();
 
-        private double lastValue = -1;
-        private int lastIndex = -1;
+        private double lastValue = Double.NaN;
+        private RowViewModel lastRow;
 
         PriceTableCell() {
             setAlignment(Pos.CENTER_RIGHT);
             setContentDisplay(ContentDisplay.GRAPHIC_ONLY);
+            getStyleClass().add("price-cell");
 
             prefixText = new Text();
             prefixText.setFont(Font.font("System", FontWeight.NORMAL, NORMAL_FONT_SIZE));
@@ -550,33 +750,34 @@ public class MainController {
             suffixText.setFont(Font.font("System", FontWeight.NORMAL, NORMAL_FONT_SIZE));
 
             textFlow = new TextFlow(prefixText, highlightText, suffixText);
-
-            flashTimer = new PauseTransition(Duration.millis(500));
-            flashTimer.setOnFinished(e -> 
-                    getStyleClass().removeAll("price-flash-up", "price-flash-down", "price-flash"));
         }
 
         @Override
         protected void updateItem(Number item, boolean empty) {
             super.updateItem(item, empty);
-            getStyleClass().removeAll("price-up", "price-down");
 
-            if (empty || item == null) {
+            RowViewModel row = getTableRow() != null ? getTableRow().getItem() : null;
+            if (empty || item == null || row == null) {
                 clearCell();
                 return;
             }
 
             double value = item.doubleValue();
-            int index = getIndex();
-
             formatPrice(value);
             setGraphic(textFlow);
-            applyCellBackground(this);
 
-            handleFlashAnimation(value, index);
-            applyPriceStyle();
+            // A new value of the same row starts a flash; a recycled cell only shows the row's flash
+            if (row == lastRow && !Double.isNaN(lastValue) && value != lastValue) {
+                int direction = row.getPriceDirection();
+                flashScheduler.flash(row.getRowIndex(), direction != 0 ? direction : (value > lastValue ? 1 : -1));
+            }
+            flashScheduler.show(this, row.getRowIndex());
+
+            int direction = row.getPriceDirection();
+            updatePseudoClass(this, PRICE_UP, direction > 0);
+            updatePseudoClass(this, PRICE_DOWN, direction < 0);
 
-            lastIndex = index;
+            lastRow = row;
             lastValue = value;
         }
 
@@ -585,59 +786,28 @@ public class MainController {
             prefixText.setText("");
             highlightText.setText("");
             suffixText.setText("");
-            lastValue = -1;
-            lastIndex = -1;
-            flashTimer.stop();
-            getStyleClass().removeAll("price-flash-up", "price-flash-down", "price-flash");
-            setBackground(Background.EMPTY);
+            lastValue = Double.NaN;
+            lastRow = null;
+            flashScheduler.clear(this);
+            updatePseudoClass(this, PRICE_UP, false);
+            updatePseudoClass(this, PRICE_DOWN, false);
         }
 
+        // Texts are only replaced by parts whose digits changed
         private void formatPrice(double value) {
-            String formatted = String.format("%.5f", value);
-            int dot = formatted.indexOf('.');
-            prefixText.setText(formatted.substring(0, dot + 3));
-            highlightText.setText(formatted.substring(dot + 3, dot + 5));
-            suffixText.setText(formatted.substring(dot + 5));
-        }
-
-        private void handleFlashAnimation(double value, int index) {
-            boolean recycled = lastIndex != -1 && lastIndex != index;
-
-            if (recycled) {
-                flashTimer.stop();
-                getStyleClass().removeAll("price-flash-up", "price-flash-down", "price-flash");
-                lastValue = -1;
-                return;
-            }
-
-            if (lastValue >= 0 && lastValue != value) {
-                getStyleClass().removeAll("price-flash-up", "price-flash-down", "price-flash");
-
-                RowViewModel row = getTableRow() != null ? getTableRow().getItem() : null;
-                int direction = row != null ? row.getPriceDirection() 
-                        : (value > lastValue ? 1 : -1);
-
-                if (direction > 0) {
-                    getStyleClass().add("price-flash-up");
-                } else if (direction < 0) {
-                    getStyleClass().add("price-flash-down");
-                } else {
-                    getStyleClass().add("price-flash");
-                }
-
-                flashTimer.stop();
-                flashTimer.playFromStart();
-            }
+            priceFormatter.format(value);
+            int start = priceFormatter.emphasisStart();
+            int end = priceFormatter.emphasisEnd();
+            prefixText.setText(priceFormatter.text(0, start, prefixText.getText()));
+            highlightText.setText(priceFormatter.text(start, end, highlightText.getText()));
+            suffixText.setText(priceFormatter.text(end, priceFormatter.length(), suffixText.getText()));
         }
+    }
 
-        private void applyPriceStyle() {
-            RowViewModel row = getTableRow() != null ? getTableRow().getItem() : null;
-            if (row != null) {
-                String styleClass = row.getPriceStyleClass();
-                if (styleClass != null && !styleClass.isEmpty()) {
-                    getStyleClass().add(styleClass);
-                }
-            }
+    // Toggle a pseudo-class only when its state changes
+    private static void updatePseudoClass(Node node, PseudoClass pseudoClass, boolean active) {
+        if (node.getPseudoClassStates().contains(pseudoClass) != active) {
+            node.pseudoClassStateChanged(pseudoClass, active);
         }
     }
 
@@ -646,30 +816,21 @@ public class MainController {
      */
     private class StatusTableCell extends TableCell<RowViewModel, String> {
 
-        private static final List<String> STATUS_CLASSES = List.of(
-                "status-alert", "status-normal", "status-pending", "status-active", "status-closed");
+        StatusTableCell() {
+            getStyleClass().add("status-cell");
+        }
 
         @Override
         protected void updateItem(String item, boolean empty) {
             super.updateItem(item, empty);
-            getStyleClass().removeAll(STATUS_CLASSES);
-
-            if (empty || item == null) {
-                setText(null);
-                setBackground(Background.EMPTY);
-                return;
-            }
-
-            setText(item);
-            applyCellBackground(this);
 
             RowViewModel row = getTableRow() != null ? getTableRow().getItem() : null;
-            if (row != null) {
-                String styleClass = row.getStatusStyleClass();
-                if (styleClass != null && !styleClass.isEmpty()) {
-                    getStyleClass().add(styleClass);
-                }
+            Status status = empty || item == null || row == null ? null : row.getKnownStatus();
+            for (Status candidate : Status.values()) {
+                updatePseudoClass(this, CELL_STATUS[candidate.ordinal()], candidate == status);
             }
+
+            setText(empty ? null : item);
         }
     }
 }
@@ -0,0 +1,198 @@
+package com.csvmonitor.viewmodel;
+
+import com.csvmonitor.model.RowStore;
+import com.csvmonitor.model.SortedRowOrder;
+import javafx.collections.ObservableListBase;
+
+import java.util.AbstractList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Rows of a {@link VirtualRowList} matching a {@link RowFilter}, in store
+ * order or sorted by a key.
+ *
+ * Nothing is copied: positions are mapped to rows by the filter. When a
+ * tick moves a row into or out of the filter, a single add or remove is
+ * reported at its position, instead of testing the whole list again like a
+ * FilteredList does. A new predicate or store is reported as one replace of
+ * the whole list.
+ *
+ * When sorted, positions are mapped by a {@link SortedRowOrder} of the
+ * matching rows, so a tick changing the sort key of a row moves that row
+ * alone, reported as its removal and insertion, instead of sorting the list
+ * again like a SortedList does. A frozen order keeps rows in place until unfrozen.
+ *
+ * FX thread only.
+ */
+public class FilteredRowList extends ObservableListBase<RowViewModel>
+        implements RowFilter.MatchListener, SortedRowOrder.OrderListener {
+
+    private final VirtualRowList rows;
+    private final RowFilter filter;
+    // Sort key for a store, null in store order
+    private Function<RowStore, SortedRowOrder.RowKey> sortKey;
+    private boolean ascending = true;
+    private boolean frozen;
+    // Order of the matching rows, null in store order
+    private SortedRowOrder order;
+
+    public FilteredRowList(VirtualRowList rows, RowFilter filter) {
+        this.rows = rows;
+        this.filter = filter;
+        filter.setMatchListener(this);
+    }
+
+    @Override
+    public RowViewModel get(int index) {
+        return rows.get(rowAt(index));
+    }
+
+    @Override
+    public int size() {
+        return filter.getMatchCount();
+    }
+
+    /**
+     * Store row at a position of the list.
+     */
+    public int rowAt(int index) {
+        return order == null ? filter.rowAt(index) : order.rowAt(index);
+    }
+
+    /**
+     * Position of a matching store row in the list.
+     */
+    public int indexOfRow(int row) {
+        return order == null ? filter.indexOf(row) : order.positionOf(row);
+    }
+
+    /**
+     * Whether the list is sorted by a key rather than in store order.
+     */
+    public boolean isSorted() {
+        return order != null;
+    }
+
+    /**
+     * Sort the rows by a key of the store, or restore the store order for a
+     * null key. Reported as a permutation, so the table keeps its selection.
+     */
+    public void setSort(Function<RowStore, SortedRowOrder.RowKey> sortKey, boolean ascending) {
+        int count = size();
+        int[] oldRows = new int[count];
+        for (int index = 0; index < count; index++) {
+            oldRows[index] = rowAt(index);
+        }
+        this.sortKey = sortKey;
+        this.ascending = ascending;
+        order = buildOrder();
+        firePermutation(oldRows);
+    }
+
+    /**
+     * Keep sorted rows in place while frozen; unfreezing moves the rows whose key changed meanwhile.
+     */
+    public void setFrozen(boolean frozen) {
+        this.frozen = frozen;
+        if (order != null) {
+            order.setFrozen(frozen);
+        }
+    }
+
+    @Override
+    public void onMatchChanged(int row, boolean match) {
+        beginChange();
+        if (match) {
+            int index = order == null ? filter.indexOf(row) : order.add(row);
+            nextAdd(index, index + 1);
+        } else {
+            int index = order == null ? filter.indexOf(row) : order.remove(row);
+            nextRemove(index, rows.get(row));
+        }
+        endChange();
+    }
+
+    @Override
+    public void onRowChanged(int row) {
+        if (order != null) {
+            order.rowChanged(row);
+        }
+    }
+
+    @Override
+    public void onMoved(int row, int from, int to) {
+        beginChange();
+        nextRemove(from, rows.get(row));
+        nextAdd(to, to + 1);
+        endChange();
+    }
+
+    @Override
+    public void onReordered(int[] oldRows) {
+        firePermutation(oldRows);
+    }
+
+    @Override
+    public void onRefiltered(int oldCount, IntUnaryOperator oldRowAt, RowStore oldStore) {
+        SortedRowOrder oldOrder = order;
+        IntUnaryOperator shownRowAt = oldOrder == null ? oldRowAt : oldOrder::rowAt;
+        order = buildOrder();
+        if (oldCount > 0 || size() > 0) {
+            fireChange(new ReplaceAllChange<>(this, removedRows(oldCount, shownRowAt, oldStore), size()));
+        }
+    }
+
+    private SortedRowOrder buildOrder() {
+        if (sortKey == null) {
+            return null;
+        }
+        RowStore store = filter.getStore();
+        int count = filter.getMatchCount();
+        int[] matching = null;
+        if (count < store.size()) {
+            matching = new int[count];
+            int next = 0;
+            for (int row = 0; next < count; row++) {
+                if (filter.matches(row)) {
+                    matching[next++] = row;
+                }
+            }
+        }
+        SortedRowOrder built = new SortedRowOrder(sortKey.apply(store), ascending, matching, count);
+        built.setFrozen(frozen);
+        built.setListener(this);
+        return built;
+    }
+
+    // Same rows, now at other positions
+    private void firePermutation(int[] oldRows) {
+        if (oldRows.length == 0) {
+            return;
+        }
+        int[] permutation = new int[oldRows.length];
+        for (int index = 0; index < oldRows.length; index++) {
+            permutation[index] = indexOfRow(oldRows[index]);
+        }
+        beginChange();
+        nextPermutation(0, oldRows.length, permutation);
+        endChange();
+    }
+
+    // Rows shown before a refilter, materialized only if a listener looks at them
+    private List<RowViewModel> removedRows(int oldCount, IntUnaryOperator oldRowAt, RowStore oldStore) {
+        return new AbstractList<>() {
+            @Override
+            public RowViewModel get(int index) {
+                int row = oldRowAt.applyAsInt(index);
+                return oldStore == rows.getStore() ? rows.get(row) : RowViewModel.detached(oldStore).moveTo(row);
+            }
+
+            @Override
+            public int size() {
+                return oldCount;
+            }
+        };
+    }
+}
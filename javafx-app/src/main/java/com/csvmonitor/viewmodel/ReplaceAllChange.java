@@ -0,0 +1,59 @@
+package com.csvmonitor.viewmodel;
+
+import javafx.collections.ListChangeListener;
+import javafx.collections.ObservableList;
+
+import java.util.List;
+
+/**
+ * Single change replacing the whole content of a list.
+ *
+ * Fired directly instead of through the list's change builder, which would
+ * copy the removed elements; the removed list may then stay lazy.
+ */
+final class ReplaceAllChange<E> extends ListChangeListener.Change<E> {
+
+    private final List<E> removed;
+    private final int addedSize;
+    private boolean started;
+
+    ReplaceAllChange(ObservableList<E> list, List<E> removed, int addedSize) {
+        super(list);
+        this.removed = removed;
+        this.addedSize = addedSize;
+    }
+
+    @Override
+    public boolean next() {
+        if (started) {
+            return false;
+        }
+        started = true;
+        return true;
+    }
+
+    @Override
+    public void reset() {
+        started = false;
+    }
+
+    @Override
+    public int getFrom() {
+        return 0;
+    }
+
+    @Override
+    public int getTo() {
+        return addedSize;
+    }
+
+    @Override
+    public List<E> getRemoved() {
+        return removed;
+    }
+
+    @Override
+    protected int[] getPermutation() {
+        return new int[0];
+    }
+}
@@ -0,0 +1,290 @@
+package com.csvmonitor.viewmodel;
+
+import com.csvmonitor.model.RowStore;
+import javafx.beans.property.ReadOnlyIntegerProperty;
+import javafx.beans.property.ReadOnlyIntegerWrapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.BitSet;
+import java.util.function.IntUnaryOperator;
+import java.util.function.Predicate;
+
+/**
+ * Tracks which rows of the current store match the table's filter predicate
+ * and an optional price range.
+ *
+ * The filter is evaluated for every row once, when it or the store
+ * changes; with a price range, only the rows in range are visited, through
+ * the store's {@link RowStore#priceIndex() price index}. Afterwards only rows
+ * reported by the store's {@link RowStore.RowChangeListener} are tested again,
+ * so a price tick moving a row into or out of a range filter costs one
+ * predicate call.
+ *
+ * Matching rows are also counted in a Fenwick tree, which maps between a row
+ * and its position among the matching rows in O(log n) both ways
+ * ({@link #indexOf(int)}, {@link #rowAt(int)}).
+ *
+ * FX thread only.
+ */
+public class RowFilter {
+
+    private static final Logger logger = LoggerFactory.getLogger(RowFilter.class);
+
+    /**
+     * Receives changes of the set of matching rows.
+     */
+    public interface MatchListener {
+
+        /**
+         * A row started or stopped matching; the filter is already updated.
+         */
+        void onMatchChanged(int row, boolean match);
+
+        /**
+         * Every row was tested again, after the predicate or the store changed.
+         * @param oldCount number of rows matching before
+         * @param oldRowAt row at each former position, in {@code oldStore}
+         */
+        void onRefiltered(int oldCount, IntUnaryOperator oldRowAt, RowStore oldStore);
+
+        /**
+         * A value of a row changed, whether or not it matches; called after
+         * {@link #onMatchChanged(int, boolean)} if the match changed too.
+         */
+        default void onRowChanged(int row) {
+        }
+    }
+
+    private final VirtualRowList rows;
+    private RowStore store;
+    private Predicate<? super RowViewModel> predicate;
+    // Inclusive price bounds; NaN when there is no price range
+    private double lowPrice = Double.NaN;
+    private double highPrice = Double.NaN;
+    private final BitSet matches = new BitSet();
+    // Fenwick tree of the match bits, 1-based, possibly longer than the store; null when every row matches
+    private int[] tree;
+    private final ReadOnlyIntegerWrapper matchCount = new ReadOnlyIntegerWrapper(0);
+    private MatchListener matchListener;
+    private RowStore.RowChangeListener rowChangeListener;
+
+    public RowFilter(VirtualRowList rows) {
+        this.rows = rows;
+        setStore(rows.getStore());
+    }
+
+    /**
+     * Follow a new store; call after the row list was switched to it.
+     */
+    public void setStore(RowStore newStore) {
+        if (store != null) {
+            store.setRowChangeListener(null);
+        }
+        RowStore oldStore = store;
+        store = newStore;
+        store.setRowChangeListener(this::rowChanged);
+        refilter(oldStore == null ? newStore : oldStore);
+    }
+
+    public RowStore getStore() {
+        return store;
+    }
+
+    /**
+     * Set the filter predicate, or null to match every row.
+     */
+    public void setPredicate(Predicate<? super RowViewModel> predicate) {
+        this.predicate = predicate;
+        refilter(store);
+    }
+
+    public Predicate<? super RowViewModel> getPredicate() {
+        return predicate;
+    }
+
+    /**
+     * Only match rows with a price in {@code [low, high]}.
+     */
+    public void setPriceRange(double low, double high) {
+        if (!(low <= high)) throw new IllegalArgumentException("invalid price range: " + low + ".." + high);
+        lowPrice = low;
+        highPrice = high;
+        refilter(store);
+    }
+
+    /**
+     * Remove the price range.
+     */
+    public void clearPriceRange() {
+        lowPrice = Double.NaN;
+        highPrice = Double.NaN;
+        refilter(store);
+    }
+
+    public boolean hasPriceRange() {
+        return !Double.isNaN(lowPrice);
+    }
+
+    /**
+     * Set the listener told about changes of the matching rows, or null.
+     */
+    public void setMatchListener(MatchListener matchListener) {
+        this.matchListener = matchListener;
+    }
+
+    /**
+     * Set the listener told about every changed row of the store, after the
+     * match listener, or null.
+     */
+    public void setRowChangeListener(RowStore.RowChangeListener rowChangeListener) {
+        this.rowChangeListener = rowChangeListener;
+    }
+
+    /**
+     * Whether a row of the current store matches the predicate.
+     */
+    public boolean matches(int row) {
+        return tree == null || matches.get(row);
+    }
+
+    /**
+     * Number of matching rows before a row, which is its position among them if it matches.
+     */
+    public int indexOf(int row) {
+        return tree == null ? row : prefixCount(tree, row);
+    }
+
+    /**
+     * Row at a position among the matching rows.
+     */
+    public int rowAt(int index) {
+        return tree == null ? index : select(tree, index);
+    }
+
+    /**
+     * Number of matching rows; all rows without a predicate or price range.
+     */
+    public ReadOnlyIntegerProperty matchCountProperty() {
+        return matchCount.getReadOnlyProperty();
+    }
+
+    public int getMatchCount() {
+        return matchCount.get();
+    }
+
+    private void refilter(RowStore oldStore) {
+        int oldCount = matchCount.get();
+        int[] oldTree = tree;
+
+        matches.clear();
+        int size = store.size();
+        if (!isActive()) {
+            tree = null;
+            matchCount.set(size);
+        } else {
+            long start = System.nanoTime();
+            if (hasPriceRange()) {
+                store.priceIndex().forEach(lowPrice, highPrice, row -> {
+                    if (predicate == null || rows.test(row, predicate)) {
+                        matches.set(row);
+                    }
+                });
+            } else {
+                for (int row = 0; row < size; row++) {
+                    if (rows.test(row, predicate)) {
+                        matches.set(row);
+                    }
+                }
+            }
+            tree = buildTree(matches, size);
+            matchCount.set(matches.cardinality());
+            logger.debug("Filtered {} rows in {} ms: {} match", size,
+                    (System.nanoTime() - start) / 1_000_000, matchCount.get());
+        }
+
+        if (matchListener != null) {
+            IntUnaryOperator oldRowAt = oldTree == null ? index -> index : index -> select(oldTree, index);
+            matchListener.onRefiltered(oldCount, oldRowAt, oldStore);
+        }
+    }
+
+    private boolean isActive() {
+        return predicate != null || hasPriceRange();
+    }
+
+    private void rowChanged(int row) {
+        if (isActive()) {
+            updateMatch(row);
+        }
+        if (matchListener != null) {
+            matchListener.onRowChanged(row);
+        }
+        if (rowChangeListener != null) {
+            rowChangeListener.onRowChanged(row);
+        }
+    }
+
+    private void updateMatch(int row) {
+        boolean match = (!hasPriceRange() || inPriceRange(store.getPrice(row)))
+                && (predicate == null || rows.test(row, predicate));
+        if (match != matches.get(row)) {
+            matches.set(row, match);
+            if (row >= tree.length - 1) {
+                // Row appended after the tree was built: rebuild it with room to grow
+                tree = buildTree(matches, Math.max(store.size(), 2 * (tree.length - 1)));
+            } else {
+                for (int i = row + 1; i < tree.length; i += i & -i) {
+                    tree[i] += match ? 1 : -1;
+                }
+            }
+            matchCount.set(matchCount.get() + (match ? 1 : -1));
+            if (matchListener != null) {
+                matchListener.onMatchChanged(row, match);
+            }
+        }
+    }
+
+    private boolean inPriceRange(double price) {
+        return price >= lowPrice && price <= highPrice;
+    }
+
+    // ==================== Fenwick Tree ====================
+
+    static int[] buildTree(BitSet bits, int size) {
+        int[] tree = new int[size + 1];
+        for (int i = 1; i <= size; i++) {
+            if (bits.get(i - 1)) {
+                tree[i]++;
+            }
+            int parent = i + (i & -i);
+            if (parent <= size) {
+                tree[parent] += tree[i];
+            }
+        }
+        return tree;
+    }
+
+    // Set bits in [0, row)
+    static int prefixCount(int[] tree, int row) {
+        int count = 0;
+        for (int i = row; i > 0; i -= i & -i) {
+            count += tree[i];
+        }
+        return count;
+    }
+
+    // Row of the set bit with the given rank
+    static int select(int[] tree, int index) {
+        int position = 0;
+        int remaining = index + 1;
+        for (int step = Integer.highestOneBit(Math.max(1, tree.length - 1)); step > 0; step >>= 1) {
+            int next = position + step;
+            if (next < tree.length && tree[next] < remaining) {
+                position = next;
+                remaining -= tree[next];
+            }
+        }
+        return position;
+    }
+}
@@ -1,16 +1,34 @@
 package com.csvmonitor.viewmodel;
 
+import com.csvmonitor.model.PriceFormatter;
 import com.csvmonitor.model.RowModel;
+import com.csvmonitor.model.RowStore;
+import com.csvmonitor.model.Status;
 import javafx.beans.property.*;
+import javafx.beans.value.ChangeListener;
 
 /**
  * ViewModel wrapper for RowModel.
  * Exposes only the necessary properties to the View layer.
  * Contains presentation logic (styling, formatting).
+ *
+ * A detached view model ({@link #detached(RowStore)}) is not bound to a model:
+ * it holds a copy of the values of a store row, and can be moved from row to
+ * row to test filter predicates without creating a view per row.
  */
 public class RowViewModel {
 
+    // Style classes by Status ordinal
+    private static final String[] STATUS_STYLE_CLASSES = {
+            "status-alert", "status-normal", "status-pending", "status-active", "status-closed"};
+
+    // Shared by all rows; view models are only used on the FX thread
+    private static final PriceFormatter PRICE_FORMATTER = new PriceFormatter(2);
+
+    // Null for a detached view model, which reads its row from the store instead
     private final RowModel model;
+    private final RowStore store;
+    private int index;
 
     // Expose properties for binding
     private final ReadOnlyIntegerWrapper id;
@@ -23,11 +41,16 @@ public class RowViewModel {
     // Presentation properties
     private final ReadOnlyStringWrapper priceStyleClass = new ReadOnlyStringWrapper("");
     private final ReadOnlyStringWrapper statusStyleClass = new ReadOnlyStringWrapper("");
-    private final ReadOnlyStringWrapper rowStyleClass = new ReadOnlyStringWrapper("");
     private final ReadOnlyStringWrapper formattedPrice = new ReadOnlyStringWrapper("");
 
+    // Model listeners, kept to be removed by dispose()
+    private final ChangeListener<Number> priceListener = (obs, oldVal, newVal) -> updatePriceStyle();
+    private final ChangeListener<String> statusListener = (obs, oldVal, newVal) -> updateStatusStyle();
+
     public RowViewModel(RowModel model) {
         this.model = model;
+        this.store = null;
+        this.index = model.getIndex();
 
         // Wrap model properties as read-only
         this.id = new ReadOnlyIntegerWrapper();
@@ -49,8 +72,8 @@ public class RowViewModel {
         this.lastUpdate.bind(model.lastUpdateProperty());
 
         // Update presentation properties when data changes
-        model.priceProperty().addListener((obs, oldVal, newVal) -> updatePriceStyle());
-        model.statusProperty().addListener((obs, oldVal, newVal) -> updateStatusStyle());
+        model.priceProperty().addListener(priceListener);
+        model.statusProperty().addListener(statusListener);
 
         // Initialize styles
         updatePriceStyle();
@@ -58,13 +81,67 @@ public class RowViewModel {
         updateFormattedPrice();
     }
 
+    private RowViewModel(RowStore store) {
+        this.model = null;
+        this.store = store;
+        this.id = new ReadOnlyIntegerWrapper();
+        this.symbol = new ReadOnlyStringWrapper();
+        this.price = new ReadOnlyDoubleWrapper();
+        this.qty = new ReadOnlyIntegerWrapper();
+        this.status = new ReadOnlyStringWrapper();
+        this.lastUpdate = new ReadOnlyStringWrapper();
+    }
+
+    /**
+     * Create a detached view model over the rows of a store; call
+     * {@link #moveTo(int)} before reading it.
+     */
+    static RowViewModel detached(RowStore store) {
+        return new RowViewModel(store);
+    }
+
+    /**
+     * Copy the values of a store row into a detached view model.
+     * @return this view model
+     */
+    RowViewModel moveTo(int index) {
+        this.index = index;
+        id.set(store.getId(index));
+        symbol.set(store.getSymbol(index));
+        price.set(store.getPrice(index));
+        qty.set(store.getQty(index));
+        status.set(store.getStatus(index));
+        lastUpdate.set(store.getLastUpdate(index));
+        updatePriceStyle();
+        updateStatusStyle();
+        return this;
+    }
+
+    /**
+     * Detach from the model: values freeze and the model no longer references
+     * this view model. Called when the row leaves the view model cache.
+     */
+    void dispose() {
+        if (model == null) {
+            return;
+        }
+        id.unbind();
+        symbol.unbind();
+        price.unbind();
+        qty.unbind();
+        status.unbind();
+        lastUpdate.unbind();
+        model.priceProperty().removeListener(priceListener);
+        model.statusProperty().removeListener(statusListener);
+    }
+
     // ==================== Presentation Logic ====================
 
     /**
      * Update price style class based on direction.
      */
     private void updatePriceStyle() {
-        int direction = model.getPriceDirection();
+        int direction = getPriceDirection();
         String style = switch (direction) {
             case 1 -> "price-up";
             case -1 -> "price-down";
@@ -78,43 +155,22 @@ public class RowViewModel {
      * Update status style class.
      */
     private void updateStatusStyle() {
-        String statusValue = model.getStatus();
-        if (statusValue == null) {
+        Status knownStatus = getKnownStatus();
+        if (knownStatus == null) {
             statusStyleClass.set("");
-            rowStyleClass.set("");
             return;
         }
 
-        String upperStatus = statusValue.toUpperCase();
-        
         // Cell style for status column
-        String cellStyle = switch (upperStatus) {
-            case "ALERT", "WARN", "WARNING" -> "status-alert";
-            case "NORMAL", "OK", "GOOD" -> "status-normal";
-            case "PENDING", "WAIT" -> "status-pending";
-            case "ACTIVE", "LIVE", "RUNNING" -> "status-active";
-            case "CLOSED", "DONE", "COMPLETE" -> "status-closed";
-            default -> "";
-        };
-        statusStyleClass.set(cellStyle);
-
-        // Row background style based on status
-        String rowStyle = switch (upperStatus) {
-            case "ALERT", "WARN", "WARNING" -> "row-alert";
-            case "NORMAL", "OK", "GOOD" -> "row-normal";
-            case "PENDING", "WAIT" -> "row-pending";
-            case "ACTIVE", "LIVE", "RUNNING" -> "row-active";
-            case "CLOSED", "DONE", "COMPLETE" -> "row-closed";
-            default -> "";
-        };
-        rowStyleClass.set(rowStyle);
+        statusStyleClass.set(STATUS_STYLE_CLASSES[knownStatus.ordinal()]);
     }
 
     /**
      * Update formatted price string.
      */
     private void updateFormattedPrice() {
-        formattedPrice.set(String.format("%.2f", model.getPrice()));
+        PRICE_FORMATTER.format(price.get());
+        formattedPrice.set(PRICE_FORMATTER.text(0, PRICE_FORMATTER.length(), formattedPrice.get()));
     }
 
     // ==================== Read-Only Properties for View ====================
@@ -185,14 +241,6 @@ public class RowViewModel {
         return statusStyleClass.get();
     }
 
-    public ReadOnlyStringProperty rowStyleClassProperty() {
-        return rowStyleClass.getReadOnlyProperty();
-    }
-
-    public String getRowStyleClass() {
-        return rowStyleClass.get();
-    }
-
     public ReadOnlyStringProperty formattedPriceProperty() {
         return formattedPrice.getReadOnlyProperty();
     }
@@ -201,11 +249,18 @@ public class RowViewModel {
         return formattedPrice.get();
     }
 
+    /**
+     * Get the known status (aliases resolved), or null for other values.
+     */
+    public Status getKnownStatus() {
+        return model != null ? model.getKnownStatus() : store.getKnownStatus(index);
+    }
+
     /**
      * Check if row is locked (for conditional styling).
      */
     public boolean isLocked() {
-        return model.isLocked();
+        return model != null ? model.isLocked() : store.isLocked(index);
     }
 
     /**
@@ -213,11 +268,18 @@ public class RowViewModel {
      * @return 1 for up, -1 for down, 0 for no change
      */
     public int getPriceDirection() {
-        return model.getPriceDirection();
+        return model != null ? model.getPriceDirection() : store.getPriceDirection(index);
+    }
+
+    /**
+     * Position of the row in its store; stable while the store is shown.
+     */
+    public int getRowIndex() {
+        return index;
     }
 
     /**
-     * Get the underlying model (package-private, for ViewModel use only).
+     * Get the underlying model (package-private, for ViewModel use only); null if detached.
      */
     RowModel getModel() {
         return model;
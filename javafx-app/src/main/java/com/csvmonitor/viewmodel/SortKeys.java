@@ -0,0 +1,71 @@
+package com.csvmonitor.viewmodel;
+
+import com.csvmonitor.model.RowStore;
+import com.csvmonitor.model.SortedRowOrder;
+import com.csvmonitor.model.SymbolDictionary;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+
+/**
+ * Sort keys of the table columns, read from the primitive columns of a {@link RowStore}.
+ *
+ * Symbol and Status sort by the rank of their text among the values known
+ * when the key is created; values added afterwards sort last.
+ */
+final class SortKeys {
+
+    private static final int MAX_STATUS_CODES = 256;
+
+    private SortKeys() {
+    }
+
+    /**
+     * Key of a column, by column id, for the store it is applied to.
+     */
+    static Function<RowStore, SortedRowOrder.RowKey> forColumn(String columnId) {
+        return switch (columnId) {
+            case "id" -> store -> store::getId;
+            case "symbol" -> SortKeys::symbolKey;
+            case "price" -> store -> store::getPrice;
+            case "qty" -> store -> store::getQty;
+            case "status" -> SortKeys::statusKey;
+            case "lastUpdate" -> store -> store::getLastUpdateMillis;
+            default -> throw new IllegalArgumentException("Unknown column " + columnId);
+        };
+    }
+
+    private static SortedRowOrder.RowKey symbolKey(RowStore store) {
+        SymbolDictionary symbols = store.getSymbolDictionary();
+        int[] ranks = ranks(symbols.size(), symbols::symbol);
+        // No symbol (-1) sorts first
+        return row -> {
+            int code = store.getSymbolCode(row);
+            return code < 0 ? -1 : code < ranks.length ? ranks[code] : ranks.length;
+        };
+    }
+
+    private static SortedRowOrder.RowKey statusKey(RowStore store) {
+        // Status text by code from the store's dictionary; other codes, such as
+        // RowStore.OTHER_STATUS_CODE, have no text and sort last
+        int codes = store.statusCodeCount();
+        int[] ranks = ranks(MAX_STATUS_CODES,
+                code -> code < codes ? Objects.requireNonNullElse(store.statusName(code), "") : null);
+        return row -> ranks[store.getStatusCode(row)];
+    }
+
+    // Rank of each code by its text; codes without text rank last
+    private static int[] ranks(int codes, IntFunction<String> text) {
+        Integer[] order = new Integer[codes];
+        Arrays.setAll(order, code -> code);
+        Arrays.sort(order, Comparator.comparing(text::apply, Comparator.nullsLast(Comparator.naturalOrder())));
+        int[] ranks = new int[codes];
+        for (int rank = 0; rank < codes; rank++) {
+            ranks[order[rank]] = rank;
+        }
+        return ranks;
+    }
+}
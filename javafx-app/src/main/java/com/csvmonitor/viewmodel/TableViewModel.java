@@ -1,26 +1,34 @@
 package com.csvmonitor.viewmodel;
 
 import com.csvmonitor.model.CsvRepository;
-import com.csvmonitor.model.RowModel;
+import com.csvmonitor.model.LoadMonitor;
+import com.csvmonitor.model.RowStore;
+import com.csvmonitor.model.SearchIndex;
+import com.csvmonitor.model.TickReplay;
 import com.csvmonitor.model.UpdateEngine;
 import javafx.application.Platform;
 import javafx.beans.property.*;
-import javafx.collections.FXCollections;
-import javafx.collections.ListChangeListener;
 import javafx.collections.ObservableList;
+import javafx.scene.control.ProgressIndicator;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import java.io.File;
+import java.io.IOException;
 import java.util.ArrayList;
+import java.util.BitSet;
 import java.util.List;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
+import java.util.function.Predicate;
 
 /**
  * ViewModel for the CSV Table Monitor.
  * 
  * Responsibilities:
- * - Manages the data source (converts RowModel to RowViewModel)
+ * - Manages the data source (wraps RowStore rows in RowViewModel)
  * - Provides column configurations for the View
  * - Handles commands: loadCsv, start, pause, unlockRow
  * - Coordinates with CsvRepository and UpdateEngine
@@ -30,21 +38,50 @@ public class TableViewModel {
 
     private static final Logger logger = LoggerFactory.getLogger(TableViewModel.class);
 
-    // Internal data (Model layer)
-    private final ObservableList<RowModel> masterData = FXCollections.observableArrayList();
+    // Internal data (Model layer), replaced as a whole on every load
+    private volatile RowStore store = new RowStore();
 
-    // Exposed data (ViewModel layer) - View should only access this
-    private final ObservableList<RowViewModel> viewData = FXCollections.observableArrayList();
+    // RowViewModels of all rows, created on demand for the rows the table asks for
+    private final VirtualRowList allRows = new VirtualRowList();
+    // Rows matching the table's column filters, updated as rows change
+    private final RowFilter rowFilter = new RowFilter(allRows);
+    // Exposed data (ViewModel layer) - View should only access this.
+    private final FilteredRowList viewData = new FilteredRowList(allRows, rowFilter);
 
     // Model dependencies
     private final CsvRepository csvRepository = new CsvRepository();
     private final UpdateEngine updateEngine = new UpdateEngine();
 
+    // Running tick replay, only touched on the FX thread
+    private TickReplay replay;
+
+    // Column the view data is sorted by, null in store order
+    private String sortColumnId;
+    private boolean sortAscending = true;
+
+    // Rows of the current store matching the search text, those also passing the
+    // filter (counted), and the view position of the last match visited
+    private BitSet searchMatches = new BitSet();
+    private final BitSet shownSearchMatches = new BitSet();
+    private String searchText = "";
+    private int searchCursor = -1;
+
+    // Load in progress and whether updates resume after it, only touched on the FX thread
+    private LoadMonitor currentLoad;
+    private int loadSequence;
+    private boolean resumeAfterLoad;
+
     // UI state properties
     private final BooleanProperty updateRunning = new SimpleBooleanProperty(false);
+    private final BooleanProperty replayRunning = new SimpleBooleanProperty(false);
+    private final BooleanProperty recording = new SimpleBooleanProperty(false);
+    private final BooleanProperty loading = new SimpleBooleanProperty(false);
+    private final DoubleProperty loadProgress = new SimpleDoubleProperty(0);
     private final StringProperty statusMessage = new SimpleStringProperty("Ready");
     private final IntegerProperty totalRowCount = new SimpleIntegerProperty(0);
-    private final IntegerProperty filteredRowCount = new SimpleIntegerProperty(0);
+    private final ReadOnlyIntegerWrapper filteredRowCount = new ReadOnlyIntegerWrapper(0);
+    private final ReadOnlyIntegerWrapper searchMatchCount = new ReadOnlyIntegerWrapper(0);
+    private final ReadOnlyIntegerWrapper searchGeneration = new ReadOnlyIntegerWrapper(0);
 
     // Column configurations
     private final List<ColumnConfig<?>> columnConfigs = new ArrayList<>();
@@ -54,31 +91,9 @@ public class TableViewModel {
         initColumnConfigs();
 
         // Connect update engine to data source
-        updateEngine.setData(masterData);
-
-        // Sync masterData changes to viewData
-        // Skip during bulk loading as we handle viewData directly for performance
-        masterData.addListener((ListChangeListener<RowModel>) change -> {
-            if (bulkLoading) {
-                return; // Skip - bulk load handles viewData directly
-            }
-            while (change.next()) {
-                if (change.wasReplaced()) {
-                    // Handle replacement
-                    for (int i = change.getFrom(); i < change.getTo(); i++) {
-                        viewData.set(i, new RowViewModel(masterData.get(i)));
-                    }
-                } else if (change.wasAdded()) {
-                    int index = change.getFrom();
-                    for (RowModel model : change.getAddedSubList()) {
-                        viewData.add(index++, new RowViewModel(model));
-                    }
-                } else if (change.wasRemoved()) {
-                    viewData.remove(change.getFrom(), change.getFrom() + change.getRemovedSize());
-                }
-            }
-            totalRowCount.set(viewData.size());
-        });
+        updateEngine.setData(store);
+        filteredRowCount.bind(rowFilter.matchCountProperty());
+        rowFilter.setRowChangeListener(this::updateSearchMatch);
 
         logger.info("TableViewModel initialized");
     }
@@ -141,96 +156,183 @@ public class TableViewModel {
     // ==================== Data Access ====================
 
     /**
-     * Get the view data list (for View binding).
+     * Get the view data list (for View binding): the rows matching the filter predicate.
      * View should only access RowViewModel, not RowModel.
      */
     public ObservableList<RowViewModel> getViewData() {
         return viewData;
     }
 
-    // ==================== Commands ====================
+    /**
+     * Keep a row's view model alive while the table displays it.
+     */
+    public void pinRow(RowViewModel row) {
+        allRows.pin(row);
+    }
+
+    /**
+     * Release a row pinned by {@link #pinRow(RowViewModel)}.
+     */
+    public void unpinRow(RowViewModel row) {
+        allRows.unpin(row);
+    }
 
-    // Batch size for async data loading to avoid UI thread blocking
-    private static final int BATCH_SIZE = 200;
+    /**
+     * Filter predicate of the table's columns, or null for no filter.
+     * The view data and the filtered row count follow it, and the rows' updates afterwards.
+     */
+    public void setFilterPredicate(Predicate<? super RowViewModel> predicate) {
+        rowFilter.setPredicate(predicate);
+        countSearchMatches();
+    }
 
-    // Flag to skip listener during bulk load (listener will create duplicate ViewModels)
-    private volatile boolean bulkLoading = false;
+    /**
+     * Only show rows with a price in {@code [low, high]}.
+     */
+    public void setPriceRange(double low, double high) {
+        rowFilter.setPriceRange(low, high);
+        countSearchMatches();
+        statusMessage.set("Price range %s .. %s: %d rows".formatted(low, high, rowFilter.getMatchCount()));
+    }
 
     /**
-     * Load the default sample.csv from resources asynchronously.
-     * Data is loaded in background thread, RowViewModels are created in background,
-     * and inserted in batches to avoid UI freezing.
+     * Show rows of any price again.
      */
-    public void loadDefaultCsv() {
-        logger.info("Loading default CSV asynchronously...");
-        statusMessage.set("Loading default CSV...");
-
-        CompletableFuture.runAsync(() -> {
-            // Load data in background thread
-            ObservableList<RowModel> data = csvRepository.loadDefaultCsv();
-            int totalSize = data.size();
-            List<RowModel> dataList = new ArrayList<>(data);
-
-            // Create RowViewModels in background thread (expensive operation)
-            List<RowViewModel> viewModels = new ArrayList<>(totalSize);
-            for (RowModel model : dataList) {
-                viewModels.add(new RowViewModel(model));
+    public void clearPriceRange() {
+        if (rowFilter.hasPriceRange()) {
+            rowFilter.clearPriceRange();
+            countSearchMatches();
+            statusMessage.set("Price range cleared");
+        }
+    }
+
+    // ==================== Sorting ====================
+
+    /**
+     * Sort the view data by a column, by column id. Afterwards, a row whose
+     * value in that column changes is moved alone to its new position.
+     */
+    public void sortBy(String columnId, boolean ascending) {
+        if (columnId.equals(sortColumnId) && ascending == sortAscending) {
+            return;
+        }
+        viewData.setSort(SortKeys.forColumn(columnId), ascending);
+        sortColumnId = columnId;
+        sortAscending = ascending;
+    }
+
+    /**
+     * Show the view data in store order again.
+     */
+    public void clearSort() {
+        if (sortColumnId != null) {
+            viewData.setSort(null, true);
+            sortColumnId = null;
+        }
+    }
+
+    /**
+     * Keep the sorted rows in place, for example while the user points at or
+     * selects a row; rows whose value changed meanwhile move when unfrozen.
+     */
+    public void setOrderFrozen(boolean frozen) {
+        viewData.setFrozen(frozen);
+    }
+
+    // ==================== Search ====================
+
+    /**
+     * Find the rows whose symbol or status contains the text (case-insensitive).
+     * Only rows passing the filter count as matches.
+     */
+    public void search(String text) {
+        searchText = text == null ? "" : text;
+        searchMatches = store.searchIndex().search(searchText);
+        searchCursor = -1;
+        countSearchMatches();
+        searchGeneration.set(searchGeneration.get() + 1);
+    }
+
+    private void countSearchMatches() {
+        shownSearchMatches.clear();
+        for (int row = searchMatches.nextSetBit(0); row >= 0; row = searchMatches.nextSetBit(row + 1)) {
+            if (rowFilter.matches(row)) {
+                shownSearchMatches.set(row);
             }
+        }
+        searchMatchCount.set(shownSearchMatches.cardinality());
+    }
 
-            // Clear existing data on UI thread first
-            Platform.runLater(() -> {
-                bulkLoading = true;
-                viewData.clear();
-                masterData.clear();
-            });
-
-            // Small delay to let clear complete
-            try { Thread.sleep(50); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-
-            // Add data in batches
-            for (int i = 0; i < totalSize; i += BATCH_SIZE) {
-                final int start = i;
-                final int end = Math.min(i + BATCH_SIZE, totalSize);
-                final List<RowModel> modelBatch = dataList.subList(start, end);
-                final List<RowViewModel> viewModelBatch = viewModels.subList(start, end);
-
-                Platform.runLater(() -> {
-                    masterData.addAll(modelBatch);
-                    viewData.addAll(viewModelBatch);
-                    statusMessage.set("Loading... %d / %d rows".formatted(end, totalSize));
-                });
-
-                // Small delay between batches to let UI thread breathe
-                if (end < totalSize) {
-                    try {
-                        Thread.sleep(16); // ~1 frame at 60fps
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
-                    }
-                }
+    // A row changed after the search: its symbol or status, or whether it passes the filter, may differ
+    private void updateSearchMatch(int row) {
+        if (searchText.isBlank()) {
+            return;
+        }
+        boolean match = SearchIndex.matches(store, row, searchText);
+        searchMatches.set(row, match);
+        boolean shown = match && rowFilter.matches(row);
+        if (shown != shownSearchMatches.get(row)) {
+            shownSearchMatches.set(row, shown);
+            searchMatchCount.set(searchMatchCount.get() + (shown ? 1 : -1));
+        }
+    }
+
+    /**
+     * Whether a row matches the current search.
+     */
+    public boolean isSearchMatch(RowViewModel row) {
+        return searchMatches.get(row.getRowIndex());
+    }
+
+    /**
+     * Move to the next search match in the view data, in view order, wrapping around at the end.
+     * @return index of the match in the view data, or -1 if no displayed row matches
+     */
+    public int nextSearchMatch() {
+        int size = viewData.size();
+        if (shownSearchMatches.isEmpty() || size == 0) {
+            searchCursor = -1;
+            return -1;
+        }
+        int cursor = searchCursor < size ? searchCursor : -1;
+        if (!viewData.isSorted()) {
+            // In store order the next match is the next set bit after the cursor's row
+            int row = shownSearchMatches.nextSetBit(cursor < 0 ? 0 : viewData.rowAt(cursor) + 1);
+            if (row < 0) {
+                row = shownSearchMatches.nextSetBit(0);
+            }
+            searchCursor = viewData.indexOfRow(row);
+            return searchCursor;
+        }
+        // Sorted: step through view positions after the cursor to the first match
+        for (int step = 1; step <= size; step++) {
+            int index = (cursor + step) % size;
+            if (shownSearchMatches.get(viewData.rowAt(index))) {
+                searchCursor = index;
+                return index;
             }
+        }
+        searchCursor = -1;
+        return -1;
+    }
 
-            Platform.runLater(() -> {
-                bulkLoading = false;
-                totalRowCount.set(viewData.size());
-                statusMessage.set("Loaded %d rows from sample.csv".formatted(totalSize));
-                logger.info("Loaded {} rows from default CSV", totalSize);
-            });
-        }).exceptionally(ex -> {
-            logger.error("Failed to load default CSV", ex);
-            Platform.runLater(() -> {
-                bulkLoading = false;
-                statusMessage.set("Failed to load CSV: " + ex.getMessage());
-            });
-            return null;
-        });
+    // ==================== Commands ====================
+
+    /**
+     * Load the default sample.csv from resources asynchronously.
+     * Data is parsed in a background thread and swapped in at once; RowViewModels
+     * are only created for the rows the table displays.
+     */
+    public void loadDefaultCsv() {
+        logger.info("Loading default CSV asynchronously...");
+        load("sample.csv", csvRepository::loadDefaultCsv);
     }
 
     /**
      * Load CSV from an external file asynchronously.
-     * Data is loaded in background thread, RowViewModels are created in background,
-     * and inserted in batches to avoid UI freezing.
+     * Data is parsed in a background thread and swapped in at once; RowViewModels
+     * are only created for the rows the table displays. A load still in progress
+     * is cancelled.
      */
     public void loadCsvFromFile(File file) {
         if (file == null) {
@@ -238,83 +340,79 @@ public class TableViewModel {
         }
 
         logger.info("Loading CSV from file asynchronously: {}", file.getName());
-        statusMessage.set("Loading " + file.getName() + "...");
+        load(file.getName(), monitor -> csvRepository.loadCsvFromFile(file, monitor));
+    }
 
-        // Pause updates during load
-        boolean wasRunning = updateEngine.isRunning();
-        if (wasRunning) {
-            updateEngine.pause();
+    /**
+     * Cancel the load in progress, if any.
+     */
+    public void cancelLoad() {
+        if (currentLoad != null) {
+            currentLoad.cancel();
         }
+    }
 
-        final String fileName = file.getName();
-
-        CompletableFuture.runAsync(() -> {
-            // Load data in background thread
-            ObservableList<RowModel> data = csvRepository.loadCsvFromFile(file);
-            int totalSize = data.size();
-            List<RowModel> dataList = new ArrayList<>(data);
+    /**
+     * Parse off the FX thread, then swap the result in with a single list change.
+     * Updates are paused meanwhile; only the latest load may publish its result.
+     */
+    private void load(String name, Function<LoadMonitor, RowStore> loader) {
+        if (currentLoad == null) {
+            resumeAfterLoad = updateEngine.isRunning();
+        } else {
+            currentLoad.cancel();
+        }
+        if (resumeAfterLoad) {
+            updateEngine.pause();
+        }
 
-            // Create RowViewModels in background thread (expensive operation)
-            List<RowViewModel> viewModels = new ArrayList<>(totalSize);
-            for (RowModel model : dataList) {
-                viewModels.add(new RowViewModel(model));
+        int sequence = ++loadSequence;
+        LoadMonitor monitor = new LoadMonitor((done, total) -> Platform.runLater(() -> {
+            if (sequence == loadSequence && total > 0) {
+                loadProgress.set((double) done / total);
             }
+        }));
+        currentLoad = monitor;
+        loadProgress.set(ProgressIndicator.INDETERMINATE_PROGRESS);
+        loading.set(true);
+        statusMessage.set("Loading " + name + "...");
+
+        CompletableFuture.supplyAsync(() -> loader.apply(monitor))
+                .whenComplete((loaded, ex) -> Platform.runLater(() -> {
+                    if (sequence != loadSequence) {
+                        logger.debug("Discarding superseded load of {}", name);
+                        return;
+                    }
+                    currentLoad = null;
+                    loading.set(false);
+                    if (resumeAfterLoad) {
+                        updateEngine.start();
+                    }
 
-            // Clear existing data on UI thread first
-            Platform.runLater(() -> {
-                bulkLoading = true;
-                viewData.clear();
-                masterData.clear();
-            });
-
-            // Small delay to let clear complete
-            try { Thread.sleep(50); } catch (InterruptedException e) { Thread.currentThread().interrupt(); }
-
-            // Add data in batches
-            for (int i = 0; i < totalSize; i += BATCH_SIZE) {
-                final int start = i;
-                final int end = Math.min(i + BATCH_SIZE, totalSize);
-                final List<RowModel> modelBatch = dataList.subList(start, end);
-                final List<RowViewModel> viewModelBatch = viewModels.subList(start, end);
-
-                Platform.runLater(() -> {
-                    masterData.addAll(modelBatch);
-                    viewData.addAll(viewModelBatch);
-                    statusMessage.set("Loading... %d / %d rows".formatted(end, totalSize));
-                });
-
-                // Small delay between batches to let UI thread breathe
-                if (end < totalSize) {
-                    try {
-                        Thread.sleep(16); // ~1 frame at 60fps
-                    } catch (InterruptedException e) {
-                        Thread.currentThread().interrupt();
-                        break;
+                    Throwable cause = ex instanceof CompletionException ? ex.getCause() : ex;
+                    if (cause instanceof CancellationException) {
+                        statusMessage.set("Loading " + name + " cancelled");
+                    } else if (cause != null) {
+                        logger.error("Failed to load CSV: {}", name, cause);
+                        statusMessage.set("Failed to load " + name + ": " + cause.getMessage());
+                    } else {
+                        showStore(loaded);
+                        statusMessage.set("Loaded %d rows from %s".formatted(loaded.size(), name));
+                        logger.info("Loaded {} rows from {}", loaded.size(), name);
                     }
-                }
-            }
+                }));
+    }
 
-            Platform.runLater(() -> {
-                bulkLoading = false;
-                totalRowCount.set(viewData.size());
-                // Resume if was running
-                if (wasRunning) {
-                    updateEngine.start();
-                }
-                statusMessage.set("Loaded %d rows from %s".formatted(totalSize, fileName));
-                logger.info("Loaded {} rows from {}", totalSize, fileName);
-            });
-        }).exceptionally(ex -> {
-            logger.error("Failed to load CSV from file: {}", fileName, ex);
-            Platform.runLater(() -> {
-                bulkLoading = false;
-                if (wasRunning) {
-                    updateEngine.start();
-                }
-                statusMessage.set("Failed to load " + fileName + ": " + ex.getMessage());
-            });
-            return null;
-        });
+    /**
+     * Swap in a loaded store (FX thread).
+     */
+    private void showStore(RowStore loaded) {
+        store = loaded;
+        allRows.setStore(loaded);
+        rowFilter.setStore(loaded);
+        updateEngine.setData(loaded);
+        totalRowCount.set(loaded.size());
+        search(searchText);
     }
 
     /**
@@ -328,10 +426,11 @@ public class TableViewModel {
         logger.info("Saving CSV to file: {}", file.getName());
         statusMessage.set("Saving to " + file.getName() + "...");
 
-        boolean success = csvRepository.saveCsvToFile(new ArrayList<>(masterData), file);
+        RowStore current = store;
+        boolean success = csvRepository.saveCsvToFile(current, file);
 
         if (success) {
-            statusMessage.set("Saved %d rows to %s".formatted(masterData.size(), file.getName()));
+            statusMessage.set("Saved %d rows to %s".formatted(current.size(), file.getName()));
         } else {
             statusMessage.set("Failed to save to " + file.getName());
         }
@@ -370,6 +469,67 @@ public class TableViewModel {
         }
     }
 
+    /**
+     * Replay a recorded tick file against the current rows.
+     * @param speed 1 for real time, N for N times faster, {@link TickReplay#MAX_SPEED} for no pacing
+     */
+    public void replayTickFile(File file, double speed) {
+        stopReplay();
+        TickReplay current = new TickReplay(updateEngine, store);
+        replay = current;
+        replayRunning.set(true);
+        statusMessage.set("Replaying " + file.getName() + "...");
+
+        current.start(file.toPath(), speed).whenComplete((count, ex) -> Platform.runLater(() -> {
+            if (replay == current) {
+                replay = null;
+                replayRunning.set(false);
+            }
+            if (ex != null) {
+                logger.error("Failed to replay {}", file.getName(), ex);
+                statusMessage.set("Failed to replay " + file.getName() + ": " + ex.getMessage());
+            } else {
+                statusMessage.set("Replayed %d ticks from %s (%d skipped)"
+                        .formatted(count, file.getName(), current.getTicksSkipped()));
+            }
+        }));
+    }
+
+    /**
+     * Stop the running tick replay, if any.
+     */
+    public void stopReplay() {
+        if (replay != null) {
+            replay.stop();
+        }
+    }
+
+    // Size at which tick journal segments are rotated
+    private static final long JOURNAL_SEGMENT_BYTES = 64L << 20;
+
+    /**
+     * Record applied ticks and manual edits into a journal in the given directory.
+     */
+    public void startRecording(File directory) {
+        try {
+            updateEngine.startRecording(directory.toPath(), JOURNAL_SEGMENT_BYTES);
+            recording.set(true);
+            statusMessage.set("Recording ticks to " + directory.getName());
+        } catch (IOException e) {
+            logger.error("Failed to start recording to {}", directory, e);
+            statusMessage.set("Failed to record to " + directory.getName() + ": " + e.getMessage());
+        }
+    }
+
+    /**
+     * Stop recording ticks.
+     */
+    public void stopRecording() {
+        updateEngine.stopRecording();
+        recording.set(false);
+        statusMessage.set("Recording stopped");
+    }
+
     // ==================== Row Operations ====================
 
     /**
@@ -386,7 +546,7 @@ public class TableViewModel {
      * Unlock all rows.
      */
     public void unlockAllRows() {
-        masterData.forEach(RowModel::unlock);
+        store.unlockAll();
         logger.info("All rows unlocked");
         statusMessage.set("All rows unlocked");
     }
@@ -397,22 +557,56 @@ public class TableViewModel {
      * Shutdown the ViewModel (call on application exit).
      */
     public void shutdown() {
+        cancelLoad();
+        stopReplay();
         updateEngine.shutdown();
         logger.info("TableViewModel shutdown complete");
     }
 
     // ==================== Properties ====================
 
-    public IntegerProperty filteredRowCountProperty() {
-        return filteredRowCount;
+    public BooleanProperty loadingProperty() {
+        return loading;
+    }
+
+    /**
+     * Fraction of the current load parsed so far, or indeterminate (-1).
+     */
+    public DoubleProperty loadProgressProperty() {
+        return loadProgress;
+    }
+
+    public BooleanProperty replayRunningProperty() {
+        return replayRunning;
+    }
+
+    public BooleanProperty recordingProperty() {
+        return recording;
+    }
+
+    /**
+     * Number of rows matching the filter predicate, maintained incrementally.
+     */
+    public ReadOnlyIntegerProperty filteredRowCountProperty() {
+        return filteredRowCount.getReadOnlyProperty();
     }
 
     public int getFilteredRowCount() {
         return filteredRowCount.get();
     }
 
-    public void setFilteredRowCount(int count) {
-        filteredRowCount.set(count);
+    /**
+     * Number of displayed rows matching the search, as of the last search or filter change.
+     */
+    public ReadOnlyIntegerProperty searchMatchCountProperty() {
+        return searchMatchCount.getReadOnlyProperty();
+    }
+
+    /**
+     * Incremented by every search, so shown rows can re-evaluate {@link #isSearchMatch(RowViewModel)}.
+     */
+    public ReadOnlyIntegerProperty searchGenerationProperty() {
+        return searchGeneration.getReadOnlyProperty();
     }
 
     public BooleanProperty updateRunningProperty() {
@@ -0,0 +1,204 @@
+package com.csvmonitor.viewmodel;
+
+import com.csvmonitor.model.RowStore;
+import javafx.collections.ObservableListBase;
+
+import java.util.AbstractList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.IdentityHashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.function.Predicate;
+
+/**
+ * Observable list of {@link RowViewModel}s over a {@link RowStore}, created on demand.
+ *
+ * A RowViewModel only exists for an index once something asks for it. The
+ * most recently used ones are kept in a bounded LRU; evicted ones release their
+ * bindings and the store's view of the row. Rows currently shown by the table
+ * are pinned ({@link #pin(RowViewModel)}) and survive eviction, so a visible
+ * row never stops updating.
+ *
+ * FX thread only.
+ */
+public class VirtualRowList extends ObservableListBase<RowViewModel> {
+
+    public static final int DEFAULT_CACHE_SIZE = 1024;
+
+    private final int cacheSize;
+    private RowStore store = new RowStore();
+
+    // Access-ordered: the eldest entry is the least recently used row
+    private final LinkedHashMap<Integer, RowViewModel> cache;
+    // Pinned rows by index, and how many times each is pinned
+    private final Map<Integer, RowViewModel> pinnedByIndex = new HashMap<>();
+    private final Map<RowViewModel, Integer> pinCounts = new IdentityHashMap<>();
+    // Pinned rows of a previous store, released once unpinned
+    private final Set<RowViewModel> stale = Collections.newSetFromMap(new IdentityHashMap<>());
+    // Reused to test rows that have no view model, see test()
+    private RowViewModel probe;
+
+    public VirtualRowList() {
+        this(DEFAULT_CACHE_SIZE);
+    }
+
+    public VirtualRowList(int cacheSize) {
+        if (cacheSize <= 0) throw new IllegalArgumentException("cacheSize must be positive");
+        this.cacheSize = cacheSize;
+        this.cache = new LinkedHashMap<>(cacheSize * 2, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<Integer, RowViewModel> eldest) {
+                if (size() <= VirtualRowList.this.cacheSize) {
+                    return false;
+                }
+                if (!pinCounts.containsKey(eldest.getValue())) {
+                    release(eldest.getValue());
+                }
+                return true;
+            }
+        };
+    }
+
+    public RowStore getStore() {
+        return store;
+    }
+
+    /**
+     * Show the rows of another store; every current row is reported as replaced.
+     */
+    public void setStore(RowStore newStore) {
+        RowStore oldStore = store;
+        int oldSize = oldStore.size();
+        Map<Integer, RowViewModel> oldRows = new HashMap<>(cache);
+        oldRows.putAll(pinnedByIndex);
+
+        // Pinned rows belong to the old store now; they are released when unpinned
+        for (RowViewModel row : cache.values()) {
+            if (!pinCounts.containsKey(row)) {
+                release(row);
+            }
+        }
+        stale.addAll(pinCounts.keySet());
+        cache.clear();
+        pinnedByIndex.clear();
+        store = newStore;
+        probe = null;
+
+        // One change for the whole list; the removed rows stay lazy
+        if (oldSize > 0 || newStore.size() > 0) {
+            fireChange(new ReplaceAllChange<>(this, removedRows(oldStore, oldRows), newStore.size()));
+        }
+    }
+
+    /**
+     * Number of RowViewModels currently alive (cached or pinned).
+     */
+    public int materializedCount() {
+        int count = cache.size();
+        for (RowViewModel row : pinCounts.keySet()) {
+            if (stale.contains(row) || !cache.containsKey(row.getModel().getIndex())) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    @Override
+    public RowViewModel get(int index) {
+        RowViewModel row = cache.get(index);
+        if (row != null) {
+            return row;
+        }
+        row = pinnedByIndex.get(index);
+        if (row == null) {
+            row = new RowViewModel(store.view(index));
+        }
+        cache.put(index, row);
+        return row;
+    }
+
+    @Override
+    public int size() {
+        return store.size();
+    }
+
+    /**
+     * Test a row without adding it to the cache: a live view model is used if
+     * there is one, otherwise a detached one reused for every such row, so
+     * refiltering allocates no view per row.
+     */
+    boolean test(int index, Predicate<? super RowViewModel> predicate) {
+        RowViewModel row = cache.get(index);
+        if (row == null) {
+            row = pinnedByIndex.get(index);
+        }
+        if (row != null) {
+            return predicate.test(row);
+        }
+        if (probe == null) {
+            probe = RowViewModel.detached(store);
+        }
+        return predicate.test(probe.moveTo(index));
+    }
+
+    /**
+     * Keep a row alive while it is displayed; calls nest.
+     */
+    public void pin(RowViewModel row) {
+        Integer count = pinCounts.get(row);
+        pinCounts.put(row, count == null ? 1 : count + 1);
+        if (count == null && !stale.contains(row)) {
+            pinnedByIndex.put(row.getModel().getIndex(), row);
+        }
+    }
+
+    /**
+     * Undo one {@link #pin(RowViewModel)}; the row is released if it is no longer cached.
+     */
+    public void unpin(RowViewModel row) {
+        Integer count = pinCounts.get(row);
+        if (count == null) {
+            return;
+        }
+        if (count > 1) {
+            pinCounts.put(row, count - 1);
+            return;
+        }
+        pinCounts.remove(row);
+        if (stale.remove(row)) {
+            row.dispose();
+            return;
+        }
+        // One view model per index: if the index is cached, it is this row
+        int index = row.getModel().getIndex();
+        pinnedByIndex.remove(index);
+        if (!cache.containsKey(index)) {
+            release(row);
+        }
+    }
+
+    private void release(RowViewModel row) {
+        row.dispose();
+        store.releaseView(row.getModel().getIndex());
+    }
+
+    // Rows removed by a store swap, copied into detached view models only if a listener looks at them
+    private static List<RowViewModel> removedRows(RowStore oldStore, Map<Integer, RowViewModel> alive) {
+        int size = oldStore.size();
+        return new AbstractList<>() {
+            @Override
+            public RowViewModel get(int index) {
+                RowViewModel row = alive.get(index);
+                return row != null ? row : RowViewModel.detached(oldStore).moveTo(index);
+            }
+
+            @Override
+            public int size() {
+                return size;
+            }
+        };
+    }
+}
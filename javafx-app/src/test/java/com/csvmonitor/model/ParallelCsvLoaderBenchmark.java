@@ -0,0 +1,126 @@
+package com.csvmonitor.model;
+
+import java.io.BufferedWriter;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Benchmark of loading a large CSV file sequentially and with {@link ParallelCsvLoader}.
+ *
+ * The bundled sample.csv (20,000 rows) is replicated into a temporary file of
+ * a few million rows, with ids renumbered. The file is loaded with
+ * {@link CsvRepository.LoadMode#SEQUENTIAL}, then with the parallel loader on
+ * pools of 1, 2, 4... threads up to the available processors; the speedup is
+ * given against the sequential load and against the parallel loader on one
+ * thread. Each load runs {@value #RUNS} times after as many warmup loads, and
+ * the best time is kept.
+ *
+ * Not a unit test; run the main method, e.g. from the IDE, with the test classpath.
+ * Optional argument: number of copies of sample.csv, default {@value #DEFAULT_COPIES}.
+ */
+public final class ParallelCsvLoaderBenchmark {
+
+    private static final int DEFAULT_COPIES = 100;
+    private static final int RUNS = 3;
+
+    private ParallelCsvLoaderBenchmark() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        int copies = args.length > 0 ? Integer.parseInt(args[0]) : DEFAULT_COPIES;
+        Path file = Files.createTempFile("csv-benchmark", ".csv");
+        try {
+            int rows = replicateSample(file, copies);
+            System.out.printf("%,d rows, %,d MB, %d processors%n",
+                    rows, Files.size(file) >> 20, Runtime.getRuntime().availableProcessors());
+
+            CsvRepository repository = new CsvRepository();
+            repository.setLoadMode(CsvRepository.LoadMode.SEQUENTIAL);
+            double sequential = best(() -> repository.loadCsvFromFile(file.toFile()).size(), rows);
+            System.out.printf("SEQUENTIAL           %7.0f ms%n", sequential);
+
+            double oneThread = 0;
+            int processors = Runtime.getRuntime().availableProcessors();
+            for (int threads = 1; threads <= processors; threads = nextThreadCount(threads, processors)) {
+                ForkJoinPool pool = new ForkJoinPool(threads);
+                try {
+                    ParallelCsvLoader loader = new ParallelCsvLoader(pool);
+                    double millis = best(() -> loader.load(file).store().size(), rows);
+                    if (threads == 1) {
+                        oneThread = millis;
+                    }
+                    System.out.printf("PARALLEL %2d thread%s %7.0f ms  %.2fx sequential, %.2fx one thread%n",
+                            threads, threads == 1 ? " " : "s", millis, sequential / millis, oneThread / millis);
+                } finally {
+                    pool.shutdown();
+                }
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    // 1, 2, 4... then the processor count itself
+    private static int nextThreadCount(int threads, int processors) {
+        return threads < processors && threads * 2 > processors ? processors : threads * 2;
+    }
+
+    /**
+     * Write the header of sample.csv, then its rows {@code copies} times with ids made unique.
+     * @return number of rows written
+     */
+    private static int replicateSample(Path file, int copies) throws IOException {
+        List<String> lines = new ArrayList<>();
+        try (var reader = new BufferedReader(new InputStreamReader(
+                ParallelCsvLoaderBenchmark.class.getResourceAsStream("/sample.csv"), StandardCharsets.UTF_8))) {
+            for (String line = reader.readLine(); line != null; line = reader.readLine()) {
+                if (!line.isBlank()) {
+                    lines.add(line);
+                }
+            }
+        }
+        int sampleRows = lines.size() - 1;
+        int id = 0;
+        try (BufferedWriter writer = Files.newBufferedWriter(file, StandardCharsets.UTF_8)) {
+            writer.write(lines.get(0));
+            writer.newLine();
+            for (int copy = 0; copy < copies; copy++) {
+                for (int i = 1; i <= sampleRows; i++) {
+                    String line = lines.get(i);
+                    writer.write(Integer.toString(++id));
+                    writer.write(line, line.indexOf(','), line.length() - line.indexOf(','));
+                    writer.newLine();
+                }
+            }
+        }
+        return id;
+    }
+
+    private interface Load {
+        int run() throws IOException;
+    }
+
+    // Best milliseconds of RUNS loads, after as many warmup loads
+    private static double best(Load load, int expectedRows) throws IOException {
+        double best = Double.MAX_VALUE;
+        for (int i = 0; i < RUNS * 2; i++) {
+            long start = System.nanoTime();
+            int rows = load.run();
+            double millis = (System.nanoTime() - start) / 1e6;
+            if (rows != expectedRows) {
+                throw new IllegalStateException("Loaded " + rows + " rows, expected " + expectedRows);
+            }
+            if (i >= RUNS) {
+                best = Math.min(best, millis);
+            }
+        }
+        return best;
+    }
+}
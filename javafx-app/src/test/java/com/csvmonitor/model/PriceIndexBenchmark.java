@@ -0,0 +1,133 @@
+package com.csvmonitor.model;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Benchmark of the sorted price indexes of {@link RowStore} at 100k and 1M rows.
+ *
+ * For each size: the time to build both indexes, the cost of a tick with both
+ * indexes kept current, the share of one core taken by 10k ticks/s paced in
+ * 1 ms batches, and the cost of a range count (against a linear scan), top 20
+ * gainers and losers, and a percentile.
+ *
+ * Not a unit test; run the main method, e.g. from the IDE, with the test classpath.
+ * Optional arguments: row counts, default {@code 100000 1000000}.
+ */
+public final class PriceIndexBenchmark {
+
+    private static final int TICKS_PER_SECOND = 10_000;
+    private static final int PACED_SECONDS = 3;
+    private static final int WARMUP_TICKS = 500_000;
+    private static final int MEASURED_TICKS = 1_000_000;
+    private static final int QUERIES = 2_000;
+    private static final int SCANS = 100;
+
+    private static volatile long sink;
+
+    private PriceIndexBenchmark() {
+    }
+
+    public static void main(String[] args) {
+        int[] sizes = args.length == 0
+                ? new int[] {100_000, 1_000_000}
+                : Arrays.stream(args).mapToInt(Integer::parseInt).toArray();
+        for (int size : sizes) {
+            run(size);
+        }
+    }
+
+    private static void run(int size) {
+        Random random = new Random(size);
+        RowStore store = new RowStore(size);
+        for (int row = 0; row < size; row++) {
+            store.append(row, "SYM" + (row % 500), 10 + random.nextDouble() * 990, 100, "ACTIVE",
+                    "2024-01-01T00:00:00");
+        }
+
+        long start = System.nanoTime();
+        store.priceIndex();
+        store.changeIndex();
+        long buildNanos = System.nanoTime() - start;
+
+        for (int i = 0; i < WARMUP_TICKS; i++) {
+            tick(store, random);
+        }
+        start = System.nanoTime();
+        for (int i = 0; i < MEASURED_TICKS; i++) {
+            tick(store, random);
+        }
+        double tickNanos = (double) (System.nanoTime() - start) / MEASURED_TICKS;
+
+        double busyShare = paced(store, random);
+
+        SortedRowIndex prices = store.priceIndex();
+        SortedRowIndex changes = store.changeIndex();
+        double rangeNanos = time(QUERIES, () -> {
+            double low = 100 + random.nextDouble() * 800;
+            return prices.count(low, low + 50);
+        });
+        double scanNanos = time(SCANS, () -> {
+            double low = 100 + random.nextDouble() * 800;
+            int count = 0;
+            for (int row = 0; row < size; row++) {
+                double price = store.getPrice(row);
+                if (price >= low && price <= low + 50) {
+                    count++;
+                }
+            }
+            return count;
+        });
+        double topNanos = time(QUERIES, () -> changes.highest(20).length + changes.lowest(20).length);
+        double percentileNanos = time(QUERIES, () -> (long) prices.percentile(random.nextDouble() * 100));
+
+        System.out.printf("%,d rows: build %.0f ms; tick %.2f us; %,d ticks/s take %.1f%% of a core%n",
+                size, buildNanos / 1e6, tickNanos / 1e3, TICKS_PER_SECOND, busyShare * 100);
+        System.out.printf("  range count %.2f us (scan %.0f us); top 20 gainers+losers %.2f us; percentile %.2f us%n",
+                rangeNanos / 1e3, scanNanos / 1e3, topNanos / 1e3, percentileNanos / 1e3);
+    }
+
+    // A random walk tick of a random row, as the UpdateEngine applies it
+    private static void tick(RowStore store, Random random) {
+        int row = random.nextInt(store.size());
+        double price = store.getPrice(row);
+        store.setPreviousPrice(row, price);
+        store.setPrice(row, Math.max(0.01, price * (1 + (random.nextDouble() - 0.5) * 0.02)));
+    }
+
+    // Share of the wall time spent ticking at TICKS_PER_SECOND, in 1 ms batches
+    private static double paced(RowStore store, Random random) {
+        int perBatch = TICKS_PER_SECOND / 1000;
+        long busy = 0;
+        long next = System.nanoTime();
+        long end = next + PACED_SECONDS * 1_000_000_000L;
+        long begin = next;
+        while (next < end) {
+            long batchStart = System.nanoTime();
+            for (int i = 0; i < perBatch; i++) {
+                tick(store, random);
+            }
+            busy += System.nanoTime() - batchStart;
+            next += 1_000_000;
+            LockSupport.parkNanos(next - System.nanoTime());
+        }
+        return (double) busy / (System.nanoTime() - begin);
+    }
+
+    private interface Query {
+        long run();
+    }
+
+    // Average nanoseconds per query, after as many warmup runs
+    private static double time(int runs, Query query) {
+        for (int i = 0; i < runs; i++) {
+            sink += query.run();
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < runs; i++) {
+            sink += query.run();
+        }
+        return (double) (System.nanoTime() - start) / runs;
+    }
+}
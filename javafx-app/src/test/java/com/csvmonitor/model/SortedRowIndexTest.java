@@ -0,0 +1,106 @@
+package com.csvmonitor.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+class SortedRowIndexTest {
+
+    @Test
+    void tiesAreOrderedByRow() {
+        double[] keys = {3, 1, 3, 2, 1, 3};
+        SortedRowIndex index = new SortedRowIndex(keys, keys.length);
+
+        assertArrayEquals(new int[] {1, 4, 3, 0, 2, 5}, index.lowest(keys.length));
+        assertArrayEquals(new int[] {5, 2, 0, 3}, index.highest(4));
+        assertEquals(3, index.indexOf(0, 3));
+        assertEquals(4, index.indexOf(2, 3));
+    }
+
+    @Test
+    void keysOrderAsDoubles() {
+        double[] keys = {Double.NaN, 0.0, Double.POSITIVE_INFINITY, -0.0, -1e300, Double.NEGATIVE_INFINITY, 1e-300};
+        SortedRowIndex index = new SortedRowIndex(keys, keys.length);
+
+        // -0.0 orders below 0.0, NaN above positive infinity
+        assertArrayEquals(new int[] {5, 4, 3, 1, 6, 2, 0}, index.lowest(keys.length));
+        assertEquals(Double.NEGATIVE_INFINITY, index.keyAt(0));
+        assertEquals(Double.NaN, index.keyAt(6));
+    }
+
+    @Test
+    void indexesOnlyTheListedRows() {
+        double[] keys = {5, 9, 1, 7, 3};
+        SortedRowIndex index = new SortedRowIndex(keys, new int[] {1, 3, 4}, 3);
+
+        assertEquals(3, index.size());
+        assertArrayEquals(new int[] {4, 3, 1}, index.lowest(3));
+    }
+
+    @Test
+    void rangeQueriesIncludeBothBounds() {
+        double[] keys = {10, 20, 20, 30, 40};
+        SortedRowIndex index = new SortedRowIndex(keys, keys.length);
+
+        assertEquals(3, index.count(20, 30));
+        assertEquals(0, index.count(41, 50));
+        assertEquals(0, index.count(30, 20));
+        List<Integer> visited = new ArrayList<>();
+        index.forEach(15, 30, visited::add);
+        assertEquals(List.of(1, 2, 3), visited);
+        assertEquals(20.0, index.percentile(50));
+        assertEquals(40.0, index.percentile(100));
+    }
+
+    @Test
+    void updatesKeepTheOrderAcrossBlockSplits() {
+        int count = SortedRowIndex.MAX_BLOCK_SIZE * 3;
+        double[] keys = new double[count];
+        Random random = new Random(7);
+        for (int row = 0; row < count; row++) {
+            keys[row] = random.nextInt(100);
+        }
+        SortedRowIndex index = new SortedRowIndex(keys, count / 2);
+        for (int row = count / 2; row < count; row++) {
+            index.add(row, keys[row]);
+        }
+        for (int i = 0; i < 10_000; i++) {
+            int row = random.nextInt(count);
+            double key = random.nextInt(100);
+            index.update(row, keys[row], key);
+            keys[row] = key;
+        }
+
+        int[] expected = byKeyThenRow(keys);
+        assertArrayEquals(expected, index.lowest(count));
+        for (int rank = 0; rank < count; rank += 97) {
+            assertEquals(expected[rank], index.rowAt(rank));
+            assertEquals(rank, index.indexOf(expected[rank], keys[expected[rank]]));
+        }
+    }
+
+    @Test
+    void removingARowWithAnotherKeyFails() {
+        SortedRowIndex index = new SortedRowIndex(new double[] {1, 2}, 2);
+
+        assertThrows(IllegalStateException.class, () -> index.remove(0, 2));
+        index.remove(0, 1);
+        assertEquals(1, index.size());
+        assertEquals(1, index.rowAt(0));
+    }
+
+    private static int[] byKeyThenRow(double[] keys) {
+        Integer[] rows = new Integer[keys.length];
+        Arrays.setAll(rows, row -> row);
+        Arrays.sort(rows, Comparator.<Integer>comparingDouble(row -> keys[row]).thenComparingInt(row -> row));
+        return Arrays.stream(rows).mapToInt(Integer::intValue).toArray();
+    }
+}
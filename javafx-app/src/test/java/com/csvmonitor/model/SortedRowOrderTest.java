@@ -0,0 +1,109 @@
+package com.csvmonitor.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class SortedRowOrderTest {
+
+    private final double[] keys = {3, 1, 3, 2, 1, 3};
+    private final List<String> events = new ArrayList<>();
+
+    private final SortedRowOrder.OrderListener listener = new SortedRowOrder.OrderListener() {
+        @Override
+        public void onMoved(int row, int from, int to) {
+            events.add("moved " + row + " " + from + "->" + to);
+        }
+
+        @Override
+        public void onReordered(int[] oldRows) {
+            events.add("reordered");
+        }
+    };
+
+    @Test
+    void ascendingKeepsTiesInRowOrder() {
+        SortedRowOrder order = new SortedRowOrder(row -> keys[row], true, null, keys.length);
+
+        assertArrayEquals(new int[] {1, 4, 3, 0, 2, 5}, rows(order));
+        assertEquals(3, order.positionOf(0));
+    }
+
+    @Test
+    void descendingReversesTiesToo() {
+        SortedRowOrder order = new SortedRowOrder(row -> keys[row], false, null, keys.length);
+
+        assertArrayEquals(new int[] {5, 2, 0, 3, 4, 1}, rows(order));
+        for (int position = 0; position < order.size(); position++) {
+            assertEquals(position, order.positionOf(order.rowAt(position)));
+        }
+    }
+
+    @Test
+    void changedRowMovesAlone() {
+        SortedRowOrder order = new SortedRowOrder(row -> keys[row], true, null, keys.length);
+        order.setListener(listener);
+
+        keys[3] = 10;
+        order.rowChanged(3);
+        order.rowChanged(0);
+
+        assertArrayEquals(new int[] {1, 4, 0, 2, 5, 3}, rows(order));
+        assertEquals(List.of("moved 3 2->5"), events);
+    }
+
+    @Test
+    void frozenOrderMovesRowsWhenUnfrozen() {
+        SortedRowOrder order = new SortedRowOrder(row -> keys[row], false, null, keys.length);
+        order.setListener(listener);
+        order.setFrozen(true);
+
+        keys[1] = 5;
+        order.rowChanged(1);
+        assertArrayEquals(new int[] {5, 2, 0, 3, 4, 1}, rows(order));
+        assertEquals(List.of(), events);
+
+        order.setFrozen(false);
+        assertArrayEquals(new int[] {1, 5, 2, 0, 3, 4}, rows(order));
+        assertEquals(0, order.positionOf(1));
+    }
+
+    @Test
+    void largeBatchIsSortedAgain() {
+        SortedRowOrder order = new SortedRowOrder(row -> keys[row], true, null, keys.length);
+        order.setListener(listener);
+
+        keys[0] = 0;
+        keys[5] = 0;
+        order.rowsChanged(new int[] {0, 5}, 2);
+
+        assertArrayEquals(new int[] {0, 5, 1, 4, 3, 2}, rows(order));
+        assertEquals(List.of("reordered"), events);
+    }
+
+    @Test
+    void addAndRemoveRows() {
+        SortedRowOrder order = new SortedRowOrder(row -> keys[row], true, new int[] {0, 1}, 2);
+        assertFalse(order.contains(3));
+
+        assertEquals(1, order.add(3));
+        assertTrue(order.contains(3));
+        assertEquals(0, order.remove(1));
+        assertArrayEquals(new int[] {3, 0}, rows(order));
+        assertEquals(-1, order.positionOf(1));
+    }
+
+    private static int[] rows(SortedRowOrder order) {
+        int[] rows = new int[order.size()];
+        for (int position = 0; position < rows.length; position++) {
+            rows[position] = order.rowAt(position);
+        }
+        return rows;
+    }
+}
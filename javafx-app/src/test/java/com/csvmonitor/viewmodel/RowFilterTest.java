@@ -0,0 +1,53 @@
+package com.csvmonitor.viewmodel;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class RowFilterTest {
+
+    @Test
+    void prefixCountCountsSetBitsBeforeRow() {
+        BitSet bits = BitSet.valueOf(new long[] {0b1011_0010L});
+        int[] tree = RowFilter.buildTree(bits, 8);
+
+        int[] expected = {0, 0, 1, 1, 1, 2, 3, 3, 4};
+        for (int row = 0; row <= 8; row++) {
+            assertEquals(expected[row], RowFilter.prefixCount(tree, row), "prefixCount(" + row + ")");
+        }
+    }
+
+    @Test
+    void selectFindsRowOfEachRank() {
+        BitSet bits = BitSet.valueOf(new long[] {0b1011_0010L});
+        int[] tree = RowFilter.buildTree(bits, 8);
+
+        assertEquals(1, RowFilter.select(tree, 0));
+        assertEquals(4, RowFilter.select(tree, 1));
+        assertEquals(5, RowFilter.select(tree, 2));
+        assertEquals(7, RowFilter.select(tree, 3));
+    }
+
+    @Test
+    void selectInvertsPrefixCountOnRandomSets() {
+        Random random = new Random(3);
+        for (int size : new int[] {1, 2, 7, 64, 1000, 4097}) {
+            BitSet bits = new BitSet(size);
+            for (int row = 0; row < size; row++) {
+                bits.set(row, random.nextInt(3) == 0);
+            }
+            // A tree longer than the rows, as after the store grew
+            int[] tree = RowFilter.buildTree(bits, size * 2);
+
+            int rank = 0;
+            for (int row = bits.nextSetBit(0); row >= 0; row = bits.nextSetBit(row + 1), rank++) {
+                assertEquals(row, RowFilter.select(tree, rank), "select(" + rank + ") of " + size);
+                assertEquals(rank, RowFilter.prefixCount(tree, row), "prefixCount(" + row + ") of " + size);
+            }
+            assertEquals(bits.cardinality(), RowFilter.prefixCount(tree, size * 2));
+        }
+    }
+}
@@ -1,7 +1,8 @@
 package com.csvmonitor.swing.controller;
 
 import com.csvmonitor.swing.model.CsvRepository;
-import com.csvmonitor.swing.model.RowData;
+import com.csvmonitor.swing.model.RowStore;
+import com.csvmonitor.swing.model.TickReplay;
 import com.csvmonitor.swing.model.UpdateEngine;
 import com.csvmonitor.swing.view.CsvTableModel;
 import com.csvmonitor.swing.view.MainView;
@@ -10,17 +11,22 @@ import org.slf4j.LoggerFactory;
 
 import javax.swing.SwingUtilities;
 import java.io.File;
-import java.util.List;
+import java.io.IOException;
 import java.util.concurrent.CompletableFuture;
 
 public class MainController {
 
     private static final Logger logger = LoggerFactory.getLogger(MainController.class);
 
+    // Size at which tick journal segments are rotated
+    private static final long JOURNAL_SEGMENT_BYTES = 64L << 20;
+
     private final MainView view;
     private final CsvRepository csvRepository;
     private final UpdateEngine updateEngine;
     private boolean updateRunning;
+    // Running tick replay, only touched on the EDT
+    private TickReplay replay;
 
     public MainController(MainView view, CsvRepository csvRepository, UpdateEngine updateEngine) {
         this.view = view;
@@ -57,13 +63,47 @@ public class MainController {
     }
 
     public void onUnlockAll() {
-        view.getTableModel().getData().forEach(RowData::unlock);
+        view.getTableModel().getData().unlockAll();
         view.setStatus("All rows unlocked");
         logger.info("All rows unlocked");
     }
 
+    public void onReplayTicks() {
+        if (replay != null) {
+            replay.stop();
+            return;
+        }
+        File file = view.promptOpenTickFile();
+        if (file != null) {
+            replayTickFile(file, view.getReplaySpeed());
+        }
+    }
+
+    public void onRecord() {
+        if (updateEngine.isRecording()) {
+            updateEngine.stopRecording();
+            view.setRecordLabel("Record");
+            view.setStatus("Recording stopped");
+            return;
+        }
+        File directory = view.promptJournalDirectory();
+        if (directory == null) {
+            return;
+        }
+        try {
+            updateEngine.startRecording(directory.toPath(), JOURNAL_SEGMENT_BYTES);
+            view.setRecordLabel("Stop Recording");
+            view.setStatus("Recording ticks to " + directory.getName());
+        } catch (IOException e) {
+            logger.error("Failed to start recording to {}", directory, e);
+            view.setStatus("Failed to record to " + directory.getName() + ": " + e.getMessage());
+        }
+    }
+
     private void setupUpdateEngine() {
-        updateEngine.setTableUpdateCallback(() -> view.getTableModel().fireAllDataUpdated());
+        // Ticks only change prices
+        updateEngine.setTableUpdateCallback((rows, count) ->
+                view.getTableModel().fireCellsUpdated(rows, count, CsvTableModel.PRICE_COLUMN));
     }
 
     private void loadDefaultCsv() {
@@ -71,7 +111,7 @@ public class MainController {
         view.setStatus("Loading default CSV...");
 
         CompletableFuture.runAsync(() -> {
-            List<RowData> data = csvRepository.loadDefaultCsv();
+            RowStore data = csvRepository.loadDefaultCsv();
             SwingUtilities.invokeLater(() -> applyLoadedData(data, "sample.csv"));
         }).exceptionally(ex -> {
             logger.error("Failed to load default CSV", ex);
@@ -92,7 +132,7 @@ public class MainController {
         String fileName = file.getName();
 
         CompletableFuture.runAsync(() -> {
-            List<RowData> data = csvRepository.loadCsvFromFile(file);
+            RowStore data = csvRepository.loadCsvFromFile(file);
             SwingUtilities.invokeLater(() -> {
                 applyLoadedData(data, fileName);
                 if (wasRunning) {
@@ -111,7 +151,7 @@ public class MainController {
         });
     }
 
-    private void applyLoadedData(List<RowData> data, String sourceName) {
+    private void applyLoadedData(RowStore data, String sourceName) {
         CsvTableModel tableModel = view.getTableModel();
         tableModel.setData(data);
         updateEngine.setData(tableModel.getData());
@@ -150,8 +190,32 @@ public class MainController {
         logger.info("Updates paused");
     }
 
+    private void replayTickFile(File file, double speed) {
+        TickReplay current = new TickReplay(updateEngine, view.getTableModel().getData());
+        replay = current;
+        view.setReplayLabel("Stop Replay");
+        view.setStatus("Replaying " + file.getName() + "...");
+
+        current.start(file.toPath(), speed).whenComplete((count, ex) -> SwingUtilities.invokeLater(() -> {
+            if (replay == current) {
+                replay = null;
+                view.setReplayLabel("Replay Ticks");
+            }
+            if (ex != null) {
+                logger.error("Failed to replay {}", file.getName(), ex);
+                view.setStatus("Failed to replay " + file.getName() + ": " + ex.getMessage());
+            } else {
+                view.setStatus("Replayed %d ticks from %s (%d skipped)"
+                        .formatted(count, file.getName(), current.getTicksSkipped()));
+            }
+        }));
+    }
+
     private void shutdown() {
         logger.info("Application closing...");
+        if (replay != null) {
+            replay.stop();
+        }
         updateEngine.shutdown();
     }
 }
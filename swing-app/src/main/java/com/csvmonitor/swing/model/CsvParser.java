@@ -0,0 +1,468 @@
+package com.csvmonitor.swing.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * Streaming CSV parser working directly on bytes.
+ *
+ * Numeric columns are decoded straight from the buffer without intermediate
+ * Strings or boxing. Symbol and status values repeat a lot, so they are decoded
+ * once per distinct byte sequence and reused afterwards. Each row is pushed
+ * to a {@link RowSink} as soon as it is parsed, so callers never have to hold
+ * the whole file as a list.
+ *
+ * Parsing policy is the same as the original line based parser:
+ * - the first line is skipped when it looks like a header (contains id and symbol)
+ * - blank lines are skipped
+ * - rows with missing columns are padded with empty values
+ * - empty or invalid numbers fall back to defaults (id = line number, price/qty = 0)
+ *
+ * Instances are not thread-safe; use one parser per thread.
+ */
+public class CsvParser {
+
+    private static final Logger logger = LoggerFactory.getLogger(CsvParser.class);
+    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+    private static final int EXPECTED_COLUMNS = 6;
+    private static final int DEFAULT_BUFFER_SIZE = 64 * 1024;
+
+    // Largest mantissa and power of ten that can be combined with a single exact division
+    private static final long MAX_EXACT_MANTISSA = 1L << 53;
+    private static final double[] POW10 = {
+            1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+            1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22
+    };
+
+    /**
+     * Receives parsed rows.
+     */
+    @FunctionalInterface
+    public interface RowSink {
+        void onRow(int id, String symbol, double price, int qty, String status, String lastUpdate);
+    }
+
+    /**
+     * Summary of a parse run.
+     */
+    public record ParseStats(int rowCount, int errorCount) {
+        public boolean hasErrors() {
+            return errorCount > 0;
+        }
+    }
+
+    private final RowSink sink;
+    private final TextCache symbolCache = new TextCache();
+    private final TextCache statusCache = new TextCache();
+    private final int[] fieldStart = new int[EXPECTED_COLUMNS];
+    private final int[] fieldEnd = new int[EXPECTED_COLUMNS];
+
+    private int lineNumber;
+    private int rowCount;
+    private int errorCount;
+    private boolean skipLineFeed;
+
+    public CsvParser(RowSink sink) {
+        this.sink = sink;
+    }
+
+    /**
+     * Parse everything readable from the channel.
+     */
+    public ParseStats parse(ReadableByteChannel channel) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(DEFAULT_BUFFER_SIZE);
+
+        while (true) {
+            boolean last = channel.read(buffer) < 0;
+            int end = buffer.position();
+            int consumed = parseLines(buffer, 0, end, last);
+            if (last) {
+                break;
+            }
+
+            if (consumed == 0 && end == buffer.capacity()) {
+                // A single line is longer than the buffer: grow it
+                ByteBuffer larger = ByteBuffer.allocate(buffer.capacity() * 2);
+                buffer.flip();
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                // Move the incomplete trailing line to the front
+                buffer.limit(end).position(consumed);
+                buffer.compact();
+            }
+        }
+
+        logger.debug("Parsed {} rows successfully, {} errors", rowCount, errorCount);
+        return getStats();
+    }
+
+    /**
+     * Parse the lines contained in {@code buffer[from, to)} using absolute reads.
+     *
+     * @param last whether the range ends the input; if not, a trailing line without
+     *             terminator is left unparsed
+     * @return index of the first byte that was not consumed
+     */
+    public int parseLines(ByteBuffer buffer, int from, int to, boolean last) {
+        int lineStart = from;
+
+        if (skipLineFeed && lineStart < to) {
+            if (buffer.get(lineStart) == '\n') {
+                lineStart++;
+            }
+            skipLineFeed = false;
+        }
+
+        for (int i = lineStart; i < to; i++) {
+            byte b = buffer.get(i);
+            if (b != '\n' && b != '\r') {
+                continue;
+            }
+
+            lineNumber++;
+            parseLine(buffer, lineStart, i);
+
+            // Treat \r\n as a single terminator, even across buffer refills
+            if (b == '\r') {
+                if (i + 1 < to) {
+                    if (buffer.get(i + 1) == '\n') {
+                        i++;
+                    }
+                } else if (!last) {
+                    skipLineFeed = true;
+                }
+            }
+            lineStart = i + 1;
+        }
+
+        if (last && lineStart < to) {
+            lineNumber++;
+            parseLine(buffer, lineStart, to);
+            lineStart = to;
+        }
+        return lineStart;
+    }
+
+    /**
+     * Set the number of lines preceding the next parsed line.
+     */
+    public void setLineNumber(int lineNumber) {
+        this.lineNumber = lineNumber;
+    }
+
+    public ParseStats getStats() {
+        return new ParseStats(rowCount, errorCount);
+    }
+
+    /**
+     * Parse a single line in {@code buffer[start, end)}, excluding the terminator.
+     */
+    private void parseLine(ByteBuffer buffer, int start, int end) {
+        // Skip header line
+        if (lineNumber == 1 && isHeaderLine(buffer, start, end)) {
+            logger.debug("Skipping header line: {}", decode(buffer, start, end));
+            return;
+        }
+
+        // Skip empty lines
+        if (isBlank(buffer, start, end)) {
+            return;
+        }
+
+        try {
+            int columns = splitFields(buffer, start, end);
+            if (columns < EXPECTED_COLUMNS) {
+                logger.warn("Line {} has insufficient columns ({}), padding", lineNumber, columns);
+                for (int i = columns; i < EXPECTED_COLUMNS; i++) {
+                    fieldStart[i] = end;
+                    fieldEnd[i] = end;
+                }
+            }
+
+            // Parse fields with safe defaults
+            int id = parseInt(buffer, 0, lineNumber);
+            String symbol = isEmptyField(1) ? "UNKNOWN" : decodeSymbol(buffer);
+            double price = parseDouble(buffer, 2, 0.0);
+            int qty = parseInt(buffer, 3, 0);
+            String status = decodeStatus(buffer);
+            String lastUpdate = isEmptyField(5)
+                    ? LocalDateTime.now().format(ISO_FORMATTER)
+                    : decodeField(buffer, 5);
+
+            sink.onRow(id, symbol, price, qty, status, lastUpdate);
+            rowCount++;
+        } catch (Exception e) {
+            logger.warn("Error parsing line {}: {} - {}", lineNumber, decode(buffer, start, end), e.getMessage());
+            errorCount++;
+        }
+    }
+
+    /**
+     * Record trimmed field boundaries for the first columns of the line.
+     * @return number of fields found (capped at the expected column count)
+     */
+    private int splitFields(ByteBuffer buffer, int start, int end) {
+        int column = 0;
+        int fieldFrom = start;
+        for (int i = start; i <= end && column < EXPECTED_COLUMNS; i++) {
+            if (i == end || buffer.get(i) == ',') {
+                int s = fieldFrom;
+                int e = i;
+                while (s < e && (buffer.get(s) & 0xFF) <= ' ') s++;
+                while (e > s && (buffer.get(e - 1) & 0xFF) <= ' ') e--;
+                fieldStart[column] = s;
+                fieldEnd[column] = e;
+                column++;
+                fieldFrom = i + 1;
+            }
+        }
+        return column;
+    }
+
+    private boolean isEmptyField(int column) {
+        return fieldStart[column] == fieldEnd[column];
+    }
+
+    private String decodeField(ByteBuffer buffer, int column) {
+        return decode(buffer, fieldStart[column], fieldEnd[column]);
+    }
+
+    private String decodeSymbol(ByteBuffer buffer) {
+        int start = fieldStart[1];
+        int end = fieldEnd[1];
+        String symbol = symbolCache.get(buffer, start, end);
+        if (symbol == null) {
+            symbol = decode(buffer, start, end);
+            symbolCache.put(buffer, start, end, symbol);
+        }
+        return symbol;
+    }
+
+    private String decodeStatus(ByteBuffer buffer) {
+        int start = fieldStart[4];
+        int end = fieldEnd[4];
+        String status = statusCache.get(buffer, start, end);
+        if (status == null) {
+            status = normalizeStatus(decode(buffer, start, end));
+            statusCache.put(buffer, start, end, status);
+        }
+        return status;
+    }
+
+    /**
+     * Parse an int column, returning the default for empty or invalid values.
+     */
+    private int parseInt(ByteBuffer buffer, int column, int defaultValue) {
+        int start = fieldStart[column];
+        int end = fieldEnd[column];
+        if (start == end) {
+            return defaultValue;
+        }
+
+        boolean negative = false;
+        int i = start;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+        if (i == end) {
+            return invalidNumber(buffer, column, "Integer", defaultValue);
+        }
+
+        long value = 0;
+        for (; i < end; i++) {
+            int digit = buffer.get(i) - '0';
+            if (digit < 0 || digit > 9) {
+                return invalidNumber(buffer, column, "Integer", defaultValue);
+            }
+            value = value * 10 + digit;
+            if (value > (long) Integer.MAX_VALUE + 1) {
+                return invalidNumber(buffer, column, "Integer", defaultValue);
+            }
+        }
+
+        value = negative ? -value : value;
+        if (value > Integer.MAX_VALUE) {
+            return invalidNumber(buffer, column, "Integer", defaultValue);
+        }
+        return (int) value;
+    }
+
+    /**
+     * Parse a double column, returning the default for empty or invalid values.
+     * Plain decimals are decoded in place; anything else (exponents, very long
+     * mantissas, NaN...) falls back to {@link Double#parseDouble(String)}.
+     */
+    private double parseDouble(ByteBuffer buffer, int column, double defaultValue) {
+        int start = fieldStart[column];
+        int end = fieldEnd[column];
+        if (start == end) {
+            return defaultValue;
+        }
+
+        boolean negative = false;
+        int i = start;
+        byte first = buffer.get(i);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            i++;
+        }
+
+        long mantissa = 0;
+        int digits = 0;
+        int fractionDigits = 0;
+        boolean seenDot = false;
+        boolean fastPath = i < end;
+
+        for (; i < end && fastPath; i++) {
+            byte b = buffer.get(i);
+            if (b >= '0' && b <= '9') {
+                mantissa = mantissa * 10 + (b - '0');
+                digits++;
+                if (seenDot) {
+                    fractionDigits++;
+                }
+                fastPath = mantissa < MAX_EXACT_MANTISSA;
+            } else if (b == '.' && !seenDot) {
+                seenDot = true;
+            } else {
+                fastPath = false;
+            }
+        }
+
+        if (fastPath && digits > 0 && fractionDigits < POW10.length) {
+            double value = mantissa / POW10[fractionDigits];
+            return negative ? -value : value;
+        }
+
+        try {
+            return Double.parseDouble(decode(buffer, start, end));
+        } catch (NumberFormatException e) {
+            return invalidNumber(buffer, column, "Double", defaultValue);
+        }
+    }
+
+    private int invalidNumber(ByteBuffer buffer, int column, String type, int defaultValue) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Invalid number '{}' for type {}", decodeField(buffer, column), type);
+        }
+        return defaultValue;
+    }
+
+    private double invalidNumber(ByteBuffer buffer, int column, String type, double defaultValue) {
+        if (logger.isDebugEnabled()) {
+            logger.debug("Invalid number '{}' for type {}", decodeField(buffer, column), type);
+        }
+        return defaultValue;
+    }
+
+    /**
+     * Normalize status value: known statuses and their aliases map to the
+     * {@link Status} name, anything else is upper-cased.
+     */
+    static String normalizeStatus(String status) {
+        if (status.isEmpty()) {
+            return Status.NORMAL.name();
+        }
+
+        Status known = Status.parse(status);
+        return known != null ? known.name() : status.toUpperCase();
+    }
+
+    /**
+     * Check if a line is a header line.
+     */
+    private boolean isHeaderLine(ByteBuffer buffer, int start, int end) {
+        var lower = decode(buffer, start, end).toLowerCase();
+        return lower.contains("id") && lower.contains("symbol");
+    }
+
+    private boolean isBlank(ByteBuffer buffer, int start, int end) {
+        for (int i = start; i < end; i++) {
+            if ((buffer.get(i) & 0xFF) > ' ') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Decode {@code buffer[start, end)} as a String.
+     * Pure ASCII takes the Latin-1 fast path; anything else is decoded as UTF-8.
+     */
+    static String decode(ByteBuffer buffer, int start, int end) {
+        int length = end - start;
+        byte[] bytes = new byte[length];
+        boolean ascii = true;
+        for (int i = 0; i < length; i++) {
+            byte b = buffer.get(start + i);
+            bytes[i] = b;
+            ascii &= b >= 0;
+        }
+        return new String(bytes, ascii ? StandardCharsets.ISO_8859_1 : StandardCharsets.UTF_8);
+    }
+
+    /**
+     * Open-addressing map from raw field bytes to the String produced for them.
+     * Bounded, so columns with mostly unique values stop being cached.
+     */
+    private static final class TextCache {
+
+        private static final int CAPACITY = 4096; // power of two
+        private static final int MAX_ENTRIES = CAPACITY / 2;
+
+        private final byte[][] keys = new byte[CAPACITY][];
+        private final String[] values = new String[CAPACITY];
+        private int size;
+
+        String get(ByteBuffer buffer, int start, int end) {
+            for (int i = hash(buffer, start, end); keys[i] != null; i = (i + 1) & (CAPACITY - 1)) {
+                if (keys[i].length == end - start && matches(keys[i], buffer, start)) {
+                    return values[i];
+                }
+            }
+            return null;
+        }
+
+        void put(ByteBuffer buffer, int start, int end, String value) {
+            if (size == MAX_ENTRIES) {
+                return;
+            }
+            byte[] key = new byte[end - start];
+            buffer.get(start, key);
+            int i = hash(buffer, start, end);
+            while (keys[i] != null) {
+                i = (i + 1) & (CAPACITY - 1);
+            }
+            keys[i] = key;
+            values[i] = value;
+            size++;
+        }
+
+        private static int hash(ByteBuffer buffer, int start, int end) {
+            int h = 1;
+            for (int i = start; i < end; i++) {
+                h = 31 * h + buffer.get(i);
+            }
+            return (h ^ (h >>> 16)) & (CAPACITY - 1);
+        }
+
+        private static boolean matches(byte[] key, ByteBuffer buffer, int start) {
+            for (int i = 0; i < key.length; i++) {
+                if (buffer.get(start + i) != key[i]) {
+                    return false;
+                }
+            }
+            return true;
+        }
+    }
+}
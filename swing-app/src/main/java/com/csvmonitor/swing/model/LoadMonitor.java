@@ -0,0 +1,104 @@
+package com.csvmonitor.swing.model;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Progress and cancellation token of one CSV load.
+ *
+ * Readers report the bytes they have parsed with {@link #advance(long)}, which
+ * also aborts the load with a {@link CancellationException} once
+ * {@link #cancel()} was called. Progress is reported to the listener about
+ * every {@value #REPORT_STEP} bytes, on the loading thread.
+ */
+public class LoadMonitor {
+
+    static final long REPORT_STEP = 1L << 20; // 1 MB
+
+    /**
+     * Receives the progress of a load.
+     * @param totalBytes size of the input, or -1 if unknown
+     */
+    @FunctionalInterface
+    public interface ProgressListener {
+        void onProgress(long bytesDone, long totalBytes);
+    }
+
+    private final ProgressListener listener;
+    private final AtomicLong bytesDone = new AtomicLong();
+    private volatile long totalBytes = -1;
+    private volatile boolean cancelled;
+
+    public LoadMonitor() {
+        this(null);
+    }
+
+    public LoadMonitor(ProgressListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Abort the load at the next progress report.
+     */
+    public void cancel() {
+        cancelled = true;
+    }
+
+    public boolean isCancelled() {
+        return cancelled;
+    }
+
+    /**
+     * @throws CancellationException if the load was cancelled
+     */
+    public void checkCancelled() {
+        if (cancelled) {
+            throw new CancellationException("Load cancelled");
+        }
+    }
+
+    void setTotalBytes(long totalBytes) {
+        this.totalBytes = totalBytes;
+    }
+
+    /**
+     * Record parsed bytes; safe to call from several loader threads.
+     * @throws CancellationException if the load was cancelled
+     */
+    void advance(long bytes) {
+        checkCancelled();
+        long done = bytesDone.addAndGet(bytes);
+        if (listener != null && (done / REPORT_STEP != (done - bytes) / REPORT_STEP || done == totalBytes)) {
+            listener.onProgress(done, totalBytes);
+        }
+    }
+
+    /**
+     * Channel reporting the bytes read through it.
+     */
+    ReadableByteChannel track(ReadableByteChannel channel) {
+        return new ReadableByteChannel() {
+            @Override
+            public int read(ByteBuffer dst) throws IOException {
+                int read = channel.read(dst);
+                if (read > 0) {
+                    advance(read);
+                }
+                return read;
+            }
+
+            @Override
+            public boolean isOpen() {
+                return channel.isOpen();
+            }
+
+            @Override
+            public void close() throws IOException {
+                channel.close();
+            }
+        };
+    }
+}
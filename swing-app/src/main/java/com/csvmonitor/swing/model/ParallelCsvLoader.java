@@ -0,0 +1,191 @@
+package com.csvmonitor.swing.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+
+/**
+ * Loads large CSV files by splitting them at line boundaries into chunks
+ * and parsing the chunks in parallel on a ForkJoinPool.
+ *
+ * Loading runs in two parallel passes:
+ * 1. count line terminators per chunk, so every chunk knows its first line number
+ * 2. parse every chunk with its own {@link CsvParser} into a chunk-local {@link RowStore}
+ *
+ * Both passes scan the file through {@link MappedCsvReader}, so chunks are read
+ * from the page cache without copying.
+ *
+ * Chunk stores are concatenated in file order, so row order, line numbers in the
+ * error log and the id-to-line-number fallback match a sequential parse.
+ */
+public class ParallelCsvLoader {
+
+    private static final Logger logger = LoggerFactory.getLogger(ParallelCsvLoader.class);
+    private static final long MIN_CHUNK_SIZE = 1L << 20; // 1 MB
+    private static final int CHUNKS_PER_THREAD = 4;
+
+    /**
+     * Rows in file order plus parse statistics.
+     */
+    public record LoadResult(RowStore store, CsvParser.ParseStats stats) {}
+
+    private final ForkJoinPool pool;
+    private final MappedCsvReader mappedReader = new MappedCsvReader();
+
+    public ParallelCsvLoader() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public ParallelCsvLoader(ForkJoinPool pool) {
+        this.pool = pool;
+    }
+
+    /**
+     * Load and parse the file in parallel.
+     */
+    public LoadResult load(Path path) throws IOException {
+        return load(path, new SymbolDictionary());
+    }
+
+    /**
+     * Load and parse the file in parallel, encoding symbols with the given dictionary.
+     * All chunks share it, so their rows are stitched without re-encoding.
+     */
+    public LoadResult load(Path path, SymbolDictionary symbols) throws IOException {
+        return load(path, symbols, new LoadMonitor());
+    }
+
+    /**
+     * Load and parse the file in parallel, reporting the parsed bytes to the monitor.
+     * @throws java.util.concurrent.CancellationException if the monitor is cancelled
+     */
+    public LoadResult load(Path path, SymbolDictionary symbols, LoadMonitor monitor) throws IOException {
+        try (var channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            long[] bounds = splitChunks(channel);
+            int chunkCount = bounds.length - 1;
+            logger.debug("Loading {} bytes in {} chunks", channel.size(), chunkCount);
+            monitor.setTotalBytes(channel.size());
+
+            // Pass 1: line counts give each chunk its starting line number
+            List<Callable<Integer>> countTasks = new ArrayList<>(chunkCount);
+            for (int i = 0; i < chunkCount; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                countTasks.add(() -> {
+                    monitor.checkCancelled();
+                    return mappedReader.countLines(channel, start, end);
+                });
+            }
+            List<Integer> lineCounts = invokeAll(countTasks);
+
+            // Pass 2: parse chunks into chunk-local stores
+            List<Callable<ChunkResult>> parseTasks = new ArrayList<>(chunkCount);
+            int firstLine = 0;
+            for (int i = 0; i < chunkCount; i++) {
+                long start = bounds[i];
+                long end = bounds[i + 1];
+                int lineOffset = firstLine;
+                parseTasks.add(() -> parseChunk(channel, start, end, lineOffset, symbols, monitor));
+                firstLine += lineCounts.get(i);
+            }
+            List<ChunkResult> chunks = invokeAll(parseTasks);
+            monitor.checkCancelled();
+
+            // Stitch results back together in file order
+            int rowCount = 0;
+            int errorCount = 0;
+            for (ChunkResult chunk : chunks) {
+                rowCount += chunk.store().size();
+                errorCount += chunk.errorCount();
+            }
+            RowStore store = new RowStore(rowCount, symbols);
+            chunks.forEach(chunk -> store.appendAll(chunk.store()));
+
+            return new LoadResult(store, new CsvParser.ParseStats(rowCount, errorCount));
+        }
+    }
+
+    private record ChunkResult(RowStore store, int errorCount) {}
+
+    private ChunkResult parseChunk(FileChannel channel, long start, long end, int lineOffset,
+                                   SymbolDictionary symbols, LoadMonitor monitor) throws IOException {
+        var store = new RowStore(symbols);
+        var parser = new CsvParser(store);
+        parser.setLineNumber(lineOffset);
+        var stats = mappedReader.parse(channel, start, end, parser, monitor);
+        return new ChunkResult(store, stats.errorCount());
+    }
+
+    /**
+     * Split the file into chunks that each end right after a '\n'.
+     * @return chunk boundaries, from 0 to the file size
+     */
+    private long[] splitChunks(FileChannel channel) throws IOException {
+        long size = channel.size();
+        long byParallelism = (long) pool.getParallelism() * CHUNKS_PER_THREAD;
+        int chunkCount = (int) Math.max(1, Math.min(byParallelism, size / MIN_CHUNK_SIZE));
+
+        long[] bounds = new long[chunkCount + 1];
+        for (int i = 1; i < chunkCount; i++) {
+            long nominal = Math.max(size * i / chunkCount, bounds[i - 1]);
+            bounds[i] = nextLineStart(channel, nominal, size);
+        }
+        bounds[chunkCount] = size;
+        return bounds;
+    }
+
+    /**
+     * Find the first position after a '\n' at or after {@code from}.
+     */
+    private long nextLineStart(FileChannel channel, long from, long size) throws IOException {
+        ByteBuffer buffer = ByteBuffer.allocate(4096);
+        long position = from;
+        while (position < size) {
+            buffer.clear();
+            int read = channel.read(buffer, position);
+            if (read <= 0) {
+                break;
+            }
+            for (int i = 0; i < read; i++) {
+                if (buffer.get(i) == '\n') {
+                    return position + i + 1;
+                }
+            }
+            position += read;
+        }
+        return size;
+    }
+
+    private <R> List<R> invokeAll(List<Callable<R>> tasks) throws IOException {
+        List<R> results = new ArrayList<>(tasks.size());
+        try {
+            for (Future<R> future : pool.invokeAll(tasks)) {
+                results.add(future.get());
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while loading CSV", e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof IOException io) {
+                throw io;
+            }
+            if (e.getCause() instanceof CancellationException cancelled) {
+                throw cancelled;
+            }
+            throw new IOException("Failed to load CSV chunk", e.getCause());
+        }
+        return results;
+    }
+}
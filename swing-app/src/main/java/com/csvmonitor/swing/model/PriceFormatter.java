@@ -0,0 +1,212 @@
+package com.csvmonitor.swing.model;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+
+/**
+ * Fixed-point decimal formatting of prices into a reusable char buffer.
+ *
+ * {@link #format(double)} writes the digits without allocating; callers read
+ * them from {@link #chars()} or take parts of them by index. The price column
+ * shows a price as a prefix (integer part and first two decimals), an
+ * emphasis (the next two decimals) and a suffix (the rest), split at
+ * {@link #emphasisStart()} and {@link #emphasisEnd()}.
+ *
+ * Rounds half up like {@code String.format("%.5f")}: values within a few ulps
+ * of a rounding tie are rounded exactly from their decimal representation,
+ * the only case that allocates. NaN, infinities and values too large to
+ * scale into a long fall back to {@link Double#toString(double)}.
+ * Not thread-safe: use one instance per thread.
+ */
+public final class PriceFormatter {
+
+    public static final int DEFAULT_DECIMALS = 5;
+    public static final int MAX_DECIMALS = 9;
+
+    // Decimals before and within the emphasized part
+    private static final int EMPHASIS_OFFSET = 2;
+    private static final int EMPHASIS_LENGTH = 2;
+
+    // Distance from a tie, in ulps of the scaled value, below which rounding is done exactly
+    private static final int TIE_ULPS = 16;
+
+    private static final long[] POWERS_OF_TEN = new long[MAX_DECIMALS + 1];
+    // Shared strings of one and two digits, so digit parts never allocate
+    private static final String[] ONE_DIGIT = new String[10];
+    private static final String[] TWO_DIGITS = new String[100];
+
+    static {
+        POWERS_OF_TEN[0] = 1;
+        for (int i = 1; i < POWERS_OF_TEN.length; i++) {
+            POWERS_OF_TEN[i] = POWERS_OF_TEN[i - 1] * 10;
+        }
+        for (int i = 0; i < ONE_DIGIT.length; i++) {
+            ONE_DIGIT[i] = String.valueOf((char) ('0' + i));
+        }
+        for (int i = 0; i < TWO_DIGITS.length; i++) {
+            TWO_DIGITS[i] = new String(new char[]{(char) ('0' + i / 10), (char) ('0' + i % 10)});
+        }
+    }
+
+    private final int decimals;
+    private final long scale;
+    private final double maxValue;
+
+    // Sign, up to 19 digits, the dot; large enough for the Double.toString fallback too
+    private final char[] buffer = new char[32];
+    private int length;
+    private int dot = -1;
+
+    public PriceFormatter() {
+        this(DEFAULT_DECIMALS);
+    }
+
+    public PriceFormatter(int decimals) {
+        if (decimals < 0 || decimals > MAX_DECIMALS) {
+            throw new IllegalArgumentException("decimals must be between 0 and " + MAX_DECIMALS);
+        }
+        this.decimals = decimals;
+        this.scale = POWERS_OF_TEN[decimals];
+        this.maxValue = (double) Long.MAX_VALUE / scale / 2;
+    }
+
+    /**
+     * Format a value into the buffer, replacing the previous one.
+     */
+    public PriceFormatter format(double value) {
+        if (!(Math.abs(value) < maxValue)) {
+            String text = Double.toString(value);
+            text.getChars(0, text.length(), buffer, 0);
+            length = text.length();
+            dot = text.indexOf('.');
+            return this;
+        }
+
+        long scaled = round(Math.abs(value));
+        // Write digits backwards from the end of the buffer, then move them to the front
+        int pos = buffer.length;
+        for (int i = 0; i < decimals; i++) {
+            buffer[--pos] = (char) ('0' + scaled % 10);
+            scaled /= 10;
+        }
+        int dotPos = -1;
+        if (decimals > 0) {
+            dotPos = --pos;
+            buffer[dotPos] = '.';
+        }
+        do {
+            buffer[--pos] = (char) ('0' + scaled % 10);
+            scaled /= 10;
+        } while (scaled > 0);
+        if (value < 0 && !isZero(pos)) {
+            buffer[--pos] = '-';
+        }
+
+        length = buffer.length - pos;
+        dot = dotPos < 0 ? -1 : dotPos - pos;
+        System.arraycopy(buffer, pos, buffer, 0, length);
+        return this;
+    }
+
+    /**
+     * Buffer holding the last formatted value in {@code [0, length())}; overwritten by the next format.
+     */
+    public char[] chars() {
+        return buffer;
+    }
+
+    public int length() {
+        return length;
+    }
+
+    /**
+     * Position of the decimal point, or -1 if there is none.
+     */
+    public int dotIndex() {
+        return dot;
+    }
+
+    /**
+     * Start of the emphasized decimals; {@link #length()} if there are none.
+     */
+    public int emphasisStart() {
+        return dot < 0 ? length : Math.min(dot + 1 + EMPHASIS_OFFSET, length);
+    }
+
+    /**
+     * End (exclusive) of the emphasized decimals.
+     */
+    public int emphasisEnd() {
+        return Math.min(emphasisStart() + EMPHASIS_LENGTH, length);
+    }
+
+    /**
+     * Whether the characters in {@code [from, to)} equal a text.
+     */
+    public boolean regionEquals(int from, int to, CharSequence text) {
+        if (text == null || text.length() != to - from) {
+            return false;
+        }
+        for (int i = from; i < to; i++) {
+            if (buffer[i] != text.charAt(i - from)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * The characters in {@code [from, to)} as a string. Returns {@code previous}
+     * if it already holds them and a shared string for one or two digits, so
+     * only other parts that changed allocate.
+     */
+    public String text(int from, int to, String previous) {
+        if (regionEquals(from, to, previous)) {
+            return previous;
+        }
+        int count = to - from;
+        if (count == 1 && isDigit(buffer[from])) {
+            return ONE_DIGIT[buffer[from] - '0'];
+        }
+        if (count == 2 && isDigit(buffer[from]) && isDigit(buffer[from + 1])) {
+            return TWO_DIGITS[(buffer[from] - '0') * 10 + buffer[from + 1] - '0'];
+        }
+        return new String(buffer, from, count);
+    }
+
+    /**
+     * Append the characters in {@code [from, to)}.
+     */
+    public StringBuilder appendTo(StringBuilder builder, int from, int to) {
+        return builder.append(buffer, from, to - from);
+    }
+
+    @Override
+    public String toString() {
+        return new String(buffer, 0, length);
+    }
+
+    // Scaled and rounded half up; a product near a tie may be off by the error of the multiplication
+    private long round(double value) {
+        double scaledValue = value * scale;
+        double floor = Math.floor(scaledValue);
+        if (Math.abs(scaledValue - floor - 0.5) > Math.ulp(scaledValue) * TIE_ULPS) {
+            return (long) floor + (scaledValue - floor > 0.5 ? 1 : 0);
+        }
+        return new BigDecimal(Double.toString(value)).setScale(decimals, RoundingMode.HALF_UP).unscaledValue().longValue();
+    }
+
+    // Whether the digits written from pos on are all zero (no "-0.00")
+    private boolean isZero(int pos) {
+        for (int i = pos; i < buffer.length; i++) {
+            if (buffer[i] != '0' && buffer[i] != '.') {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+}
@@ -2,160 +2,168 @@ package com.csvmonitor.swing.model;
 
 import java.beans.PropertyChangeListener;
 import java.beans.PropertyChangeSupport;
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
 
 /**
  * Model class representing a single row in the CSV table.
  * Uses PropertyChangeSupport for change notifications (Swing's equivalent of JavaFX Properties).
- * 
+ *
  * Key features:
- * - All fields support property change events for real-time UI updates
+ * - Thin view over one row of a {@link RowStore}; the store holds the values
+ * - Property change events are fired by the store on every write; the
+ *   PropertyChangeSupport is only created once a listener is added
  * - Tracks previous price for up/down styling
  * - Supports edit locking mechanism (5 seconds after manual edit)
  */
 public class RowData {
-    
-    private static final DateTimeFormatter ISO_FORMATTER = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
-    private static final long LOCK_DURATION_MS = 5000;
-    
-    private final PropertyChangeSupport pcs = new PropertyChangeSupport(this);
-    
-    private int id;
-    private String symbol;
-    private double price;
-    private double previousPrice;
-    private int qty;
-    private String status;
-    private String lastUpdate;
-    private long editLockUntil;
-    private long lastPriceChangeAt;
-    
+
+    private final RowStore store;
+    private final int index;
+
+    private PropertyChangeSupport pcs;
+
+    RowData(RowStore store, int index) {
+        this.store = store;
+        this.index = index;
+    }
+
+    /**
+     * Create an empty detached row backed by its own single-row store.
+     */
     public RowData() {
+        this(0, null, 0, 0, null, null);
     }
-    
+
+    /**
+     * Create a detached row backed by its own single-row store.
+     */
     public RowData(int id, String symbol, double price, int qty, String status, String lastUpdate) {
-        this.id = id;
-        this.symbol = symbol;
-        this.price = price;
-        this.previousPrice = price;
-        this.qty = qty;
-        this.status = status;
-        this.lastUpdate = lastUpdate;
-    }
-    
+        this(new RowStore(1), 0);
+        store.append(id, symbol, price, qty, status, lastUpdate);
+        store.attachView(this);
+    }
+
+    /**
+     * Index of this row in its store.
+     */
+    public int getIndex() { return index; }
+
     // Property change support
     public void addPropertyChangeListener(PropertyChangeListener listener) {
+        if (pcs == null) {
+            pcs = new PropertyChangeSupport(this);
+        }
         pcs.addPropertyChangeListener(listener);
     }
-    
+
     public void removePropertyChangeListener(PropertyChangeListener listener) {
-        pcs.removePropertyChangeListener(listener);
+        if (pcs != null) {
+            pcs.removePropertyChangeListener(listener);
+        }
     }
-    
+
     // ID property
-    public int getId() { return id; }
-    public void setId(int value) {
-        int oldValue = this.id;
-        this.id = value;
-        pcs.firePropertyChange("id", oldValue, value);
-    }
-    
+    public int getId() { return store.getId(index); }
+    public void setId(int value) { store.setId(index, value); }
+
     // Symbol property
-    public String getSymbol() { return symbol; }
-    public void setSymbol(String value) {
-        String oldValue = this.symbol;
-        this.symbol = value;
-        pcs.firePropertyChange("symbol", oldValue, value);
-    }
-    
-    // Price property with previous price tracking
-    public double getPrice() { return price; }
-    public void setPrice(double value) {
-        double oldValue = this.price;
-        this.previousPrice = this.price;
-        this.price = value;
-        if (Double.compare(oldValue, value) != 0) {
-            lastPriceChangeAt = System.currentTimeMillis();
-        }
-        pcs.firePropertyChange("price", oldValue, value);
-    }
-    
+    public String getSymbol() { return store.getSymbol(index); }
+    public void setSymbol(String value) { store.setSymbol(index, value); }
+
+    // Price property with previous price tracking (done by the store)
+    public double getPrice() { return store.getPrice(index); }
+    public void setPrice(double value) { store.setPrice(index, value); }
+
     // Previous price for tracking changes
-    public double getPreviousPrice() { return previousPrice; }
-    public void setPreviousPrice(double value) { previousPrice = value; }
+    public double getPreviousPrice() { return store.getPreviousPrice(index); }
+    public void setPreviousPrice(double value) { store.setPreviousPrice(index, value); }
+
+    public long getLastPriceChangeAt() { return store.getLastPriceChangeAt(index); }
 
-    public long getLastPriceChangeAt() { return lastPriceChangeAt; }
-    
     // Qty property
-    public int getQty() { return qty; }
-    public void setQty(int value) {
-        int oldValue = this.qty;
-        this.qty = value;
-        pcs.firePropertyChange("qty", oldValue, value);
-    }
-    
+    public int getQty() { return store.getQty(index); }
+    public void setQty(int value) { store.setQty(index, value); }
+
     // Status property
-    public String getStatus() { return status; }
-    public void setStatus(String value) {
-        String oldValue = this.status;
-        this.status = value;
-        pcs.firePropertyChange("status", oldValue, value);
-    }
-    
+    public String getStatus() { return store.getStatus(index); }
+    public void setStatus(String value) { store.setStatus(index, value); }
+
+    /**
+     * Get the known status of this row (aliases resolved), or null for other values.
+     */
+    public Status getKnownStatus() { return store.getKnownStatus(index); }
+
     // LastUpdate property
-    public String getLastUpdate() { return lastUpdate; }
-    public void setLastUpdate(String value) {
-        String oldValue = this.lastUpdate;
-        this.lastUpdate = value;
-        pcs.firePropertyChange("lastUpdate", oldValue, value);
-    }
-    
+    public String getLastUpdate() { return store.getLastUpdate(index); }
+    public void setLastUpdate(String value) { store.setLastUpdate(index, value); }
+
     // Edit lock mechanism
-    public long getEditLockUntil() { return editLockUntil; }
-    public void setEditLockUntil(long value) { editLockUntil = value; }
-    
+    public long getEditLockUntil() { return store.getEditLockUntil(index); }
+    public void setEditLockUntil(long value) { store.setEditLockUntil(index, value); }
+
+    // Called by the store after a column of this row was written
+    void fireIdChanged(int oldValue, int value) {
+        if (pcs != null) pcs.firePropertyChange("id", oldValue, value);
+    }
+
+    void fireSymbolChanged(String oldValue, String value) {
+        if (pcs != null) pcs.firePropertyChange("symbol", oldValue, value);
+    }
+
+    void firePriceChanged(double oldValue, double value) {
+        if (pcs != null) pcs.firePropertyChange("price", oldValue, value);
+    }
+
+    void fireQtyChanged(int oldValue, int value) {
+        if (pcs != null) pcs.firePropertyChange("qty", oldValue, value);
+    }
+
+    void fireStatusChanged(String oldValue, String value) {
+        if (pcs != null) pcs.firePropertyChange("status", oldValue, value);
+    }
+
+    void fireLastUpdateChanged(String oldValue, String value) {
+        if (pcs != null) pcs.firePropertyChange("lastUpdate", oldValue, value);
+    }
+
     /**
      * Lock this row from automatic updates for 5 seconds.
      */
     public void lockForEdit() {
-        setEditLockUntil(System.currentTimeMillis() + LOCK_DURATION_MS);
+        store.lockForEdit(index);
     }
-    
+
     /**
      * Unlock this row immediately.
      */
     public void unlock() {
-        setEditLockUntil(0);
+        store.unlock(index);
     }
-    
+
     /**
      * Check if this row is currently locked.
      */
     public boolean isLocked() {
-        return System.currentTimeMillis() < editLockUntil;
+        return store.isLocked(index);
     }
-    
+
     /**
      * Get price change direction.
      * @return 1 for up, -1 for down, 0 for no change
      */
     public int getPriceDirection() {
-        if (price > previousPrice) return 1;
-        if (price < previousPrice) return -1;
-        return 0;
+        return store.getPriceDirection(index);
     }
-    
+
     /**
      * Update the lastUpdate timestamp to current time.
      */
     public void updateTimestamp() {
-        setLastUpdate(LocalDateTime.now().format(ISO_FORMATTER));
+        store.updateTimestamp(index);
     }
-    
+
     @Override
     public String toString() {
         return String.format("RowData{id=%d, symbol='%s', price=%.2f, qty=%d, status='%s'}",
-                id, symbol, price, qty, status);
+                getId(), getSymbol(), getPrice(), getQty(), getStatus());
     }
 }
@@ -0,0 +1,367 @@
+package com.csvmonitor.swing.model;
+
+import java.util.Arrays;
+import java.util.function.IntConsumer;
+
+/**
+ * Rows ordered by a double key (ties by row), kept sorted as keys change.
+ *
+ * Entries are stored in a list of sorted blocks of primitive arrays: an
+ * update removes and inserts one entry within a block of at most
+ * {@value #MAX_BLOCK_SIZE} entries, so it costs a binary search and a short
+ * array copy; only a block split allocates. Range, rank and top-N queries touch only
+ * the entries they return, plus a binary search over the block start positions,
+ * which are recomputed on the first query after a change.
+ *
+ * Keys are compared as doubles, with NaN above positive infinity.
+ * Not thread-safe: updated and queried on the thread writing the store.
+ */
+public class SortedRowIndex {
+
+    static final int BLOCK_SIZE = 512;
+    static final int MAX_BLOCK_SIZE = BLOCK_SIZE * 2;
+
+    // Blocks of sortable key bits and rows, sorted by (key, row)
+    private long[][] keys;
+    private int[][] rows;
+    private int[] blockSizes;
+    private int blockCount;
+    private int size;
+    // Position of the first entry of each block, valid until the next change
+    private int[] blockStarts = new int[0];
+    private boolean startsValid;
+
+    /**
+     * Index rows {@code 0..count-1} by their keys.
+     */
+    public SortedRowIndex(double[] keyByRow, int count) {
+        this(keyByRow, null, count);
+    }
+
+    /**
+     * Index the first {@code count} rows of {@code rowList}, in increasing
+     * order, by their keys; a null list stands for rows {@code 0..count-1}.
+     */
+    public SortedRowIndex(double[] keyByRow, int[] rowList, int count) {
+        // Sort the keys, then place rows by increasing row number, so ties stay ordered by row
+        long[] sorted = new long[count];
+        for (int i = 0; i < count; i++) {
+            sorted[i] = sortable(keyByRow[rowList == null ? i : rowList[i]]);
+        }
+        Arrays.sort(sorted);
+        int[] sortedRows = new int[count];
+        int[] taken = new int[count];
+        for (int i = 0; i < count; i++) {
+            int row = rowList == null ? i : rowList[i];
+            int first = lowerBound(sorted, count, sortable(keyByRow[row]));
+            sortedRows[first + taken[first]++] = row;
+        }
+
+        blockCount = Math.max(1, (count + BLOCK_SIZE - 1) / BLOCK_SIZE);
+        keys = new long[blockCount][];
+        rows = new int[blockCount][];
+        blockSizes = new int[blockCount];
+        for (int b = 0; b < blockCount; b++) {
+            int from = b * BLOCK_SIZE;
+            int length = Math.min(BLOCK_SIZE, count - from);
+            keys[b] = new long[MAX_BLOCK_SIZE];
+            rows[b] = new int[MAX_BLOCK_SIZE];
+            if (length > 0) {
+                System.arraycopy(sorted, from, keys[b], 0, length);
+                System.arraycopy(sortedRows, from, rows[b], 0, length);
+                blockSizes[b] = length;
+            }
+        }
+        size = count;
+    }
+
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Move a row from its old key to a new one.
+     */
+    public void update(int row, double oldKey, double newKey) {
+        long oldBits = sortable(oldKey);
+        long newBits = sortable(newKey);
+        if (oldBits != newBits) {
+            remove(oldBits, row);
+            insert(newBits, row);
+        }
+    }
+
+    /**
+     * Add a row that is not indexed yet.
+     */
+    public void add(int row, double key) {
+        insert(sortable(key), row);
+    }
+
+    /**
+     * Remove a row indexed with the given key.
+     * @throws IllegalStateException if the row is not indexed with that key
+     */
+    public void remove(int row, double key) {
+        remove(sortable(key), row);
+    }
+
+    /**
+     * Position in key order of a row indexed with the given key.
+     */
+    public int indexOf(int row, double key) {
+        return rankOf(sortable(key), row);
+    }
+
+    /**
+     * Number of rows with a key in {@code [low, high]}.
+     */
+    public int count(double low, double high) {
+        return Math.max(0, rankAbove(sortable(high)) - rankOf(sortable(low), Integer.MIN_VALUE));
+    }
+
+    /**
+     * Visit the rows with a key in {@code [low, high]}, in key order.
+     */
+    public void forEach(double low, double high, IntConsumer action) {
+        long highBits = sortable(high);
+        int b = findBlock(sortable(low), Integer.MIN_VALUE);
+        int i = blockSearch(b, sortable(low), Integer.MIN_VALUE);
+        for (; b < blockCount; b++, i = 0) {
+            for (; i < blockSizes[b]; i++) {
+                if (keys[b][i] > highBits) {
+                    return;
+                }
+                action.accept(rows[b][i]);
+            }
+        }
+    }
+
+    /**
+     * Row at a position in key order, 0 being the lowest key.
+     */
+    public int rowAt(int rank) {
+        int b = blockOf(rank);
+        return rows[b][rank - startOf(b)];
+    }
+
+    /**
+     * Key at a position in key order.
+     */
+    public double keyAt(int rank) {
+        int b = blockOf(rank);
+        return fromSortable(keys[b][rank - startOf(b)]);
+    }
+
+    /**
+     * Up to n rows with the lowest keys, lowest first.
+     */
+    public int[] lowest(int n) {
+        int[] result = new int[Math.min(Math.max(n, 0), size)];
+        int filled = 0;
+        for (int b = 0; b < blockCount && filled < result.length; b++) {
+            int length = Math.min(blockSizes[b], result.length - filled);
+            System.arraycopy(rows[b], 0, result, filled, length);
+            filled += length;
+        }
+        return result;
+    }
+
+    /**
+     * Up to n rows with the highest keys, highest first.
+     */
+    public int[] highest(int n) {
+        int[] result = new int[Math.min(Math.max(n, 0), size)];
+        int filled = 0;
+        for (int b = blockCount - 1; b >= 0 && filled < result.length; b--) {
+            for (int i = blockSizes[b] - 1; i >= 0 && filled < result.length; i--) {
+                result[filled++] = rows[b][i];
+            }
+        }
+        return result;
+    }
+
+    /**
+     * Key below which {@code percent} percent of the rows lie (nearest rank), or NaN if empty.
+     */
+    public double percentile(double percent) {
+        if (size == 0) {
+            return Double.NaN;
+        }
+        int rank = (int) Math.ceil(Math.min(Math.max(percent, 0), 100) / 100 * size) - 1;
+        return keyAt(Math.max(rank, 0));
+    }
+
+    // ==================== Blocks ====================
+
+    private void insert(long key, int row) {
+        int b = findBlock(key, row);
+        int i = blockSearch(b, key, row);
+        int length = blockSizes[b];
+        System.arraycopy(keys[b], i, keys[b], i + 1, length - i);
+        System.arraycopy(rows[b], i, rows[b], i + 1, length - i);
+        keys[b][i] = key;
+        rows[b][i] = row;
+        blockSizes[b]++;
+        size++;
+        startsValid = false;
+        if (blockSizes[b] == MAX_BLOCK_SIZE) {
+            split(b);
+        }
+    }
+
+    private void remove(long key, int row) {
+        int b = findBlock(key, row);
+        int i = blockSearch(b, key, row);
+        if (i == blockSizes[b] || keys[b][i] != key || rows[b][i] != row) {
+            throw new IllegalStateException("Row " + row + " is not indexed at " + fromSortable(key));
+        }
+        int length = blockSizes[b];
+        System.arraycopy(keys[b], i + 1, keys[b], i, length - i - 1);
+        System.arraycopy(rows[b], i + 1, rows[b], i, length - i - 1);
+        blockSizes[b]--;
+        size--;
+        startsValid = false;
+        if (blockSizes[b] == 0 && blockCount > 1) {
+            removeBlock(b);
+        }
+    }
+
+    private void split(int b) {
+        if (blockCount == keys.length) {
+            keys = Arrays.copyOf(keys, blockCount * 2);
+            rows = Arrays.copyOf(rows, blockCount * 2);
+            blockSizes = Arrays.copyOf(blockSizes, blockCount * 2);
+        }
+        System.arraycopy(keys, b + 1, keys, b + 2, blockCount - b - 1);
+        System.arraycopy(rows, b + 1, rows, b + 2, blockCount - b - 1);
+        System.arraycopy(blockSizes, b + 1, blockSizes, b + 2, blockCount - b - 1);
+        keys[b + 1] = new long[MAX_BLOCK_SIZE];
+        rows[b + 1] = new int[MAX_BLOCK_SIZE];
+        System.arraycopy(keys[b], BLOCK_SIZE, keys[b + 1], 0, BLOCK_SIZE);
+        System.arraycopy(rows[b], BLOCK_SIZE, rows[b + 1], 0, BLOCK_SIZE);
+        blockSizes[b] = BLOCK_SIZE;
+        blockSizes[b + 1] = BLOCK_SIZE;
+        blockCount++;
+    }
+
+    private void removeBlock(int b) {
+        System.arraycopy(keys, b + 1, keys, b, blockCount - b - 1);
+        System.arraycopy(rows, b + 1, rows, b, blockCount - b - 1);
+        System.arraycopy(blockSizes, b + 1, blockSizes, b, blockCount - b - 1);
+        blockCount--;
+        keys[blockCount] = null;
+        rows[blockCount] = null;
+    }
+
+    // First block whose last entry is not below (key, row), or the last block
+    private int findBlock(long key, int row) {
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int last = blockSizes[mid] - 1;
+            if (last >= 0 && compare(keys[mid][last], rows[mid][last], key, row) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // First position in a block not below (key, row)
+    private int blockSearch(int b, long key, int row) {
+        int low = 0;
+        int high = blockSizes[b];
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (compare(keys[b][mid], rows[b][mid], key, row) < 0) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // Number of entries below (key, row)
+    private int rankOf(long key, int row) {
+        int b = findBlock(key, row);
+        return startOf(b) + blockSearch(b, key, row);
+    }
+
+    // Number of entries with a key not above the given one
+    private int rankAbove(long key) {
+        return key == Long.MAX_VALUE ? size : rankOf(key + 1, Integer.MIN_VALUE);
+    }
+
+    private int startOf(int block) {
+        return blockStarts()[block];
+    }
+
+    // Last block starting at or before the rank
+    private int blockOf(int rank) {
+        if (rank < 0 || rank >= size) {
+            throw new IndexOutOfBoundsException("rank " + rank + " out of " + size);
+        }
+        int[] starts = blockStarts();
+        int low = 0;
+        int high = blockCount - 1;
+        while (low < high) {
+            int mid = (low + high + 1) >>> 1;
+            if (starts[mid] <= rank) {
+                low = mid;
+            } else {
+                high = mid - 1;
+            }
+        }
+        return low;
+    }
+
+    private int[] blockStarts() {
+        if (!startsValid) {
+            if (blockStarts.length < blockCount) {
+                blockStarts = new int[keys.length];
+            }
+            int start = 0;
+            for (int b = 0; b < blockCount; b++) {
+                blockStarts[b] = start;
+                start += blockSizes[b];
+            }
+            startsValid = true;
+        }
+        return blockStarts;
+    }
+
+    private static int compare(long key1, int row1, long key2, int row2) {
+        int byKey = Long.compare(key1, key2);
+        return byKey != 0 ? byKey : Integer.compare(row1, row2);
+    }
+
+    private static int lowerBound(long[] sorted, int count, long key) {
+        int low = 0;
+        int high = count;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            if (sorted[mid] < key) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+
+    // ==================== Key Encoding ====================
+
+    // Double bits reordered so that signed long order matches double order
+    static long sortable(double value) {
+        long bits = Double.doubleToLongBits(value);
+        return bits ^ ((bits >> 63) & Long.MAX_VALUE);
+    }
+
+    static double fromSortable(long sortable) {
+        return Double.longBitsToDouble(sortable ^ ((sortable >> 63) & Long.MAX_VALUE));
+    }
+}
@@ -0,0 +1,264 @@
+package com.csvmonitor.swing.model;
+
+import java.util.Arrays;
+import java.util.BitSet;
+
+/**
+ * A set of rows kept in the order of a changing key, for a sorted table.
+ *
+ * The rows are sorted once, then kept ordered in a {@link SortedRowIndex}:
+ * when the key of a row changes, the row alone is removed and inserted again
+ * at the position found by binary search, and the listener is told where it
+ * moved, instead of sorting all rows again. A batch changing more than
+ * 1/{@value #REBUILD_FRACTION} of the rows is applied with one sort, which is
+ * cheaper than that many moves.
+ *
+ * While frozen, rows whose key changed keep their position; they are moved
+ * when the order is unfrozen, so rows the user is pointing at or has selected
+ * stay in place.
+ *
+ * Rows with the same key are in row order, reversed when descending.
+ * Not thread-safe: may be built on any thread, then used on one thread only.
+ */
+public class SortedRowOrder {
+
+    static final int REBUILD_FRACTION = 16;
+
+    /**
+     * Current sort key of a row.
+     */
+    @FunctionalInterface
+    public interface RowKey {
+        double key(int row);
+    }
+
+    /**
+     * Receives changes of the order.
+     */
+    public interface OrderListener {
+
+        /**
+         * A row moved; the rows between both positions shifted by one.
+         * @param from position before the move
+         * @param to position after the move
+         */
+        void onMoved(int row, int from, int to);
+
+        /**
+         * Many rows moved at once.
+         * @param oldRows row at each position before
+         */
+        void onReordered(int[] oldRows);
+    }
+
+    private final RowKey rowKey;
+    private final boolean ascending;
+    // Key of each row as indexed, which may lag the current key while frozen
+    private double[] keys = new double[0];
+    private final BitSet present = new BitSet();
+    private final BitSet pending = new BitSet();
+    private SortedRowIndex index;
+    private boolean frozen;
+    private OrderListener listener;
+
+    /**
+     * Order the first {@code count} rows of {@code rows}, in increasing
+     * order; a null array stands for rows {@code 0..count-1}.
+     */
+    public SortedRowOrder(RowKey rowKey, boolean ascending, int[] rows, int count) {
+        this.rowKey = rowKey;
+        this.ascending = ascending;
+        for (int i = 0; i < count; i++) {
+            present.set(rows == null ? i : rows[i]);
+        }
+        rebuild();
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    public int size() {
+        return index.size();
+    }
+
+    public boolean contains(int row) {
+        return present.get(row);
+    }
+
+    /**
+     * Set the listener told about moved rows, or null.
+     */
+    public void setListener(OrderListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Row at a position of the order.
+     */
+    public int rowAt(int position) {
+        return index.rowAt(ascending ? position : index.size() - 1 - position);
+    }
+
+    /**
+     * Position of a row in the order, or -1 if it is not part of it.
+     */
+    public int positionOf(int row) {
+        if (!present.get(row)) {
+            return -1;
+        }
+        int rank = index.indexOf(row, keys[row]);
+        return ascending ? rank : index.size() - 1 - rank;
+    }
+
+    /**
+     * Add a row at the position of its current key, even while frozen.
+     * @return the position of the row
+     */
+    public int add(int row) {
+        if (row >= keys.length) {
+            keys = Arrays.copyOf(keys, Math.max(row + 1, keys.length * 2));
+        }
+        keys[row] = rowKey.key(row);
+        index.add(row, keys[row]);
+        present.set(row);
+        return positionOf(row);
+    }
+
+    /**
+     * Remove a row, even while frozen.
+     * @return the position the row had
+     */
+    public int remove(int row) {
+        int position = positionOf(row);
+        index.remove(row, keys[row]);
+        present.clear(row);
+        pending.clear(row);
+        return position;
+    }
+
+    /**
+     * Move a row after its key changed, or later if the order is frozen.
+     */
+    public void rowChanged(int row) {
+        if (!present.get(row)) {
+            return;
+        }
+        double key = rowKey.key(row);
+        if (sameKey(key, keys[row])) {
+            return;
+        }
+        if (frozen) {
+            pending.set(row);
+        } else {
+            move(row, key);
+        }
+    }
+
+    /**
+     * Move the given rows after their keys changed: one by one, or with one
+     * sort if they are many.
+     */
+    public void rowsChanged(int[] rows, int count) {
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (present.get(row) && !sameKey(rowKey.key(row), keys[row])) {
+                pending.set(row);
+            }
+        }
+        if (!frozen) {
+            applyPending();
+        }
+    }
+
+    /**
+     * Check the key of every row, for keys changed without notice.
+     */
+    public void refresh() {
+        for (int row = present.nextSetBit(0); row >= 0; row = present.nextSetBit(row + 1)) {
+            if (!sameKey(rowKey.key(row), keys[row])) {
+                pending.set(row);
+            }
+        }
+        if (!frozen) {
+            applyPending();
+        }
+    }
+
+    public boolean isFrozen() {
+        return frozen;
+    }
+
+    /**
+     * Keep the rows in place while frozen; unfreezing moves the rows whose key changed meanwhile.
+     */
+    public void setFrozen(boolean frozen) {
+        this.frozen = frozen;
+        if (!frozen) {
+            applyPending();
+        }
+    }
+
+    private void applyPending() {
+        int count = pending.cardinality();
+        if (count == 0) {
+            return;
+        }
+        if (count > index.size() / REBUILD_FRACTION) {
+            int[] oldRows = listener != null ? index.lowest(index.size()) : null;
+            if (oldRows != null && !ascending) {
+                reverse(oldRows);
+            }
+            rebuild();
+            if (listener != null) {
+                listener.onReordered(oldRows);
+            }
+            return;
+        }
+        for (int row = pending.nextSetBit(0); row >= 0; row = pending.nextSetBit(row + 1)) {
+            move(row, rowKey.key(row));
+        }
+        pending.clear();
+    }
+
+    private void move(int row, double key) {
+        int from = positionOf(row);
+        index.remove(row, keys[row]);
+        keys[row] = key;
+        index.add(row, key);
+        int to = positionOf(row);
+        if (from != to && listener != null) {
+            listener.onMoved(row, from, to);
+        }
+    }
+
+    private void rebuild() {
+        int count = present.cardinality();
+        int[] rows = new int[count];
+        int i = 0;
+        for (int row = present.nextSetBit(0); row >= 0; row = present.nextSetBit(row + 1)) {
+            rows[i++] = row;
+        }
+        int capacity = count == 0 ? 0 : rows[count - 1] + 1;
+        if (keys.length < capacity) {
+            keys = Arrays.copyOf(keys, capacity);
+        }
+        for (int row : rows) {
+            keys[row] = rowKey.key(row);
+        }
+        index = new SortedRowIndex(keys, rows, count);
+        pending.clear();
+    }
+
+    private static void reverse(int[] rows) {
+        for (int i = 0, j = rows.length - 1; i < j; i++, j--) {
+            int row = rows[i];
+            rows[i] = rows[j];
+            rows[j] = row;
+        }
+    }
+
+    private static boolean sameKey(double a, double b) {
+        return Double.doubleToLongBits(a) == Double.doubleToLongBits(b);
+    }
+}
@@ -0,0 +1,39 @@
+package com.csvmonitor.swing.model;
+
+/**
+ * Known row statuses.
+ *
+ * The ordinal doubles as the status code stored by {@link RowStore}, so
+ * lookups such as colors or style classes can be plain array accesses.
+ * Values outside this set are still kept verbatim by the store.
+ */
+public enum Status {
+    ALERT, NORMAL, PENDING, ACTIVE, CLOSED;
+
+    private static final Status[] VALUES = values();
+
+    /**
+     * Get the status for a code, or null if the code is not a known status.
+     */
+    public static Status fromCode(int code) {
+        return code >= 0 && code < VALUES.length ? VALUES[code] : null;
+    }
+
+    /**
+     * Map a status value or one of its aliases (any case) to a known status.
+     * @return the status, or null if the value is not recognized
+     */
+    public static Status parse(String value) {
+        if (value == null) {
+            return null;
+        }
+        return switch (value.toUpperCase()) {
+            case "ALERT", "WARN", "WARNING" -> ALERT;
+            case "NORMAL", "OK", "GOOD" -> NORMAL;
+            case "PENDING", "WAIT", "WAITING" -> PENDING;
+            case "ACTIVE", "RUNNING", "LIVE" -> ACTIVE;
+            case "CLOSED", "DONE", "COMPLETE", "FINISHED" -> CLOSED;
+            default -> null;
+        };
+    }
+}
@@ -0,0 +1,134 @@
+package com.csvmonitor.swing.model;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Chain of stages consuming a {@link TickRingBuffer}.
+ *
+ * Each stage runs on its own thread and processes a slot only after the
+ * previous stage is done with it (the previous stage's sequence acts as its
+ * barrier); the first stage waits for published slots. The last stage gates
+ * the producers. Stages see ticks in batches: everything available when they
+ * wake up, with {@code endOfBatch} set on the last one. Idle stages block
+ * (see {@link TickRingBuffer#waitFor}) until a producer or the previous stage
+ * signals progress.
+ */
+public class TickPipeline {
+
+    private static final Logger logger = LoggerFactory.getLogger(TickPipeline.class);
+
+    /**
+     * Handles one tick; may read the slot and add flags to it.
+     */
+    @FunctionalInterface
+    public interface Stage {
+        void onTick(TickRingBuffer ring, long sequence, boolean endOfBatch);
+    }
+
+    private final TickRingBuffer ring;
+    private final String name;
+    private final List<Processor> processors = new ArrayList<>();
+    private final List<Thread> threads = new ArrayList<>();
+    private volatile boolean running;
+    private final BooleanSupplier isRunning = () -> running;
+    private boolean halted;
+
+    public TickPipeline(TickRingBuffer ring, String name, Stage... stages) {
+        if (stages.length == 0) throw new IllegalArgumentException("at least one stage is required");
+        this.ring = ring;
+        this.name = name;
+        AtomicLong dependency = null;
+        for (Stage stage : stages) {
+            Processor processor = new Processor(stage, dependency);
+            processors.add(processor);
+            dependency = processor.sequence;
+        }
+    }
+
+    /**
+     * Start one thread per stage. Platform threads, since stages spin before
+     * blocking and would otherwise hold the carriers of virtual threads.
+     */
+    public synchronized void start() {
+        if (halted) throw new IllegalStateException(name + " was halted");
+        if (running) {
+            return;
+        }
+        running = true;
+        ring.setGatingSequence(processors.get(processors.size() - 1).sequence);
+        for (int i = 0; i < processors.size(); i++) {
+            threads.add(Thread.ofPlatform().daemon().name(name + "-stage-" + i).start(processors.get(i)));
+        }
+        logger.info("{} started with {} stages", name, processors.size());
+    }
+
+    /**
+     * Stop all stages for good; ticks not processed yet are dropped.
+     */
+    public synchronized void halt() {
+        halted = true;
+        if (!running) {
+            return;
+        }
+        running = false;
+        // Release producers waiting for free slots, and the blocked stages
+        ring.setGatingSequence(new AtomicLong(Long.MAX_VALUE));
+        for (Thread thread : threads) {
+            try {
+                thread.join(1000);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+        }
+        threads.clear();
+        logger.info("{} halted", name);
+    }
+
+    public boolean isRunning() {
+        return running;
+    }
+
+    private final class Processor implements Runnable {
+
+        private final AtomicLong sequence = new AtomicLong(-1);
+        private final Stage stage;
+        // Sequence of the previous stage, or the highest published one for the first stage
+        private final LongSupplier availableSequence;
+        private long next;
+
+        Processor(Stage stage, AtomicLong dependency) {
+            this.stage = stage;
+            this.availableSequence = dependency == null ? () -> ring.highestPublished(next) : dependency::get;
+        }
+
+        @Override
+        public void run() {
+            next = sequence.get() + 1;
+            while (running) {
+                long available = ring.waitFor(next, availableSequence, isRunning);
+                if (available < next) {
+                    continue;
+                }
+                for (long s = next; s <= available; s++) {
+                    try {
+                        stage.onTick(ring, s, s == available);
+                    } catch (RuntimeException e) {
+                        logger.error("Error in {} at sequence {}: {}", name, s, e.getMessage(), e);
+                    }
+                }
+                sequence.set(available);
+                next = available + 1;
+                // Wakes the next stage, or the producers after the last one
+                ring.signalProgress();
+            }
+        }
+    }
+}
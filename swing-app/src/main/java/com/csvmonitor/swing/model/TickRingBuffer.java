@@ -0,0 +1,254 @@
+package com.csvmonitor.swing.model;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.BooleanSupplier;
+import java.util.function.LongSupplier;
+
+/**
+ * Preallocated ring of mutable tick slots, in the style of the LMAX Disruptor.
+ *
+ * Producers claim a sequence with {@link #next()} (or {@link #tryNext()}), fill the slot with
+ * {@link #set(long, int, double, long, int)} and make it visible with
+ * {@link #publish(long)}. Consumers ({@link TickPipeline} stages) track their
+ * progress with their own sequence and never let producers wrap past the
+ * slowest of them ({@link #setGatingSequence(AtomicLong)}).
+ *
+ * Slots are stored column-wise in primitive arrays, like {@link RowStore}, so
+ * nothing is allocated per tick.
+ *
+ * Waiting threads spin briefly, then yield, then block on a condition until a
+ * sequence they depend on advances ({@link #signalProgress()}), so an idle
+ * pipeline costs no CPU. Signalling is a single volatile read while nobody is blocked.
+ */
+public class TickRingBuffer {
+
+    /** Set by the lock-check stage when the tick may be applied */
+    public static final byte FLAG_ACCEPTED = 1;
+    /** Set by the metrics stage when the tick moves the price up */
+    public static final byte FLAG_UP = 2;
+    /** Set by the metrics stage when the tick moves the price down */
+    public static final byte FLAG_DOWN = 4;
+    /** Set by the producer for a manual edit, which is only recorded, not applied */
+    public static final byte FLAG_EDIT = 8;
+
+    /**
+     * Whether {@link #next()} may be called from several threads.
+     */
+    public enum ProducerType { SINGLE, MULTI }
+
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 100;
+
+    private final int capacity;
+    private final int mask;
+    private final ProducerType producerType;
+
+    // Slot columns
+    private final int[] rows;
+    private final double[] prices;
+    private final long[] timestamps;
+    private final int[] epochs;
+    private final byte[] flags;
+
+    // Last claimed sequence
+    private final AtomicLong claimed = new AtomicLong(-1);
+    // SINGLE: last published sequence
+    private final AtomicLong cursor = new AtomicLong(-1);
+    // MULTI: sequence last published in each slot
+    private final AtomicLongArray published;
+
+    // Producers wait for the first slot until a consumer is attached
+    private volatile AtomicLong gatingSequence = new AtomicLong(-1);
+    // Last known gating value; stale values are lower, which only causes a re-read
+    private volatile long cachedGate = -1;
+    private final LongSupplier gate = () -> gatingSequence.get();
+
+    // Threads blocked in waitFor, woken by signalProgress
+    private final ReentrantLock waitLock = new ReentrantLock();
+    private final Condition progressed = waitLock.newCondition();
+    private final AtomicInteger blockedCount = new AtomicInteger();
+
+    /**
+     * @param capacity number of slots, rounded up to a power of two
+     */
+    public TickRingBuffer(int capacity, ProducerType producerType) {
+        if (capacity <= 0) throw new IllegalArgumentException("capacity must be positive");
+        this.capacity = Integer.bitCount(capacity) == 1 ? capacity : Integer.highestOneBit(capacity) << 1;
+        this.mask = this.capacity - 1;
+        this.producerType = producerType;
+        this.rows = new int[this.capacity];
+        this.prices = new double[this.capacity];
+        this.timestamps = new long[this.capacity];
+        this.epochs = new int[this.capacity];
+        this.flags = new byte[this.capacity];
+        this.published = new AtomicLongArray(producerType == ProducerType.MULTI ? this.capacity : 0);
+        for (int i = 0; i < published.length(); i++) {
+            published.set(i, -1);
+        }
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Sequence of the slowest consumer; producers never overwrite a slot it
+     * has not processed yet.
+     */
+    public void setGatingSequence(AtomicLong gatingSequence) {
+        this.gatingSequence = gatingSequence;
+        signalProgress();
+    }
+
+    /**
+     * Claim the next slot, waiting while the ring is full.
+     */
+    public long next() {
+        long sequence;
+        if (producerType == ProducerType.SINGLE) {
+            sequence = claimed.get() + 1;
+            claimed.lazySet(sequence);
+        } else {
+            sequence = claimed.incrementAndGet();
+        }
+        long wrapPoint = sequence - capacity;
+        if (wrapPoint > cachedGate) {
+            cachedGate = waitFor(wrapPoint, gate, () -> true);
+        }
+        return sequence;
+    }
+
+    /**
+     * Claim the next slot if the ring is not full, without waiting; for
+     * threads that must not block, such as the UI thread.
+     * @return the sequence, or -1 if the ring is full
+     */
+    public long tryNext() {
+        long current;
+        long sequence;
+        do {
+            current = claimed.get();
+            sequence = current + 1;
+            long wrapPoint = sequence - capacity;
+            if (wrapPoint > cachedGate) {
+                long gate = gatingSequence.get();
+                if (wrapPoint > gate) {
+                    return -1;
+                }
+                cachedGate = gate;
+            }
+        } while (!claimed.compareAndSet(current, sequence));
+        return sequence;
+    }
+
+    /**
+     * Fill a claimed slot; the flags are reset.
+     */
+    public void set(long sequence, int row, double price, long timestamp, int epoch) {
+        int slot = (int) (sequence & mask);
+        rows[slot] = row;
+        prices[slot] = price;
+        timestamps[slot] = timestamp;
+        epochs[slot] = epoch;
+        flags[slot] = 0;
+    }
+
+    /**
+     * Make a filled slot visible to the first stage.
+     */
+    public void publish(long sequence) {
+        if (producerType == ProducerType.SINGLE) {
+            cursor.set(sequence);
+        } else {
+            published.set((int) (sequence & mask), sequence);
+        }
+        signalProgress();
+    }
+
+    /**
+     * Highest sequence published without gaps from {@code from}, or
+     * {@code from - 1} if {@code from} is not published yet.
+     */
+    public long highestPublished(long from) {
+        if (producerType == ProducerType.SINGLE) {
+            return cursor.get();
+        }
+        long limit = claimed.get();
+        long sequence = from;
+        while (sequence <= limit && published.get((int) (sequence & mask)) == sequence) {
+            sequence++;
+        }
+        return sequence - 1;
+    }
+
+    // Slot accessors
+    public int row(long sequence) { return rows[(int) (sequence & mask)]; }
+    public double price(long sequence) { return prices[(int) (sequence & mask)]; }
+    public long timestamp(long sequence) { return timestamps[(int) (sequence & mask)]; }
+    public int epoch(long sequence) { return epochs[(int) (sequence & mask)]; }
+    public byte flags(long sequence) { return flags[(int) (sequence & mask)]; }
+
+    /**
+     * Add flags to a slot; only the stage currently owning the slot may call this.
+     */
+    public void addFlags(long sequence, byte value) {
+        int slot = (int) (sequence & mask);
+        flags[slot] |= value;
+    }
+
+    /**
+     * Wait strategy shared by producers and stages: spin, then yield, then
+     * block until {@link #signalProgress()}, until {@code available} reaches
+     * {@code sequence} or {@code keepWaiting} turns false.
+     * @return the last value of {@code available}
+     */
+    long waitFor(long sequence, LongSupplier available, BooleanSupplier keepWaiting) {
+        long value;
+        int idleCount = 0;
+        while ((value = available.getAsLong()) < sequence && keepWaiting.getAsBoolean()) {
+            if (idleCount < SPIN_TRIES) {
+                Thread.onSpinWait();
+                idleCount++;
+            } else if (idleCount < SPIN_TRIES + YIELD_TRIES) {
+                Thread.yield();
+                idleCount++;
+            } else {
+                block(sequence, available, keepWaiting);
+            }
+        }
+        return value;
+    }
+
+    private void block(long sequence, LongSupplier available, BooleanSupplier keepWaiting) {
+        blockedCount.incrementAndGet();
+        waitLock.lock();
+        try {
+            // Checked again once registered: a signal sent after the count was seen cannot be missed
+            while (available.getAsLong() < sequence && keepWaiting.getAsBoolean()) {
+                progressed.awaitUninterruptibly();
+            }
+        } finally {
+            waitLock.unlock();
+            blockedCount.decrementAndGet();
+        }
+    }
+
+    /**
+     * Wake the threads blocked in {@link #waitFor} after a sequence they may
+     * wait for advanced, or their {@code keepWaiting} condition changed.
+     */
+    void signalProgress() {
+        if (blockedCount.get() > 0) {
+            waitLock.lock();
+            try {
+                progressed.signalAll();
+            } finally {
+                waitLock.unlock();
+            }
+        }
+    }
+}
@@ -4,14 +4,16 @@ import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
 import javax.swing.*;
-import java.util.ArrayList;
-import java.util.List;
+import java.io.IOException;
+import java.nio.file.Path;
 import java.util.Random;
 import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLongArray;
 
 /**
  * Engine for real-time price updates.
@@ -19,7 +21,12 @@ import java.util.concurrent.atomic.AtomicBoolean;
  * Key features:
  * - Runs on background thread, updates UI via SwingUtilities.invokeLater
  * - Respects edit locks (rows manually edited are not auto-updated for 5 seconds)
- * - Batch updates for performance
+ * - Ticks flow through a preallocated {@link TickRingBuffer} into a
+ *   {@link TickPipeline}: lock check, then apply, then derived metrics, then
+ *   the optional {@link TickJournal} recorder (which also gets manual edits)
+ * - Accepted ticks are conflated per row in a {@link ConflatingTickBuffer}; at
+ *   most one drain is queued on the EDT, however fast ticks arrive
+ * - Each drain reports only the rows it changed to the {@link RowsUpdatedListener}
  */
 public class UpdateEngine {
     
@@ -31,10 +38,30 @@ public class UpdateEngine {
     
     private final Random random = new Random();
     private final AtomicBoolean running = new AtomicBoolean(false);
+    private final AtomicBoolean drainScheduled = new AtomicBoolean(false);
+    private final ConflatingTickBuffer.TickHandler tickApplier = this::applyTick;
+    
+    private static final int RING_CAPACITY = 1 << 16;
+    
+    // Any thread may publish ticks (generator, replay, ...)
+    private final TickRingBuffer ring = new TickRingBuffer(RING_CAPACITY, TickRingBuffer.ProducerType.MULTI);
+    private final TickPipeline pipeline = new TickPipeline(ring, "UpdateEngine-ticks",
+            this::checkLock, this::offerAccepted, this::updateMetrics, this::recordUpdate);
+    
+    private volatile TickJournal journal;
+    
+    // Apply stage only: whether the current batch offered anything
+    private boolean offeredInBatch;
+    
+    // Metrics stage only writes these
+    private volatile long ticksReceived;
+    private volatile long ticksApplied;
+    private volatile long upTicks;
+    private volatile long downTicks;
     
     private ScheduledFuture<?> updateTask;
-    private List<RowData> data;
-    private Runnable tableUpdateCallback;
+    private volatile TickTarget target;
+    private RowsUpdatedListener tableUpdateCallback;
     
     // Configuration
     private UpdateConfig config = new UpdateConfig(500, 5, 1000, 0.20);
@@ -57,22 +84,91 @@ public class UpdateEngine {
     }
     
     /**
-     * Internal record to hold pending price updates.
+     * Receives the rows whose price a drain applied, on the EDT. The array is
+     * reused by the next drain; its first {@code count} entries are distinct rows.
      */
-    private record PriceUpdate(RowData row, double newPrice) {}
+    @FunctionalInterface
+    public interface RowsUpdatedListener {
+        void onRowsUpdated(int[] rows, int count);
+    }
+    
+    /**
+     * Counters maintained by the metrics stage since the engine was created.
+     */
+    public record TickStats(long received, long applied, long upTicks, long downTicks) {}
+    
+    /**
+     * Store being updated together with the tick buffer sized for it. Ticks
+     * published for an older epoch are dropped.
+     *
+     * The stages never read the store, which belongs to the UI thread: they
+     * use the row count, ids and quantities copied when the target is created,
+     * the edit locks mirrored by the store's {@link RowStore.EditLockListener},
+     * and prices tracked by the metrics stage itself.
+     */
+    private record TickTarget(RowStore store, ConflatingTickBuffer ticks, int epoch,
+                              int rowCount, int[] ids, int[] qtys, AtomicLongArray lockedUntil,
+                              double[] lastPrices) {
+        
+        static TickTarget of(RowStore store, int epoch) {
+            int rowCount = store.size();
+            int[] ids = new int[rowCount];
+            int[] qtys = new int[rowCount];
+            double[] prices = new double[rowCount];
+            AtomicLongArray lockedUntil = new AtomicLongArray(rowCount);
+            for (int row = 0; row < rowCount; row++) {
+                ids[row] = store.getId(row);
+                qtys[row] = store.getQty(row);
+                prices[row] = store.getPrice(row);
+                lockedUntil.set(row, store.getEditLockUntil(row));
+            }
+            return new TickTarget(store, new ConflatingTickBuffer(rowCount), epoch,
+                    rowCount, ids, qtys, lockedUntil, prices);
+        }
+        
+        boolean isCurrent(TickRingBuffer ring, long sequence) {
+            int row = ring.row(sequence);
+            return epoch == ring.epoch(sequence) && row >= 0 && row < rowCount;
+        }
+    }
+    
+    private int epoch;
+    
+    // Store being drained and the rows applied so far, only used on the EDT
+    private RowStore drainStore;
+    private int[] drainedRows = new int[0];
+    private int drainedCount;
     
     /**
-     * Set the data source for updates.
+     * Set the data source for updates; called on the thread owning the store.
      */
-    public void setData(List<RowData> data) {
-        this.data = data;
+    public synchronized void setData(RowStore data) {
+        TickTarget previous = target;
+        if (previous != null) {
+            previous.store().setEditLockListener(null);
+        }
+        TickTarget next = data != null ? TickTarget.of(data, ++epoch) : null;
+        if (next != null) {
+            data.setEditLockListener(new RowStore.EditLockListener() {
+                @Override
+                public void onEditLock(int row) {
+                    publishEdit(next, row);
+                }
+                
+                @Override
+                public void onEditLockChanged(int row) {
+                    next.lockedUntil().set(row, data.getEditLockUntil(row));
+                }
+            });
+        }
+        this.target = next;
         logger.info("UpdateEngine data source set with {} rows", data != null ? data.size() : 0);
     }
     
     /**
-     * Set callback for table updates (to trigger table repaint).
+     * Set callback for table updates (to trigger repaint of the changed rows).
      */
-    public void setTableUpdateCallback(Runnable callback) {
+    public void setTableUpdateCallback(RowsUpdatedListener callback) {
         this.tableUpdateCallback = callback;
     }
     
@@ -87,12 +183,14 @@ public class UpdateEngine {
      * Start the real-time update engine.
      */
     public void start() {
-        if (data == null || data.isEmpty()) {
+        TickTarget current = target;
+        if (current == null || current.store().isEmpty()) {
             logger.warn("Cannot start UpdateEngine: no data available");
             return;
         }
         
         if (running.compareAndSet(false, true)) {
+            pipeline.start();
             logger.info("Starting UpdateEngine with {}ms interval (Virtual Threads)", config.intervalMs());
             
             updateTask = scheduler.scheduleAtFixedRate(
@@ -132,6 +230,8 @@ public class UpdateEngine {
     public void shutdown() {
         pause();
         scheduler.shutdown();
+        pipeline.halt();
+        stopRecording();
         try {
             if (!scheduler.awaitTermination(1, TimeUnit.SECONDS)) {
                 scheduler.shutdownNow();
@@ -147,40 +247,28 @@ public class UpdateEngine {
      * Perform a batch update on random rows.
      */
     private void performUpdate() {
-        if (data == null || data.isEmpty()) {
+        TickTarget current = target;
+        if (current == null || current.store().isEmpty()) {
             return;
         }
         
         try {
-            int dataSize = data.size();
+            RowStore store = current.store();
+            int dataSize = store.size();
             int rowsToUpdate = config.minRowsToUpdate() + 
                     random.nextInt(config.maxRowsToUpdate() - config.minRowsToUpdate() + 1);
             rowsToUpdate = Math.min(rowsToUpdate, dataSize);
             
-            // Collect price updates
-            List<PriceUpdate> updates = new ArrayList<>(rowsToUpdate);
-            
             for (int i = 0; i < rowsToUpdate; i++) {
-                int index = random.nextInt(dataSize);
-                RowData row = data.get(index);
+                int row = random.nextInt(dataSize);
                 
-                // Skip locked rows
-                if (row.isLocked()) {
-                    continue;
-                }
-                
-                // Generate new price
-                double currentPrice = row.getPrice();
+                // Generate new price (locked rows are filtered by the pipeline)
+                double currentPrice = store.getPrice(row);
                 double priceChange = currentPrice * config.priceChangePercent() * (random.nextDouble() * 2 - 1);
                 double newPrice = Math.max(0.01, currentPrice + priceChange);
                 newPrice = Math.round(newPrice * 100.0) / 100.0;
                 
-                updates.add(new PriceUpdate(row, newPrice));
-            }
-            
-            // Apply updates on Swing EDT
-            if (!updates.isEmpty()) {
-                SwingUtilities.invokeLater(() -> applyUpdates(updates));
+                publish(current, row, newPrice);
             }
             
         } catch (Exception e) {
@@ -189,19 +277,211 @@ public class UpdateEngine {
     }
     
     /**
-     * Apply price updates to the model.
+     * Feed a price tick for a row of the current data source into the pipeline.
+     * Thread-safe; waits if the ring is full, so not meant for the UI thread.
+     */
+    public void publishTick(int row, double price) {
+        TickTarget current = target;
+        if (current == null) {
+            return;
+        }
+        if (!pipeline.isRunning()) {
+            pipeline.start();
+        }
+        publish(current, row, price);
+    }
+    
+    /**
+     * Record every applied tick and manual edit into a journal in the given
+     * directory, rotating segments at about {@code segmentBytes}.
+     */
+    public synchronized void startRecording(Path directory, long segmentBytes) throws IOException {
+        stopRecording();
+        journal = new TickJournal(directory, segmentBytes);
+        if (!pipeline.isRunning()) {
+            pipeline.start();
+        }
+        logger.info("Recording ticks to {}", directory);
+    }
+    
+    /**
+     * Stop recording; does nothing if not recording.
+     */
+    public synchronized void stopRecording() {
+        TickJournal current = journal;
+        journal = null;
+        if (current != null) {
+            current.close();
+        }
+    }
+    
+    public boolean isRecording() {
+        return journal != null;
+    }
+    
+    /**
+     * Get the counters of the metrics stage.
+     */
+    public TickStats getTickStats() {
+        return new TickStats(ticksReceived, ticksApplied, upTicks, downTicks);
+    }
+    
+    private void publish(TickTarget current, int row, double price) {
+        long sequence = ring.next();
+        ring.set(sequence, row, price, System.currentTimeMillis(), current.epoch());
+        ring.publish(sequence);
+    }
+    
+    // Manual edits only go through the pipeline to reset the metrics price and be recorded in order with the ticks
+    private void publishEdit(TickTarget current, int row) {
+        if (current != target || !pipeline.isRunning()) {
+            return;
+        }
+        double price = current.store().getPrice(row);
+        long timestamp = System.currentTimeMillis();
+        long sequence = ring.tryNext();
+        if (sequence >= 0) {
+            publishEdit(current, sequence, row, price, timestamp);
+            return;
+        }
+        // Ring full: the UI thread never waits, the scheduler publishes the edit once there is room
+        try {
+            scheduler.execute(() -> publishEdit(current, ring.next(), row, price, timestamp));
+        } catch (RejectedExecutionException e) {
+            logger.debug("Edit of row {} not published: engine shut down", row);
+        }
+    }
+    
+    private void publishEdit(TickTarget current, long sequence, int row, double price, long timestamp) {
+        ring.set(sequence, row, price, timestamp, current.epoch());
+        ring.addFlags(sequence, TickRingBuffer.FLAG_EDIT);
+        ring.publish(sequence);
+    }
+    
+    // Stage 1: accept ticks for the current data source whose row is not locked
+    private void checkLock(TickRingBuffer ring, long sequence, boolean endOfBatch) {
+        if ((ring.flags(sequence) & TickRingBuffer.FLAG_EDIT) != 0) {
+            return;
+        }
+        TickTarget current = target;
+        if (current != null && current.isCurrent(ring, sequence)
+                && System.currentTimeMillis() >= current.lockedUntil().get(ring.row(sequence))) {
+            ring.addFlags(sequence, TickRingBuffer.FLAG_ACCEPTED);
+        }
+    }
+    
+    // Stage 2: conflate accepted ticks, queue one drain per batch
+    private void offerAccepted(TickRingBuffer ring, long sequence, boolean endOfBatch) {
+        TickTarget current = target;
+        if ((ring.flags(sequence) & TickRingBuffer.FLAG_ACCEPTED) != 0
+                && current != null && current.epoch() == ring.epoch(sequence)) {
+            current.ticks().offer(ring.row(sequence), ring.price(sequence));
+            offeredInBatch = true;
+        }
+        if (endOfBatch && offeredInBatch) {
+            offeredInBatch = false;
+            scheduleDrain();
+        }
+    }
+    
+    // Stage 3: tick direction against the last accepted or edited price, and counters
+    private void updateMetrics(TickRingBuffer ring, long sequence, boolean endOfBatch) {
+        TickTarget current = target;
+        boolean matches = current != null && current.isCurrent(ring, sequence);
+        if ((ring.flags(sequence) & TickRingBuffer.FLAG_EDIT) != 0) {
+            if (matches) {
+                current.lastPrices()[ring.row(sequence)] = ring.price(sequence);
+            }
+            return;
+        }
+        ticksReceived++;
+        if ((ring.flags(sequence) & TickRingBuffer.FLAG_ACCEPTED) == 0) {
+            return;
+        }
+        ticksApplied++;
+        if (!matches) {
+            return;
+        }
+        double[] lastPrices = current.lastPrices();
+        int row = ring.row(sequence);
+        double previous = lastPrices[row];
+        double price = ring.price(sequence);
+        lastPrices[row] = price;
+        if (price > previous) {
+            ring.addFlags(sequence, TickRingBuffer.FLAG_UP);
+            upTicks++;
+        } else if (price < previous) {
+            ring.addFlags(sequence, TickRingBuffer.FLAG_DOWN);
+            downTicks++;
+        }
+    }
+    
+    // Stage 4: journal applied ticks and manual edits while recording
+    private void recordUpdate(TickRingBuffer ring, long sequence, boolean endOfBatch) {
+        TickJournal recorder = journal;
+        if (recorder == null) {
+            return;
+        }
+        byte flags = ring.flags(sequence);
+        byte kind;
+        if ((flags & TickRingBuffer.FLAG_EDIT) != 0) {
+            kind = TickJournal.KIND_EDIT;
+        } else if ((flags & TickRingBuffer.FLAG_ACCEPTED) != 0) {
+            kind = TickJournal.KIND_TICK;
+        } else {
+            return;
+        }
+        TickTarget current = target;
+        if (current == null || !current.isCurrent(ring, sequence)) {
+            return;
+        }
+        int row = ring.row(sequence);
+        recorder.append(ring.timestamp(sequence), current.ids()[row], row,
+                ring.price(sequence), current.qtys()[row], kind);
+    }
+    
+    /**
+     * Queue a drain on the EDT unless one is already queued.
+     */
+    private void scheduleDrain() {
+        if (drainScheduled.compareAndSet(false, true)) {
+            SwingUtilities.invokeLater(this::drainTicks);
+        }
+    }
+    
+    /**
+     * Apply the latest pending price of every ticked row to the model.
      */
-    private void applyUpdates(List<PriceUpdate> updates) {
-        updates.stream()
-                .filter(update -> !update.row().isLocked())
-                .forEach(update -> update.row().setPrice(update.newPrice()));
+    private void drainTicks() {
+        // Reset first: ticks arriving during the drain queue the next one
+        drainScheduled.set(false);
+        TickTarget current = target;
+        if (current == null) {
+            return;
+        }
+        // A row is pending at most once, so a drain never applies more rows than the capacity
+        if (drainedRows.length != current.ticks().capacity()) {
+            drainedRows = new int[current.ticks().capacity()];
+        }
+        drainStore = current.store();
+        drainedCount = 0;
+        current.ticks().drain(tickApplier);
+        drainStore = null;
         
-        // Notify table to repaint
-        if (tableUpdateCallback != null) {
-            tableUpdateCallback.run();
+        // Notify table to repaint the changed rows
+        if (drainedCount > 0 && tableUpdateCallback != null) {
+            tableUpdateCallback.onRowsUpdated(drainedRows, drainedCount);
         }
         
-        logger.trace("Applied {} price updates", updates.size());
+        logger.trace("Applied {} price updates", drainedCount);
+    }
+    
+    private void applyTick(int row, double price) {
+        // Re-check the lock: the row may have been edited since the tick was produced
+        if (!drainStore.isLocked(row)) {
+            drainStore.setPrice(row, price);
+            drainedRows[drainedCount++] = row;
+        }
     }
     
     // Legacy setters for backward compatibility
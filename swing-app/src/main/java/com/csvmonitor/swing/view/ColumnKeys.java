@@ -0,0 +1,160 @@
+package com.csvmonitor.swing.view;
+
+import com.csvmonitor.swing.model.RowStore;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Sort keys of the table columns as longs that order like the column values
+ * when compared unsigned.
+ *
+ * ID and Qty keep the int value in the high half. Price and Last Update use
+ * all 64 bits of the double or millis. Symbol and Status use the rank of the
+ * value among the distinct values of the store, in the high half.
+ */
+final class ColumnKeys {
+
+    private static final int ID_COLUMN = 0;
+    private static final int SYMBOL_COLUMN = 1;
+    private static final int PRICE_COLUMN = 2;
+    private static final int QTY_COLUMN = 3;
+    private static final int STATUS_COLUMN = 4;
+    private static final int LAST_UPDATE_COLUMN = 5;
+    private static final int MAX_STATUS_CODES = 256;
+
+    private ColumnKeys() {
+    }
+
+    /**
+     * Whether the keys of a column only use the high half, so ties on it are exact.
+     */
+    static boolean isHighOnly(int column) {
+        return column != PRICE_COLUMN && column != LAST_UPDATE_COLUMN;
+    }
+
+    /**
+     * Fill {@code keys[row]} for the store rows {@code [0, keys.length)}.
+     */
+    static void fill(RowStore store, int column, long[] keys) {
+        int size = keys.length;
+        switch (column) {
+            case ID_COLUMN -> {
+                for (int row = 0; row < size; row++) {
+                    keys[row] = intKey(store.getId(row));
+                }
+            }
+            case QTY_COLUMN -> {
+                for (int row = 0; row < size; row++) {
+                    keys[row] = intKey(store.getQty(row));
+                }
+            }
+            case PRICE_COLUMN -> {
+                for (int row = 0; row < size; row++) {
+                    keys[row] = doubleKey(store.getPrice(row));
+                }
+            }
+            case LAST_UPDATE_COLUMN -> {
+                for (int row = 0; row < size; row++) {
+                    keys[row] = store.getLastUpdateMillis(row) ^ Long.MIN_VALUE;
+                }
+            }
+            case SYMBOL_COLUMN -> {
+                int[] ranks = symbolRanks(store, size);
+                for (int row = 0; row < size; row++) {
+                    // No symbol (-1) sorts first
+                    keys[row] = intKey(ranks[store.getSymbolCode(row) + 1]);
+                }
+            }
+            case STATUS_COLUMN -> {
+                int[] ranks = statusRanks(store, size);
+                for (int row = 0; row < size; row++) {
+                    keys[row] = intKey(ranks[store.getStatusCode(row)]);
+                }
+            }
+            default -> throw new IllegalArgumentException("Unknown column " + column);
+        }
+    }
+
+    /**
+     * Key of a single row, consistent with {@link #fill}; Symbol and Status
+     * need their ranks, so only the primitive columns are supported.
+     */
+    static long key(RowStore store, int column, int row) {
+        return switch (column) {
+            case ID_COLUMN -> intKey(store.getId(row));
+            case QTY_COLUMN -> intKey(store.getQty(row));
+            case PRICE_COLUMN -> doubleKey(store.getPrice(row));
+            case LAST_UPDATE_COLUMN -> store.getLastUpdateMillis(row) ^ Long.MIN_VALUE;
+            default -> throw new IllegalArgumentException("No single-row key for column " + column);
+        };
+    }
+
+    static long intKey(int value) {
+        return ((long) (value ^ Integer.MIN_VALUE) & 0xFFFFFFFFL) << 32;
+    }
+
+    static long doubleKey(double value) {
+        long bits = Double.doubleToLongBits(value);
+        // Negative values: flip all bits; positive values: flip the sign bit
+        return bits < 0 ? ~bits : bits ^ Long.MIN_VALUE;
+    }
+
+    // Rank by symbol code + 1, so that index 0 is "no symbol"
+    private static int[] symbolRanks(RowStore store, int size) {
+        int codes = store.getSymbolDictionary().size();
+        boolean[] used = new boolean[codes];
+        for (int row = 0; row < size; row++) {
+            int code = store.getSymbolCode(row);
+            if (code >= 0 && code < codes) {
+                used[code] = true;
+            }
+        }
+        Integer[] order = usedCodes(used);
+        Arrays.sort(order, Comparator.comparing(code -> store.getSymbolDictionary().symbol(code)));
+        int[] ranks = new int[codes + 1];
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank] + 1] = rank + 1;
+        }
+        return ranks;
+    }
+
+    private static int[] statusRanks(RowStore store, int size) {
+        // A row per used code, to read the status value from
+        int[] rowOfCode = new int[MAX_STATUS_CODES];
+        Arrays.fill(rowOfCode, -1);
+        boolean[] used = new boolean[MAX_STATUS_CODES];
+        for (int row = 0; row < size; row++) {
+            int code = store.getStatusCode(row);
+            if (!used[code]) {
+                used[code] = true;
+                rowOfCode[code] = row;
+            }
+        }
+        Integer[] order = usedCodes(used);
+        Arrays.sort(order, Comparator.comparing(code -> store.getStatus(rowOfCode[code]),
+                Comparator.nullsFirst(Comparator.naturalOrder())));
+        int[] ranks = new int[MAX_STATUS_CODES];
+        for (int rank = 0; rank < order.length; rank++) {
+            ranks[order[rank]] = rank;
+        }
+        return ranks;
+    }
+
+    private static Integer[] usedCodes(boolean[] used) {
+        int count = 0;
+        for (boolean u : used) {
+            if (u) {
+                count++;
+            }
+        }
+        Integer[] codes = new Integer[count];
+        int next = 0;
+        for (int code = 0; code < used.length; code++) {
+            if (used[code]) {
+                codes[next++] = code;
+            }
+        }
+        return codes;
+    }
+}
@@ -1,21 +1,25 @@
 package com.csvmonitor.swing.view;
 
 import com.csvmonitor.swing.model.RowData;
+import com.csvmonitor.swing.model.RowStore;
 
+import javax.swing.event.TableModelEvent;
 import javax.swing.table.AbstractTableModel;
-import java.util.ArrayList;
-import java.util.List;
+import java.util.Arrays;
 
 /**
  * Swing TableModel for CSV data display.
  * Provides column definitions and data access for JTable.
+ * Cells are read straight from the {@link RowStore} columns by row index.
  */
 public class CsvTableModel extends AbstractTableModel {
     
+    public static final int PRICE_COLUMN = 2;
+    
     private static final String[] COLUMN_NAMES = {"ID", "Symbol", "Price", "Qty", "Status", "Last Update"};
     private static final Class<?>[] COLUMN_CLASSES = {Integer.class, String.class, Double.class, Integer.class, String.class, String.class};
     
-    private final List<RowData> data = new ArrayList<>();
+    private RowStore data = new RowStore();
     
     @Override
     public int getRowCount() {
@@ -48,43 +52,39 @@ public class CsvTableModel extends AbstractTableModel {
             return null;
         }
         
-        RowData row = data.get(rowIndex);
         return switch (columnIndex) {
-            case 0 -> row.getId();
-            case 1 -> row.getSymbol();
-            case 2 -> row.getPrice();
-            case 3 -> row.getQty();
-            case 4 -> row.getStatus();
-            case 5 -> row.getLastUpdate();
+            case 0 -> data.getId(rowIndex);
+            case 1 -> data.getSymbol(rowIndex);
+            case 2 -> data.getPrice(rowIndex);
+            case 3 -> data.getQty(rowIndex);
+            case 4 -> data.getStatus(rowIndex);
+            case 5 -> data.getLastUpdate(rowIndex);
             default -> null;
         };
     }
     
     /**
-     * Get the RowData at the specified row index.
+     * Get the RowData view of the specified row index.
      */
     public RowData getRowAt(int rowIndex) {
         if (rowIndex < 0 || rowIndex >= data.size()) {
             return null;
         }
-        return data.get(rowIndex);
+        return data.view(rowIndex);
     }
     
     /**
      * Get all data.
      */
-    public List<RowData> getData() {
+    public RowStore getData() {
         return data;
     }
     
     /**
      * Set the data for the table.
      */
-    public void setData(List<RowData> newData) {
-        data.clear();
-        if (newData != null) {
-            data.addAll(newData);
-        }
+    public void setData(RowStore newData) {
+        data = newData != null ? newData : new RowStore();
         fireTableDataChanged();
     }
     
@@ -92,37 +92,48 @@ public class CsvTableModel extends AbstractTableModel {
      * Clear all data.
      */
     public void clearData() {
-        data.clear();
+        data = new RowStore();
         fireTableDataChanged();
     }
     
     /**
      * Add rows in batch.
      */
-    public void addRows(List<RowData> rows) {
+    public void addRows(RowStore rows) {
         if (rows == null || rows.isEmpty()) {
             return;
         }
         int firstRow = data.size();
-        data.addAll(rows);
+        data.appendAll(rows);
         fireTableRowsInserted(firstRow, data.size() - 1);
     }
     
     /**
-     * Notify that specific rows have been updated.
+     * Notify that one column of the given rows has been updated, with one event
+     * per run of consecutive rows. Sorts the first {@code count} entries of
+     * {@code rows} in place.
      */
-    public void fireRowsUpdated(int firstRow, int lastRow) {
-        if (firstRow >= 0 && lastRow < data.size()) {
-            fireTableRowsUpdated(firstRow, lastRow);
+    public void fireCellsUpdated(int[] rows, int count, int column) {
+        if (count <= 0) {
+            return;
         }
+        Arrays.sort(rows, 0, count);
+        int first = rows[0];
+        int last = first;
+        for (int i = 1; i < count; i++) {
+            int row = rows[i];
+            if (row > last + 1) {
+                fireCellsUpdated(first, last, column);
+                first = row;
+            }
+            last = Math.max(last, row);
+        }
+        fireCellsUpdated(first, last, column);
     }
     
-    /**
-     * Notify that all data has been updated (for batch refresh).
-     */
-    public void fireAllDataUpdated() {
-        if (!data.isEmpty()) {
-            fireTableRowsUpdated(0, data.size() - 1);
+    private void fireCellsUpdated(int firstRow, int lastRow, int column) {
+        if (firstRow >= 0 && lastRow < data.size()) {
+            fireTableChanged(new TableModelEvent(this, firstRow, lastRow, column));
         }
     }
 }
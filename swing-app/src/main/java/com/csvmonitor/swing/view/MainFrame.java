@@ -1,9 +1,10 @@
 package com.csvmonitor.swing.view;
 
 import com.csvmonitor.swing.controller.MainController;
+import com.csvmonitor.swing.model.TickJournal;
+import com.csvmonitor.swing.model.TickReplay;
 import com.jidesoft.grid.AutoFilterTableHeader;
 import com.jidesoft.grid.FilterableTableModel;
-import com.jidesoft.grid.SortableTable;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 
@@ -12,6 +13,8 @@ import javax.swing.filechooser.FileNameExtensionFilter;
 import javax.swing.table.TableColumn;
 import javax.swing.table.TableColumnModel;
 import java.awt.*;
+import java.awt.event.MouseAdapter;
+import java.awt.event.MouseEvent;
 import java.awt.event.WindowAdapter;
 import java.awt.event.WindowEvent;
 import java.io.File;
@@ -37,13 +40,22 @@ public class MainFrame extends JFrame implements MainView {
     private static final String APP_TITLE = "CSV Table Monitor (Swing)";
     private static final int DEFAULT_WIDTH = 1200;
     private static final int DEFAULT_HEIGHT = 700;
+    private static final int PRICE_COLUMN = CsvTableModel.PRICE_COLUMN;
+    private static final int FILTER_BUTTON_WIDTH = 16;
     
     // Components
     private CsvTableModel tableModel;
     private FilterableTableModel filterableTableModel;
-    private SortableTable table;
-    private Timer priceFlashTimer;
+    private SortedTableModel sortedTableModel;
+    private JTable table;
+    private ViewRowMap viewRowMap;
+    private PriceFlashTracker priceFlashTracker;
     private JButton startPauseButton;
+    private JButton replayButton;
+    private JButton recordButton;
+    private JComboBox<String> replaySpeedBox;
+    private JCheckBox holdOrderBox;
+    private boolean pointerInTable;
     private JLabel statusLabel;
     private JLabel rowCountLabel;
     private JPopupMenu columnMenu;
@@ -123,6 +135,25 @@ public class MainFrame extends JFrame implements MainView {
         JButton unlockAllButton = new JButton("Unlock All");
         unlockAllButton.addActionListener(e -> handleUnlockAll());
         buttonBar.add(unlockAllButton);
+
+        holdOrderBox = new JCheckBox("Hold Order", true);
+        holdOrderBox.setToolTipText("Keep sorted rows in place while the pointer is over the table or a row is selected");
+        holdOrderBox.addActionListener(e -> updateOrderFrozen());
+        buttonBar.add(holdOrderBox);
+        
+        buttonBar.add(new JSeparator(SwingConstants.VERTICAL));
+        
+        // Tick replay
+        replayButton = new JButton("Replay Ticks");
+        replayButton.addActionListener(e -> handleReplayTicks());
+        buttonBar.add(replayButton);
+        
+        replaySpeedBox = new JComboBox<>(new String[] {"1x", "10x", "100x", "Max"});
+        buttonBar.add(replaySpeedBox);
+        
+        recordButton = new JButton("Record");
+        recordButton.addActionListener(e -> handleRecord());
+        buttonBar.add(recordButton);
         
         toolbarContainer.add(buttonBar);
         
@@ -133,12 +164,13 @@ public class MainFrame extends JFrame implements MainView {
         JPanel panel = new JPanel(new BorderLayout(0, 4));
         panel.setBorder(BorderFactory.createEmptyBorder(4, 8, 4, 8));
         
-        // Create table model and filter wrapper
+        // Create table model, sorted off the EDT, and filter wrapper
         tableModel = new CsvTableModel();
-        filterableTableModel = new FilterableTableModel(tableModel);
+        sortedTableModel = new SortedTableModel(tableModel);
+        filterableTableModel = new FilterableTableModel(sortedTableModel);
         
         // Create table
-        table = new SortableTable(filterableTableModel);
+        table = new JTable(filterableTableModel);
 //        table.setAutoResizeMode(JTable.AUTO_RESIZE_ALL_COLUMNS);
         table.setRowHeight(24);
         table.setShowGrid(true);
@@ -153,10 +185,12 @@ public class MainFrame extends JFrame implements MainView {
         // Column chooser menu
         initColumnMenu();
         
-        // Apply custom cell renderers for all columns
+        // Apply custom cell renderers for all columns, sharing one view row mapping
+        viewRowMap = new ViewRowMap(table, filterableTableModel, sortedTableModel);
         for (int i = 0; i < tableModel.getColumnCount(); i++) {
-            table.getColumnModel().getColumn(i).setCellRenderer(
-                    new StatusCellRenderer(tableModel, filterableTableModel, i)
+            table.getColumnModel().getColumn(i).setCellRenderer(i == PRICE_COLUMN
+                    ? new PriceCellRenderer(tableModel, viewRowMap, i)
+                    : new StatusCellRenderer(tableModel, viewRowMap, i)
             );
         }
         
@@ -164,15 +198,40 @@ public class MainFrame extends JFrame implements MainView {
         AutoFilterTableHeader filterHeader = new AutoFilterTableHeader(table);
         filterHeader.setAutoFilterEnabled(true);
         table.setTableHeader(filterHeader);
+        filterHeader.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseClicked(MouseEvent e) {
+                handleHeaderClick(e);
+            }
+        });
         
         // Scroll pane with table
         JScrollPane scrollPane = new JScrollPane(table);
         scrollPane.setVerticalScrollBarPolicy(JScrollPane.VERTICAL_SCROLLBAR_ALWAYS);
         panel.add(scrollPane, BorderLayout.CENTER);
 
-        // Repaint periodically to animate price flashing.
-        priceFlashTimer = new Timer(180, e -> table.repaint());
-        priceFlashTimer.start();
+        // Hold the sorted order while the user points at or selects rows
+        table.addMouseListener(new MouseAdapter() {
+            @Override
+            public void mouseEntered(MouseEvent e) {
+                pointerInTable = true;
+                updateOrderFrozen();
+            }
+
+            @Override
+            public void mouseExited(MouseEvent e) {
+                pointerInTable = false;
+                updateOrderFrozen();
+            }
+        });
+        table.getSelectionModel().addListSelectionListener(e -> {
+            if (!e.getValueIsAdjusting()) {
+                updateOrderFrozen();
+            }
+        });
+
+        // Animate price flashing by repainting only the flashing cells
+        priceFlashTracker = new PriceFlashTracker(table, tableModel, viewRowMap, PRICE_COLUMN);
 
         // Listen for data/filter changes to update row count
         filterableTableModel.addTableModelListener(e -> updateRowCount());
@@ -180,6 +239,51 @@ public class MainFrame extends JFrame implements MainView {
         return panel;
     }
 
+    /**
+     * Cycle the sort of the clicked column: ascending, descending, unsorted.
+     */
+    private void handleHeaderClick(MouseEvent e) {
+        if (!SwingUtilities.isLeftMouseButton(e) || e.getClickCount() != 1) {
+            return;
+        }
+        int viewColumn = table.columnAtPoint(e.getPoint());
+        if (viewColumn < 0) {
+            return;
+        }
+        // Leave clicks on the filter button at the right of the header cell to JIDE
+        Rectangle header = table.getTableHeader().getHeaderRect(viewColumn);
+        if (e.getX() > header.x + header.width - FILTER_BUTTON_WIDTH) {
+            return;
+        }
+        int column = table.convertColumnIndexToModel(viewColumn);
+        if (sortedTableModel.getSortColumn() != column) {
+            sortedTableModel.setSort(column, true);
+        } else if (sortedTableModel.isAscending()) {
+            sortedTableModel.setSort(column, false);
+        } else {
+            sortedTableModel.setSort(-1, true);
+        }
+        updateSortIndicators();
+    }
+
+    private void updateOrderFrozen() {
+        sortedTableModel.setOrderFrozen(holdOrderBox.isSelected()
+                && (pointerInTable || table.getSelectedRow() >= 0));
+    }
+
+    private void updateSortIndicators() {
+        int sortColumn = sortedTableModel.getSortColumn();
+        for (TableColumn column : columnOrder.keySet()) {
+            int index = column.getModelIndex();
+            String name = tableModel.getColumnName(index);
+            if (index == sortColumn) {
+                name += sortedTableModel.isAscending() ? " \u25B2" : " \u25BC";
+            }
+            column.setHeaderValue(name);
+        }
+        table.getTableHeader().repaint();
+    }
+
     private void initColumnMenu() {
         columnMenu = new JPopupMenu();
         TableColumnModel columnModel = table.getColumnModel();
@@ -272,8 +376,8 @@ public class MainFrame extends JFrame implements MainView {
                 if (windowCloseHandler != null) {
                     windowCloseHandler.run();
                 }
-                if (priceFlashTimer != null) {
-                    priceFlashTimer.stop();
+                if (priceFlashTracker != null) {
+                    priceFlashTracker.stop();
                 }
             }
         });
@@ -309,6 +413,18 @@ public class MainFrame extends JFrame implements MainView {
         }
     }
 
+    private void handleReplayTicks() {
+        if (controller != null) {
+            controller.onReplayTicks();
+        }
+    }
+
+    private void handleRecord() {
+        if (controller != null) {
+            controller.onRecord();
+        }
+    }
+
     @Override
     public CsvTableModel getTableModel() {
         return tableModel;
@@ -365,6 +481,49 @@ public class MainFrame extends JFrame implements MainView {
         return null;
     }
 
+    @Override
+    public File promptOpenTickFile() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Open Tick File");
+        chooser.setFileFilter(new FileNameExtensionFilter("Tick Files", "csv", "ticks",
+                TickJournal.FILE_EXTENSION.substring(1)));
+
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            return chooser.getSelectedFile();
+        }
+        return null;
+    }
+
+    @Override
+    public double getReplaySpeed() {
+        String choice = (String) replaySpeedBox.getSelectedItem();
+        return "Max".equals(choice)
+                ? TickReplay.MAX_SPEED
+                : Double.parseDouble(choice.substring(0, choice.length() - 1));
+    }
+
+    @Override
+    public void setReplayLabel(String text) {
+        replayButton.setText(text);
+    }
+
+    @Override
+    public File promptJournalDirectory() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setDialogTitle("Choose Tick Journal Directory");
+        chooser.setFileSelectionMode(JFileChooser.DIRECTORIES_ONLY);
+
+        if (chooser.showOpenDialog(this) == JFileChooser.APPROVE_OPTION) {
+            return chooser.getSelectedFile();
+        }
+        return null;
+    }
+
+    @Override
+    public void setRecordLabel(String text) {
+        recordButton.setText(text);
+    }
+
     @Override
     public void addWindowCloseHandler(Runnable handler) {
         this.windowCloseHandler = handler;
@@ -15,5 +15,19 @@ public interface MainView {
 
     File promptSaveCsv();
 
+    File promptOpenTickFile();
+
+    /**
+     * Replay speed chosen by the user: 1 for real time, N for N times faster,
+     * {@code TickReplay.MAX_SPEED} for no pacing.
+     */
+    double getReplaySpeed();
+
+    void setReplayLabel(String text);
+
+    File promptJournalDirectory();
+
+    void setRecordLabel(String text);
+
     void addWindowCloseHandler(Runnable handler);
 }
@@ -0,0 +1,106 @@
+package com.csvmonitor.swing.view;
+
+import com.csvmonitor.swing.model.PriceFormatter;
+
+import javax.swing.*;
+import java.awt.*;
+import java.util.Map;
+
+/**
+ * Renderer for the price column that paints the formatted digits itself.
+ *
+ * Colors and flashing come from {@link StatusCellRenderer}. The price is
+ * drawn right-aligned in three groups split by {@link PriceFormatter}: the
+ * emphasized decimals in a bold font 10% larger, the rest in the table font.
+ * Fonts and metrics are derived once per table font, so painting a cell
+ * parses no HTML and allocates nothing.
+ */
+public class PriceCellRenderer extends StatusCellRenderer {
+
+    private static final float EMPHASIS_SCALE = 1.1f;
+
+    // Reused for every paint; renderers are only used on the EDT
+    private final PriceFormatter priceFormatter = new PriceFormatter();
+    private boolean hasPrice;
+
+    // Derived from the last base font seen
+    private Font baseFont;
+    private Font emphasisFont;
+    private FontMetrics baseMetrics;
+    private FontMetrics emphasisMetrics;
+
+    public PriceCellRenderer(CsvTableModel tableModel, ViewRowMap viewRowMap, int columnIndex) {
+        super(tableModel, viewRowMap, columnIndex);
+    }
+
+    @Override
+    public Component getTableCellRendererComponent(JTable table, Object value,
+            boolean isSelected, boolean hasFocus, int row, int column) {
+        Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+        hasPrice = value instanceof Double;
+        if (value instanceof Double price) {
+            priceFormatter.format(price);
+            // The digits are painted, not laid out by the label
+            setText(null);
+        }
+        return c;
+    }
+
+    @Override
+    protected void paintComponent(Graphics g) {
+        // Background (and any text when there is no price)
+        super.paintComponent(g);
+        if (!hasPrice) {
+            return;
+        }
+        resolveFonts();
+
+        char[] chars = priceFormatter.chars();
+        int length = priceFormatter.length();
+        int start = priceFormatter.emphasisStart();
+        int end = priceFormatter.emphasisEnd();
+        int prefixWidth = baseMetrics.charsWidth(chars, 0, start);
+        int emphasisWidth = emphasisMetrics.charsWidth(chars, start, end - start);
+        int suffixWidth = baseMetrics.charsWidth(chars, end, length - end);
+
+        Insets insets = getInsets();
+        int ascent = Math.max(baseMetrics.getAscent(), emphasisMetrics.getAscent());
+        int descent = Math.max(baseMetrics.getDescent(), emphasisMetrics.getDescent());
+        int innerHeight = getHeight() - insets.top - insets.bottom;
+        int y = insets.top + (innerHeight - ascent - descent) / 2 + ascent;
+        int x = getWidth() - insets.right - prefixWidth - emphasisWidth - suffixWidth;
+
+        Graphics2D g2 = (Graphics2D) g;
+        applyTextHints(g2);
+        g2.setColor(getForeground());
+        g2.setFont(baseFont);
+        g2.drawChars(chars, 0, start, x, y);
+        x += prefixWidth;
+        if (end > start) {
+            g2.setFont(emphasisFont);
+            g2.drawChars(chars, start, end - start, x, y);
+            x += emphasisWidth;
+            g2.setFont(baseFont);
+        }
+        g2.drawChars(chars, end, length - end, x, y);
+    }
+
+    private void resolveFonts() {
+        Font font = getFont();
+        if (font == baseFont) {
+            return;
+        }
+        baseFont = font;
+        emphasisFont = font.deriveFont(Font.BOLD, font.getSize2D() * EMPHASIS_SCALE);
+        baseMetrics = getFontMetrics(baseFont);
+        emphasisMetrics = getFontMetrics(emphasisFont);
+    }
+
+    // Same text antialiasing as the label would use
+    private static void applyTextHints(Graphics2D g2) {
+        Object hints = Toolkit.getDefaultToolkit().getDesktopProperty("awt.font.desktophints");
+        if (hints instanceof Map<?, ?> map) {
+            g2.addRenderingHints(map);
+        }
+    }
+}
@@ -0,0 +1,134 @@
+package com.csvmonitor.swing.view;
+
+import com.csvmonitor.swing.model.RowStore;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import java.awt.*;
+import java.util.Arrays;
+
+/**
+ * Keeps the set of rows whose price cell is flashing and repaints only those cells.
+ *
+ * Rows are collected from the update events of the {@link CsvTableModel}. While
+ * any row flashes, a timer repaints the visible price cells of flashing rows at
+ * the toggle rate; a row is dropped after one last repaint once its flash window
+ * is over, and the timer stops when no row is left.
+ *
+ * Used on the Event Dispatch Thread only.
+ */
+class PriceFlashTracker {
+
+    static final long FLASH_WINDOW_MS = 1000;
+    static final long FLASH_TOGGLE_MS = 180;
+
+    private final JTable table;
+    private final CsvTableModel tableModel;
+    private final ViewRowMap viewRowMap;
+    private final int priceColumn;
+    private final Timer timer;
+
+    // Flashing store rows, and membership by row
+    private int[] rows = new int[64];
+    private int count;
+    private boolean[] tracked = new boolean[0];
+
+    PriceFlashTracker(JTable table, CsvTableModel tableModel, ViewRowMap viewRowMap, int priceColumn) {
+        this.table = table;
+        this.tableModel = tableModel;
+        this.viewRowMap = viewRowMap;
+        this.priceColumn = priceColumn;
+        this.timer = new Timer((int) FLASH_TOGGLE_MS, e -> onToggle());
+        tableModel.addTableModelListener(this::onTableChanged);
+    }
+
+    static boolean isFlashing(RowStore store, int row, long now) {
+        return now - store.getLastPriceChangeAt(row) < FLASH_WINDOW_MS;
+    }
+
+    void stop() {
+        timer.stop();
+    }
+
+    private void onTableChanged(TableModelEvent e) {
+        RowStore store = tableModel.getData();
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW || e.getLastRow() == Integer.MAX_VALUE) {
+            // Data replaced: nothing of the old store flashes anymore
+            clear(store.size());
+            return;
+        }
+        if (tracked.length < store.size()) {
+            tracked = Arrays.copyOf(tracked, store.size());
+        }
+        if (e.getType() != TableModelEvent.UPDATE) {
+            return;
+        }
+        long now = System.currentTimeMillis();
+        int last = Math.min(e.getLastRow(), store.size() - 1);
+        for (int row = e.getFirstRow(); row <= last; row++) {
+            if (!tracked[row] && isFlashing(store, row, now)) {
+                add(row);
+            }
+        }
+        if (count > 0 && !timer.isRunning()) {
+            timer.start();
+        }
+    }
+
+    private void add(int row) {
+        if (count == rows.length) {
+            rows = Arrays.copyOf(rows, count * 2);
+        }
+        rows[count++] = row;
+        tracked[row] = true;
+    }
+
+    private void clear(int size) {
+        count = 0;
+        tracked = new boolean[size];
+        timer.stop();
+    }
+
+    private void onToggle() {
+        repaintVisibleFlashes();
+
+        // Drop rows whose flash is over; their last repaint above cleared the color
+        RowStore store = tableModel.getData();
+        long now = System.currentTimeMillis();
+        int kept = 0;
+        for (int i = 0; i < count; i++) {
+            int row = rows[i];
+            if (row < store.size() && isFlashing(store, row, now)) {
+                rows[kept++] = row;
+            } else {
+                tracked[row] = false;
+            }
+        }
+        count = kept;
+        if (count == 0) {
+            timer.stop();
+        }
+    }
+
+    private void repaintVisibleFlashes() {
+        int viewColumn = table.convertColumnIndexToView(priceColumn);
+        if (viewColumn < 0 || table.getRowCount() == 0) {
+            return;
+        }
+        Rectangle visible = table.getVisibleRect();
+        int first = table.rowAtPoint(visible.getLocation());
+        int last = table.rowAtPoint(new Point(visible.x, visible.y + visible.height - 1));
+        if (first < 0) {
+            return;
+        }
+        if (last < 0) {
+            last = table.getRowCount() - 1;
+        }
+        for (int viewRow = first; viewRow <= last; viewRow++) {
+            int storeRow = viewRowMap.storeRow(viewRow);
+            if (storeRow >= 0 && storeRow < tracked.length && tracked[storeRow]) {
+                table.repaint(table.getCellRect(viewRow, viewColumn, false));
+            }
+        }
+    }
+}
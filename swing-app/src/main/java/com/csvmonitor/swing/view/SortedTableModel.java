@@ -0,0 +1,543 @@
+package com.csvmonitor.swing.view;
+
+import com.csvmonitor.swing.model.RowStore;
+import com.csvmonitor.swing.model.SortedRowOrder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.AbstractTableModel;
+import java.util.Arrays;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Sorted view of a {@link CsvTableModel}, ordered off the Event Dispatch Thread.
+ *
+ * The order is an immutable {@link Snapshot} mapping view rows to store rows and
+ * back. Sorting runs on a background thread: the sort column is turned into
+ * primitive keys packed with the row index and sorted with
+ * {@link Arrays#parallelSort(long[])}, so no comparator or boxed row is involved.
+ * The EDT only installs the finished snapshot and fires the change; until
+ * then the table keeps rendering the previous one.
+ *
+ * Updates of the sort column mark the order stale and start another sort, at
+ * most one running at a time. Appended rows are shown at the end until the
+ * next sort completes.
+ *
+ * Sorted by Price, which every tick changes, the rows are kept in a
+ * {@link SortedRowOrder} instead, built in the background like a snapshot:
+ * the price updates of one drain are collected and applied after it, moving
+ * only the ticked rows (or sorting again if they are many), and the view
+ * rows between the old and new positions are repainted.
+ *
+ * While the order is frozen ({@link #setOrderFrozen(boolean)}), updates do
+ * not move rows; they are moved or sorted again when it is unfrozen.
+ */
+public class SortedTableModel extends AbstractTableModel implements TableModelListener {
+
+    private static final Logger logger = LoggerFactory.getLogger(SortedTableModel.class);
+
+    // Above this many updated rows in one event, refresh the whole view instead of mapping each
+    private static final int MAX_MAPPED_UPDATES = 1024;
+    private static final int SMALL_RUN = 16;
+    // Above this many rows appended to a live order, report them as one range instead of one event each
+    private static final int MAX_SINGLE_INSERTS = 64;
+
+    private static final ExecutorService SORT_EXECUTOR = Executors.newSingleThreadExecutor(
+            Thread.ofVirtual().name("SortedTableModel-", 0).factory());
+
+    /**
+     * Order of the rows: {@code viewToStore[viewRow]} and its inverse {@code storeToView[storeRow]}.
+     * Never modified once published.
+     */
+    public record Snapshot(int[] viewToStore, int[] storeToView) {
+
+        static Snapshot identity(int size) {
+            int[] rows = new int[size];
+            Arrays.setAll(rows, i -> i);
+            return new Snapshot(rows, rows);
+        }
+
+        static Snapshot of(int[] viewToStore) {
+            int[] storeToView = new int[viewToStore.length];
+            for (int viewRow = 0; viewRow < viewToStore.length; viewRow++) {
+                storeToView[viewToStore[viewRow]] = viewRow;
+            }
+            return new Snapshot(viewToStore, storeToView);
+        }
+
+        /**
+         * Same order, with store rows {@code [size(), newSize)} added at the end.
+         */
+        Snapshot extendedTo(int newSize) {
+            int size = size();
+            int[] view = Arrays.copyOf(viewToStore, newSize);
+            int[] inverse = Arrays.copyOf(storeToView, newSize);
+            for (int row = size; row < newSize; row++) {
+                view[row] = row;
+                inverse[row] = row;
+            }
+            return new Snapshot(view, inverse);
+        }
+
+        public int size() {
+            return viewToStore.length;
+        }
+    }
+
+    private final CsvTableModel base;
+    private volatile Snapshot snapshot;
+
+    // Sort state, EDT only; sortColumn is -1 when unsorted
+    private int sortColumn = -1;
+    private boolean ascending = true;
+    private boolean sortRunning;
+    private boolean sortStale;
+    private int sortGeneration;
+    private boolean orderFrozen;
+    private boolean resortOnThaw;
+
+    // Order kept up to date row by row while sorted by price, EDT only; null otherwise
+    private SortedRowOrder liveOrder;
+    // Rows whose price changed since the live order was last updated
+    private int[] changedRows = new int[64];
+    private int changedCount;
+    private boolean changesScheduled;
+    // View rows moved by the live order, to repaint; empty when first > last
+    private int movedFirst = Integer.MAX_VALUE;
+    private int movedLast = -1;
+
+    private final SortedRowOrder.OrderListener moveListener = new SortedRowOrder.OrderListener() {
+        @Override
+        public void onMoved(int row, int from, int to) {
+            movedFirst = Math.min(movedFirst, Math.min(from, to));
+            movedLast = Math.max(movedLast, Math.max(from, to));
+        }
+
+        @Override
+        public void onReordered(int[] oldRows) {
+            movedFirst = 0;
+            movedLast = liveOrder.size() - 1;
+        }
+    };
+
+    // Scratch for mapping updated rows, EDT only
+    private int[] updatedViewRows = new int[64];
+
+    public SortedTableModel(CsvTableModel base) {
+        this.base = base;
+        this.snapshot = Snapshot.identity(base.getRowCount());
+        base.addTableModelListener(this);
+    }
+
+    public CsvTableModel getBase() {
+        return base;
+    }
+
+    public int getSortColumn() {
+        return sortColumn;
+    }
+
+    public boolean isAscending() {
+        return ascending;
+    }
+
+    /**
+     * Sort by a column, or restore the store order for a negative column.
+     * The new order is shown once computed.
+     */
+    public void setSort(int column, boolean ascending) {
+        this.sortColumn = column;
+        this.ascending = ascending;
+        sortGeneration++;
+        if (column < 0) {
+            publish(Snapshot.identity(base.getRowCount()));
+        } else {
+            requestSort();
+        }
+    }
+
+    public boolean isOrderFrozen() {
+        return orderFrozen;
+    }
+
+    /**
+     * Keep the rows in place while frozen, for example while the user points
+     * at or selects a row; unfreezing applies the updates that came meanwhile.
+     * A new sort column is still applied at once.
+     */
+    public void setOrderFrozen(boolean frozen) {
+        if (orderFrozen == frozen) {
+            return;
+        }
+        orderFrozen = frozen;
+        if (liveOrder != null) {
+            liveOrder.setFrozen(frozen);
+            fireMoves();
+        }
+        if (!frozen && resortOnThaw) {
+            resortOnThaw = false;
+            requestSortIfSorted();
+        }
+    }
+
+    /**
+     * Get the store row shown at a view row, or -1 if there is none.
+     */
+    public int storeRow(int viewRow) {
+        if (liveOrder != null) {
+            return viewRow >= 0 && viewRow < liveOrder.size() ? liveOrder.rowAt(viewRow) : -1;
+        }
+        int[] rows = snapshot.viewToStore();
+        return viewRow >= 0 && viewRow < rows.length ? rows[viewRow] : -1;
+    }
+
+    /**
+     * Get the view row showing a store row, or -1 if there is none.
+     */
+    public int viewRow(int storeRow) {
+        if (liveOrder != null) {
+            return storeRow >= 0 ? liveOrder.positionOf(storeRow) : -1;
+        }
+        int[] rows = snapshot.storeToView();
+        return storeRow >= 0 && storeRow < rows.length ? rows[storeRow] : -1;
+    }
+
+    // ==================== TableModel ====================
+
+    @Override
+    public int getRowCount() {
+        return liveOrder != null ? liveOrder.size() : snapshot.size();
+    }
+
+    @Override
+    public int getColumnCount() {
+        return base.getColumnCount();
+    }
+
+    @Override
+    public String getColumnName(int column) {
+        return base.getColumnName(column);
+    }
+
+    @Override
+    public Class<?> getColumnClass(int columnIndex) {
+        return base.getColumnClass(columnIndex);
+    }
+
+    @Override
+    public Object getValueAt(int rowIndex, int columnIndex) {
+        int row = storeRow(rowIndex);
+        return row < 0 ? null : base.getValueAt(row, columnIndex);
+    }
+
+    // ==================== Base model events ====================
+
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        int size = base.getRowCount();
+        if (e.getFirstRow() == TableModelEvent.HEADER_ROW) {
+            dropLiveOrder();
+            snapshot = Snapshot.identity(size);
+            fireTableStructureChanged();
+            requestSortIfSorted();
+            return;
+        }
+        if (e.getLastRow() == Integer.MAX_VALUE || size < getRowCount()) {
+            // Data replaced: show it in store order until sorted
+            sortGeneration++;
+            dropLiveOrder();
+            snapshot = Snapshot.identity(size);
+            fireTableDataChanged();
+            requestSortIfSorted();
+            return;
+        }
+        if (e.getType() == TableModelEvent.INSERT) {
+            if (liveOrder != null) {
+                insertIntoLiveOrder(size);
+                return;
+            }
+            int oldSize = snapshot.size();
+            snapshot = snapshot.extendedTo(size);
+            fireTableRowsInserted(oldSize, size - 1);
+            requestResort();
+            return;
+        }
+        if (e.getType() == TableModelEvent.UPDATE) {
+            int lastRow = Math.min(e.getLastRow(), size - 1);
+            fireMappedUpdates(e.getFirstRow(), lastRow, e.getColumn());
+            if (sortColumn >= 0 && (e.getColumn() == TableModelEvent.ALL_COLUMNS || e.getColumn() == sortColumn)) {
+                if (liveOrder != null) {
+                    queueChanges(e.getFirstRow(), lastRow);
+                } else {
+                    requestResort();
+                }
+            }
+        }
+    }
+
+    private void fireMappedUpdates(int firstRow, int lastRow, int column) {
+        int count = lastRow - firstRow + 1;
+        if (count <= 0) {
+            return;
+        }
+        if (count > MAX_MAPPED_UPDATES) {
+            fireTableChanged(new TableModelEvent(this, 0, getRowCount() - 1, column));
+            return;
+        }
+        if (updatedViewRows.length < count) {
+            updatedViewRows = new int[Math.max(count, updatedViewRows.length * 2)];
+        }
+        int mapped = 0;
+        for (int row = firstRow; row <= lastRow; row++) {
+            int viewRow = viewRow(row);
+            if (viewRow >= 0) {
+                updatedViewRows[mapped++] = viewRow;
+            }
+        }
+        if (mapped == 0) {
+            return;
+        }
+        count = mapped;
+        Arrays.sort(updatedViewRows, 0, count);
+        int first = updatedViewRows[0];
+        int last = first;
+        for (int i = 1; i < count; i++) {
+            int row = updatedViewRows[i];
+            if (row > last + 1) {
+                fireTableChanged(new TableModelEvent(this, first, last, column));
+                first = row;
+            }
+            last = row;
+        }
+        fireTableChanged(new TableModelEvent(this, first, last, column));
+    }
+
+    // ==================== Live order ====================
+
+    // Appended rows go to their place in the order right away
+    private void insertIntoLiveOrder(int size) {
+        int oldSize = liveOrder.size();
+        if (size - oldSize <= MAX_SINGLE_INSERTS) {
+            // One event per row at its position, so the selection follows its row
+            for (int row = oldSize; row < size; row++) {
+                int position = liveOrder.add(row);
+                fireTableRowsInserted(position, position);
+            }
+            return;
+        }
+        // Rows above the first inserted position keep their place; the rest shift down
+        int first = oldSize;
+        for (int row = oldSize; row < size; row++) {
+            first = Math.min(first, liveOrder.add(row));
+        }
+        fireTableRowsInserted(oldSize, size - 1);
+        if (first < oldSize) {
+            fireTableRowsUpdated(first, oldSize - 1);
+        }
+    }
+
+    // Collect the rows of one drain, which arrive as one event per run of rows
+    private void queueChanges(int firstRow, int lastRow) {
+        int count = lastRow - firstRow + 1;
+        if (count <= 0) {
+            return;
+        }
+        if (changedRows.length < changedCount + count) {
+            changedRows = Arrays.copyOf(changedRows, Math.max(changedCount + count, changedRows.length * 2));
+        }
+        for (int row = firstRow; row <= lastRow; row++) {
+            changedRows[changedCount++] = row;
+        }
+        if (!changesScheduled) {
+            changesScheduled = true;
+            SwingUtilities.invokeLater(this::applyChanges);
+        }
+    }
+
+    private void applyChanges() {
+        changesScheduled = false;
+        if (liveOrder != null) {
+            liveOrder.rowsChanged(changedRows, changedCount);
+            fireMoves();
+        }
+        changedCount = 0;
+    }
+
+    private void fireMoves() {
+        int first = movedFirst;
+        int last = movedLast;
+        movedFirst = Integer.MAX_VALUE;
+        movedLast = -1;
+        if (first <= last) {
+            fireTableRowsUpdated(first, last);
+        }
+    }
+
+    private void installLiveOrder(SortedRowOrder order, RowStore store) {
+        // Catch up with rows appended and prices ticked while it was built
+        for (int row = order.size(); row < store.size(); row++) {
+            order.add(row);
+        }
+        order.refresh();
+        order.setFrozen(orderFrozen);
+        order.setListener(moveListener);
+        int oldSize = getRowCount();
+        liveOrder = order;
+        changedCount = 0;
+        fireOrderChanged(oldSize);
+    }
+
+    private void dropLiveOrder() {
+        liveOrder = null;
+        changedCount = 0;
+    }
+
+    // ==================== Background sorting ====================
+
+    private void requestSortIfSorted() {
+        if (sortColumn >= 0) {
+            requestSort();
+        }
+    }
+
+    // Sort again after updates, unless the order is frozen
+    private void requestResort() {
+        if (orderFrozen) {
+            resortOnThaw = true;
+        } else {
+            requestSort();
+        }
+    }
+
+    /**
+     * Sort in the background, or once more after the running sort if one is running.
+     */
+    private void requestSort() {
+        if (sortRunning) {
+            sortStale = true;
+            return;
+        }
+        sortRunning = true;
+        sortStale = false;
+        RowStore store = base.getData();
+        int size = store.size();
+        int column = sortColumn;
+        boolean ascendingOrder = ascending;
+        int generation = sortGeneration;
+        if (column == CsvTableModel.PRICE_COLUMN) {
+            CompletableFuture.supplyAsync(() -> new SortedRowOrder(store::getPrice, ascendingOrder, null, size),
+                            SORT_EXECUTOR)
+                    .whenComplete((order, ex) -> SwingUtilities.invokeLater(() -> {
+                        sortRunning = false;
+                        if (ex != null) {
+                            logger.error("Error sorting by price: {}", ex.getMessage(), ex);
+                        }
+                        if (order != null && generation == sortGeneration && store == base.getData()) {
+                            installLiveOrder(order, store);
+                        } else if (sortStale && sortColumn >= 0) {
+                            requestSort();
+                        }
+                    }));
+            return;
+        }
+        CompletableFuture.supplyAsync(() -> sortedRows(store, size, column, ascendingOrder), SORT_EXECUTOR)
+                .whenComplete((rows, ex) -> SwingUtilities.invokeLater(() -> {
+                    sortRunning = false;
+                    if (ex != null) {
+                        logger.error("Error sorting column {}: {}", column, ex.getMessage(), ex);
+                    }
+                    if (rows != null && generation == sortGeneration && store == base.getData()) {
+                        Snapshot sorted = Snapshot.of(rows);
+                        publish(size < store.size() ? sorted.extendedTo(store.size()) : sorted);
+                    }
+                    if (sortStale && sortColumn >= 0) {
+                        requestSort();
+                    }
+                }));
+    }
+
+    private void publish(Snapshot next) {
+        int oldSize = getRowCount();
+        dropLiveOrder();
+        snapshot = next;
+        fireOrderChanged(oldSize);
+    }
+
+    private void fireOrderChanged(int oldSize) {
+        if (oldSize == getRowCount() && oldSize > 0) {
+            // Same rows in another order: keep the table's selection indices
+            fireTableRowsUpdated(0, oldSize - 1);
+        } else {
+            fireTableDataChanged();
+        }
+    }
+
+    /**
+     * Compute the store rows {@code [0, size)} in the order of a column; ties keep store order.
+     * Only reads the store, so it may run while the EDT updates prices.
+     */
+    static int[] sortedRows(RowStore store, int size, int column, boolean ascending) {
+        long[] keys = new long[size];
+        ColumnKeys.fill(store, column, keys);
+        if (!ascending) {
+            for (int i = 0; i < size; i++) {
+                keys[i] = ~keys[i];
+            }
+        }
+
+        // Sort on the high half of the key packed with the row, as signed longs
+        long[] packed = new long[size];
+        for (int row = 0; row < size; row++) {
+            packed[row] = ((keys[row] >>> 32) << 32 | row) ^ Long.MIN_VALUE;
+        }
+        Arrays.parallelSort(packed);
+
+        int[] rows = new int[size];
+        for (int i = 0; i < size; i++) {
+            rows[i] = (int) packed[i];
+        }
+
+        // Rows with the same high half are ordered by the low half
+        int runStart = 0;
+        for (int i = 1; i <= size; i++) {
+            if (i == size || (packed[i] >>> 32) != (packed[runStart] >>> 32)) {
+                if (i - runStart > 1 && !ColumnKeys.isHighOnly(column)) {
+                    sortRunByLowHalf(rows, runStart, i, keys);
+                }
+                runStart = i;
+            }
+        }
+        return rows;
+    }
+
+    private static void sortRunByLowHalf(int[] rows, int from, int to, long[] keys) {
+        if (to - from <= SMALL_RUN) {
+            // Insertion sort, stable on the row order already there
+            for (int i = from + 1; i < to; i++) {
+                int row = rows[i];
+                long low = keys[row] & 0xFFFFFFFFL;
+                int j = i - 1;
+                while (j >= from && (keys[rows[j]] & 0xFFFFFFFFL) > low) {
+                    rows[j + 1] = rows[j];
+                    j--;
+                }
+                rows[j + 1] = row;
+            }
+            return;
+        }
+        long[] run = new long[to - from];
+        for (int i = from; i < to; i++) {
+            int row = rows[i];
+            run[i - from] = ((keys[row] & 0xFFFFFFFFL) << 32 | row) ^ Long.MIN_VALUE;
+        }
+        Arrays.sort(run);
+        for (int i = from; i < to; i++) {
+            rows[i] = (int) run[i - from];
+        }
+    }
+}
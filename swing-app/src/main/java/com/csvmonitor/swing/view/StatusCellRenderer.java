@@ -1,12 +1,11 @@
 package com.csvmonitor.swing.view;
 
-import com.csvmonitor.swing.model.RowData;
-import com.jidesoft.grid.FilterableTableModel;
+import com.csvmonitor.swing.model.RowStore;
+import com.csvmonitor.swing.model.Status;
 
 import javax.swing.*;
 import javax.swing.table.DefaultTableCellRenderer;
 import java.awt.*;
-import java.lang.reflect.Method;
 
 /**
  * Custom cell renderer that applies background color based on row status.
@@ -22,8 +21,6 @@ public class StatusCellRenderer extends DefaultTableCellRenderer {
     private static final Color CLOSED_BG = new Color(0xE6, 0xE6, 0xE6);   // Light gray
     private static final Color PRICE_FLASH_A = new Color(0xFF, 0xF4, 0xB5); // Light amber
     private static final Color PRICE_FLASH_B = new Color(0xFF, 0xE0, 0x8A); // Deeper amber
-    private static final long PRICE_FLASH_WINDOW_MS = 1000;
-    private static final long PRICE_FLASH_TOGGLE_MS = 180;
     
     // Text colors for status column
     private static final Color ALERT_FG = new Color(0xCC, 0x00, 0x00);    // Dark red
@@ -32,20 +29,22 @@ public class StatusCellRenderer extends DefaultTableCellRenderer {
     private static final Color ACTIVE_FG = new Color(0x00, 0x66, 0xCC);   // Dark blue
     private static final Color CLOSED_FG = new Color(0x66, 0x66, 0x66);   // Dark gray
     
+    // Colors by Status ordinal
+    private static final Color[] STATUS_BG = {ALERT_BG, NORMAL_BG, PENDING_BG, ACTIVE_BG, CLOSED_BG};
+    private static final Color[] STATUS_FG = {ALERT_FG, NORMAL_FG, PENDING_FG, ACTIVE_FG, CLOSED_FG};
+    
     private final CsvTableModel tableModel;
-    private final FilterableTableModel filterableTableModel;
+    private final ViewRowMap viewRowMap;
     private final int columnIndex;
     private final boolean isStatusColumn;
     private final boolean isPriceColumn;
-    private final Method actualRowMethod;
     
-    public StatusCellRenderer(CsvTableModel tableModel, FilterableTableModel filterableTableModel, int columnIndex) {
+    public StatusCellRenderer(CsvTableModel tableModel, ViewRowMap viewRowMap, int columnIndex) {
         this.tableModel = tableModel;
-        this.filterableTableModel = filterableTableModel;
+        this.viewRowMap = viewRowMap;
         this.columnIndex = columnIndex;
         this.isStatusColumn = columnIndex == 4;  // Status column
         this.isPriceColumn = columnIndex == 2;   // Price column
-        this.actualRowMethod = resolveActualRowMethod();
         
         // Set alignment based on column type
         switch (columnIndex) {
@@ -64,83 +63,66 @@ public class StatusCellRenderer extends DefaultTableCellRenderer {
         
         Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
         
-        RowData rowData = resolveRowData(table, row);
+        RowStore store = tableModel.getData();
+        int storeRow = viewRowMap.storeRow(row);
         
-        if (rowData == null) {
+        if (storeRow < 0 || storeRow >= store.size()) {
             return c;
         }
         
-        applyBackground(table, c, rowData, isSelected);
-        applyForegroundAndFont(table, c, rowData, isSelected);
-        applyPriceFormatting(c, value);
+        applyBackground(table, c, store, storeRow, isSelected);
+        applyForegroundAndFont(table, c, store, storeRow, isSelected);
         
         return c;
     }
 
-    private RowData resolveRowData(JTable table, int viewRow) {
-        int modelRow = table.convertRowIndexToModel(viewRow);
-        int actualRow = resolveActualRow(modelRow);
-        return tableModel.getRowAt(actualRow);
-    }
-
-    private void applyBackground(JTable table, Component c, RowData rowData, boolean isSelected) {
+    private void applyBackground(JTable table, Component c, RowStore store, int row, boolean isSelected) {
         if (isSelected) {
-            Color statusBg = getStatusBackgroundColor(rowData.getStatus());
+            Color statusBg = getStatusBackgroundColor(store.getKnownStatus(row));
             if (statusBg != null) {
                 c.setBackground(blend(table.getSelectionBackground(), statusBg, 0.7f));
             }
             return;
         }
 
-        if (isPriceColumn && shouldFlashPrice(rowData)) {
+        if (isPriceColumn && shouldFlashPrice(store, row)) {
             c.setBackground(getFlashColor());
             return;
         }
 
-        Color bgColor = getStatusBackgroundColor(rowData.getStatus());
+        Color bgColor = getStatusBackgroundColor(store.getKnownStatus(row));
         c.setBackground(bgColor != null ? bgColor : table.getBackground());
     }
 
-    private void applyForegroundAndFont(JTable table, Component c, RowData rowData, boolean isSelected) {
+    private void applyForegroundAndFont(JTable table, Component c, RowStore store, int row, boolean isSelected) {
         if (isSelected) {
             return;
         }
         if (isStatusColumn) {
-            c.setForeground(getStatusForegroundColor(rowData.getStatus()));
+            c.setForeground(getStatusForegroundColor(store.getKnownStatus(row)));
             if (c instanceof JLabel label) {
                 label.setFont(label.getFont().deriveFont(Font.BOLD));
             }
             return;
         }
         if (isPriceColumn) {
-            c.setForeground(getPriceForegroundColor(rowData, table));
+            c.setForeground(getPriceForegroundColor(store, row, table));
             return;
         }
         c.setForeground(table.getForeground());
     }
 
-    private void applyPriceFormatting(Component c, Object value) {
-        if (!isPriceColumn || !(value instanceof Double price)) {
-            return;
-        }
-        if (c instanceof JLabel label) {
-            label.setText(formatPriceWithEmphasis(price));
-        } else {
-            setText(String.format("%.5f", price));
-        }
-    }
-
-    private boolean shouldFlashPrice(RowData rowData) {
-        return System.currentTimeMillis() - rowData.getLastPriceChangeAt() < PRICE_FLASH_WINDOW_MS;
+    private boolean shouldFlashPrice(RowStore store, int row) {
+        return PriceFlashTracker.isFlashing(store, row, System.currentTimeMillis());
     }
 
     private Color getFlashColor() {
-        boolean phase = (System.currentTimeMillis() / PRICE_FLASH_TOGGLE_MS) % 2 == 0;
+        boolean phase = (System.currentTimeMillis() / PriceFlashTracker.FLASH_TOGGLE_MS) % 2 == 0;
         return phase ? PRICE_FLASH_A : PRICE_FLASH_B;
     }
 
-    private Color getPriceForegroundColor(RowData rowData, JTable table) {
-        int direction = rowData.getPriceDirection();
+    private Color getPriceForegroundColor(RowStore store, int row, JTable table) {
+        int direction = store.getPriceDirection(row);
         if (direction > 0) {
             return NORMAL_FG;
         }
@@ -150,30 +132,12 @@ public class StatusCellRenderer extends DefaultTableCellRenderer {
         return table.getForeground();
     }
     
-    private Color getStatusBackgroundColor(String status) {
-        if (status == null) return null;
-        
-        return switch (status.toUpperCase()) {
-            case "ALERT", "WARN", "WARNING" -> ALERT_BG;
-            case "NORMAL", "OK", "GOOD" -> NORMAL_BG;
-            case "PENDING", "WAIT" -> PENDING_BG;
-            case "ACTIVE", "LIVE", "RUNNING" -> ACTIVE_BG;
-            case "CLOSED", "DONE", "COMPLETE" -> CLOSED_BG;
-            default -> null;
-        };
+    private Color getStatusBackgroundColor(Status status) {
+        return status == null ? null : STATUS_BG[status.ordinal()];
     }
     
-    private Color getStatusForegroundColor(String status) {
-        if (status == null) return Color.BLACK;
-        
-        return switch (status.toUpperCase()) {
-            case "ALERT", "WARN", "WARNING" -> ALERT_FG;
-            case "NORMAL", "OK", "GOOD" -> NORMAL_FG;
-            case "PENDING", "WAIT" -> PENDING_FG;
-            case "ACTIVE", "LIVE", "RUNNING" -> ACTIVE_FG;
-            case "CLOSED", "DONE", "COMPLETE" -> CLOSED_FG;
-            default -> Color.BLACK;
-        };
+    private Color getStatusForegroundColor(Status status) {
+        return status == null ? Color.BLACK : STATUS_FG[status.ordinal()];
     }
     
     /**
@@ -186,52 +150,4 @@ public class StatusCellRenderer extends DefaultTableCellRenderer {
         int b = (int) (c1.getBlue() * ratio + c2.getBlue() * iRatio);
         return new Color(r, g, b);
     }
-
-    private String formatPriceWithEmphasis(double price) {
-        String formatted = String.format("%.5f", price);
-        int dotIndex = formatted.indexOf('.');
-        if (dotIndex < 0) {
-            return formatted;
-        }
-        String intPart = formatted.substring(0, dotIndex + 1);
-        String frac = formatted.substring(dotIndex + 1);
-        if (frac.length() < 4) {
-            return formatted;
-        }
-        String firstTwo = frac.substring(0, 2);
-        String emph = frac.substring(2, 4);
-        String rest = frac.substring(4);
-        return "<html>" + intPart + firstTwo
-                + "<b><span style='font-size:110%'>" + emph + "</span></b>"
-                + rest + "</html>";
-    }
-
-    private Method resolveActualRowMethod() {
-        if (filterableTableModel == null) {
-            return null;
-        }
-        for (String name : new String[]{"getActualRow", "getActualRowAt", "getActualRowIndex"}) {
-            try {
-                return filterableTableModel.getClass().getMethod(name, int.class);
-            } catch (NoSuchMethodException ignored) {
-                // Try the next possible method name.
-            }
-        }
-        return null;
-    }
-
-    private int resolveActualRow(int modelRow) {
-        if (filterableTableModel == null || actualRowMethod == null) {
-            return modelRow;
-        }
-        try {
-            Object value = actualRowMethod.invoke(filterableTableModel, modelRow);
-            if (value instanceof Integer actualRow) {
-                return actualRow;
-            }
-        } catch (Exception ignored) {
-            // Fall back to model row when the reflective call fails.
-        }
-        return modelRow;
-    }
 }
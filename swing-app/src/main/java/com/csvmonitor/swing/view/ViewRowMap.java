@@ -0,0 +1,119 @@
+package com.csvmonitor.swing.view;
+
+import com.jidesoft.grid.FilterableTableModel;
+
+import javax.swing.*;
+import javax.swing.event.TableModelEvent;
+import javax.swing.event.TableModelListener;
+import javax.swing.table.TableModel;
+import java.lang.reflect.Method;
+
+/**
+ * Cached mapping from view rows of the table to rows of the {@link com.csvmonitor.swing.model.RowStore}.
+ *
+ * Resolving a row through JIDE's {@link FilterableTableModel} takes a reflective
+ * call, which the renderers used to make for every cell. The filter mapping is
+ * resolved for all view rows at once and rebuilt lazily after the table model
+ * reports rows inserted, deleted or replaced (which is how filter changes
+ * arrive); plain row updates keep it. The rows it yields are positions in the
+ * {@link SortedTableModel} below the filter, whose current snapshot gives the
+ * store row, so a new sort order needs no rebuild. Shared by all renderers of
+ * the table.
+ *
+ * Used on the Event Dispatch Thread only.
+ */
+public class ViewRowMap implements TableModelListener {
+
+    private final JTable table;
+    private final FilterableTableModel filterableTableModel;
+    private final SortedTableModel sortedTableModel;
+    private final Method actualRowMethod;
+
+    private TableModel listenedModel;
+    // Position in the sorted model by view row
+    private int[] sortedRows = new int[0];
+    private int rowCount;
+    private boolean stale = true;
+
+    public ViewRowMap(JTable table, FilterableTableModel filterableTableModel, SortedTableModel sortedTableModel) {
+        this.table = table;
+        this.filterableTableModel = filterableTableModel;
+        this.sortedTableModel = sortedTableModel;
+        this.actualRowMethod = resolveActualRowMethod();
+        listenTo(table.getModel());
+        if (filterableTableModel != null && filterableTableModel != table.getModel()) {
+            filterableTableModel.addTableModelListener(this);
+        }
+        table.addPropertyChangeListener("model", e -> listenTo(table.getModel()));
+    }
+
+    /**
+     * Get the store row shown at a view row, or -1 if there is none.
+     */
+    public int storeRow(int viewRow) {
+        if (stale) {
+            rebuild();
+        }
+        return viewRow >= 0 && viewRow < rowCount ? sortedTableModel.storeRow(sortedRows[viewRow]) : -1;
+    }
+
+    @Override
+    public void tableChanged(TableModelEvent e) {
+        if (e.getType() != TableModelEvent.UPDATE
+                || e.getFirstRow() == TableModelEvent.HEADER_ROW
+                || e.getLastRow() == Integer.MAX_VALUE) {
+            stale = true;
+        }
+    }
+
+    private void listenTo(TableModel model) {
+        if (listenedModel != null) {
+            listenedModel.removeTableModelListener(this);
+        }
+        listenedModel = model;
+        if (model != null) {
+            model.addTableModelListener(this);
+        }
+        stale = true;
+    }
+
+    private void rebuild() {
+        rowCount = table.getRowCount();
+        if (sortedRows.length < rowCount) {
+            sortedRows = new int[rowCount];
+        }
+        for (int viewRow = 0; viewRow < rowCount; viewRow++) {
+            sortedRows[viewRow] = resolveActualRow(table.convertRowIndexToModel(viewRow));
+        }
+        stale = false;
+    }
+
+    private Method resolveActualRowMethod() {
+        if (filterableTableModel == null) {
+            return null;
+        }
+        for (String name : new String[]{"getActualRow", "getActualRowAt", "getActualRowIndex"}) {
+            try {
+                return filterableTableModel.getClass().getMethod(name, int.class);
+            } catch (NoSuchMethodException ignored) {
+                // Try the next possible method name.
+            }
+        }
+        return null;
+    }
+
+    private int resolveActualRow(int modelRow) {
+        if (filterableTableModel == null || actualRowMethod == null) {
+            return modelRow;
+        }
+        try {
+            Object value = actualRowMethod.invoke(filterableTableModel, modelRow);
+            if (value instanceof Integer actualRow) {
+                return actualRow;
+            }
+        } catch (Exception ignored) {
+            // Fall back to model row when the reflective call fails.
+        }
+        return modelRow;
+    }
+}
@@ -0,0 +1,100 @@
+package com.csvmonitor.swing.model;
+
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class CsvParserTest {
+
+    private static final String HEADER = "id,symbol,price,qty,status,lastUpdate";
+
+    private final List<String> rows = new ArrayList<>();
+    private final CsvParser parser = new CsvParser((id, symbol, price, qty, status, lastUpdate) ->
+            rows.add(id + "|" + symbol + "|" + price + "|" + qty + "|" + status + "|" + lastUpdate));
+
+    @Test
+    void crlfSplitBetweenBuffersEndsOneLine() {
+        // Rows without an id take their line number, so a second terminator would shift them
+        int consumed = parser.parseLines(bytes("1,AAPL,1.5,10,ACTIVE,t1\r"), 0, 24, false);
+        assertEquals(24, consumed);
+        ByteBuffer next = bytes("\n,MSFT,2.25,20,pending,t2\r\n,IBM,3,30,,t3");
+        parser.parseLines(next, 0, next.limit(), true);
+
+        assertEquals(List.of(
+                "1|AAPL|1.5|10|ACTIVE|t1",
+                "2|MSFT|2.25|20|PENDING|t2",
+                "3|IBM|3.0|30|NORMAL|t3"), rows);
+        assertEquals(3, parser.getStats().rowCount());
+    }
+
+    @Test
+    void crlfAcrossEveryChannelRead() throws Exception {
+        String csv = HEADER + "\r\n,AAPL,1.5,10,ACTIVE,t1\r\n\r\n,MSFT,2,20,CLOSED,t2\r\n";
+
+        CsvParser.ParseStats stats = parser.parse(new OneByteChannel(csv));
+
+        assertEquals(List.of("2|AAPL|1.5|10|ACTIVE|t1", "4|MSFT|2.0|20|CLOSED|t2"), rows);
+        assertEquals(2, stats.rowCount());
+        assertEquals(0, stats.errorCount());
+    }
+
+    @Test
+    void loneCarriageReturnEndsLineBeforeNextBuffer() {
+        parser.parseLines(bytes("1,AAPL,1,1,ACTIVE,t1\r"), 0, 21, false);
+        ByteBuffer next = bytes(",MSFT,2,2,ACTIVE,t2");
+        parser.parseLines(next, 0, next.limit(), true);
+
+        assertEquals(List.of("1|AAPL|1.0|1|ACTIVE|t1", "2|MSFT|2.0|2|ACTIVE|t2"), rows);
+    }
+
+    @Test
+    void unterminatedLineIsLeftUntilLast() {
+        ByteBuffer buffer = bytes("1,AAPL,1,1,ACTIVE,t1\n2,MSFT,2,2");
+
+        int consumed = parser.parseLines(buffer, 0, buffer.limit(), false);
+
+        assertEquals(21, consumed);
+        assertEquals(1, rows.size());
+    }
+
+    private static ByteBuffer bytes(String text) {
+        return ByteBuffer.wrap(text.getBytes(StandardCharsets.US_ASCII));
+    }
+
+    /**
+     * Channel returning one byte per read, so every line terminator ends a read.
+     */
+    private static final class OneByteChannel implements ReadableByteChannel {
+
+        private final byte[] data;
+        private int position;
+
+        OneByteChannel(String text) {
+            this.data = text.getBytes(StandardCharsets.US_ASCII);
+        }
+
+        @Override
+        public int read(ByteBuffer dst) {
+            if (position == data.length) {
+                return -1;
+            }
+            dst.put(data[position++]);
+            return 1;
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
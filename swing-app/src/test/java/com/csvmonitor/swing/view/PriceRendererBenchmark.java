@@ -0,0 +1,130 @@
+package com.csvmonitor.swing.view;
+
+import com.csvmonitor.swing.model.PriceFormatter;
+import com.csvmonitor.swing.model.RowStore;
+import com.jidesoft.grid.FilterableTableModel;
+
+import javax.swing.*;
+import java.awt.*;
+import java.awt.image.BufferedImage;
+import java.lang.reflect.InvocationTargetException;
+import java.util.Random;
+
+/**
+ * Micro-benchmark of painting one price cell: the former HTML label text
+ * against {@link PriceCellRenderer}, which paints the digits itself.
+ *
+ * Each cell is rendered as JTable does it: renderer lookup for a row, then
+ * paint through a {@link CellRendererPane} into an image. Both renderers
+ * share the colors of {@link StatusCellRenderer}, so the difference is the
+ * price text alone. Runs headless.
+ *
+ * Not a unit test; run the main method, e.g. from the IDE, with the test classpath.
+ */
+public final class PriceRendererBenchmark {
+
+    private static final int ROWS = 1_000;
+    private static final int WARMUP_CELLS = 50_000;
+    private static final int MEASURED_CELLS = 50_000;
+    private static final int CELL_WIDTH = 120;
+    private static final int CELL_HEIGHT = 24;
+
+    private PriceRendererBenchmark() {
+    }
+
+    public static void main(String[] args) throws InterruptedException, InvocationTargetException {
+        System.setProperty("java.awt.headless", "true");
+        SwingUtilities.invokeAndWait(PriceRendererBenchmark::run);
+    }
+
+    private static void run() {
+        Random random = new Random(1);
+        RowStore store = new RowStore(ROWS);
+        for (int row = 0; row < ROWS; row++) {
+            store.append(row, "SYM" + row, 10 + random.nextDouble() * 990, 100, "ACTIVE", "2024-01-01T00:00:00");
+        }
+        CsvTableModel tableModel = new CsvTableModel();
+        tableModel.setData(store);
+        SortedTableModel sortedTableModel = new SortedTableModel(tableModel);
+        FilterableTableModel filterableTableModel = new FilterableTableModel(sortedTableModel);
+        JTable table = new JTable(filterableTableModel);
+        table.setRowHeight(CELL_HEIGHT);
+        ViewRowMap viewRowMap = new ViewRowMap(table, filterableTableModel, sortedTableModel);
+
+        int column = CsvTableModel.PRICE_COLUMN;
+        StatusCellRenderer html = new HtmlPriceRenderer(tableModel, viewRowMap, column);
+        StatusCellRenderer painted = new PriceCellRenderer(tableModel, viewRowMap, column);
+
+        // Alternate warmups so neither renderer runs against a colder JIT
+        for (int round = 0; round < 2; round++) {
+            paintCells(table, html, WARMUP_CELLS);
+            paintCells(table, painted, WARMUP_CELLS);
+        }
+        double htmlNanos = paintCells(table, html, MEASURED_CELLS);
+        double paintedNanos = paintCells(table, painted, MEASURED_CELLS);
+
+        System.out.printf("HTML label:       %.2f us per cell%n", htmlNanos / 1e3);
+        System.out.printf("Painted directly: %.2f us per cell (%.1fx faster)%n",
+                paintedNanos / 1e3, htmlNanos / paintedNanos);
+    }
+
+    // Average nanoseconds to render and paint one price cell
+    private static double paintCells(JTable table, StatusCellRenderer renderer, int cells) {
+        BufferedImage image = new BufferedImage(CELL_WIDTH, CELL_HEIGHT, BufferedImage.TYPE_INT_ARGB);
+        Graphics2D g = image.createGraphics();
+        CellRendererPane pane = new CellRendererPane();
+        int column = CsvTableModel.PRICE_COLUMN;
+        int rows = table.getRowCount();
+        long start = System.nanoTime();
+        for (int i = 0; i < cells; i++) {
+            int row = i % rows;
+            Component c = renderer.getTableCellRendererComponent(
+                    table, table.getValueAt(row, column), false, false, row, column);
+            pane.paintComponent(g, c, table, 0, 0, CELL_WIDTH, CELL_HEIGHT, true);
+        }
+        long elapsed = System.nanoTime() - start;
+        g.dispose();
+        return (double) elapsed / cells;
+    }
+
+    /**
+     * The price formatting that {@link PriceCellRenderer} replaced: the
+     * emphasized decimals marked up in an HTML label text.
+     */
+    private static final class HtmlPriceRenderer extends StatusCellRenderer {
+
+        private final PriceFormatter priceFormatter = new PriceFormatter();
+        private final StringBuilder priceText = new StringBuilder(64);
+
+        HtmlPriceRenderer(CsvTableModel tableModel, ViewRowMap viewRowMap, int columnIndex) {
+            super(tableModel, viewRowMap, columnIndex);
+        }
+
+        @Override
+        public Component getTableCellRendererComponent(JTable table, Object value,
+                boolean isSelected, boolean hasFocus, int row, int column) {
+            Component c = super.getTableCellRendererComponent(table, value, isSelected, hasFocus, row, column);
+            if (value instanceof Double price) {
+                setText(formatPriceWithEmphasis(price));
+            }
+            return c;
+        }
+
+        private String formatPriceWithEmphasis(double price) {
+            priceFormatter.format(price);
+            int start = priceFormatter.emphasisStart();
+            int end = priceFormatter.emphasisEnd();
+            if (start == end) {
+                return priceFormatter.toString();
+            }
+            priceText.setLength(0);
+            priceText.append("<html>");
+            priceFormatter.appendTo(priceText, 0, start);
+            priceText.append("<b><span style='font-size:110%'>");
+            priceFormatter.appendTo(priceText, start, end);
+            priceText.append("</span></b>");
+            priceFormatter.appendTo(priceText, end, priceFormatter.length());
+            return priceText.append("</html>").toString();
+        }
+    }
+}
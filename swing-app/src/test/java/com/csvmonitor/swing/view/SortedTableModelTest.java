@@ -0,0 +1,112 @@
+package com.csvmonitor.swing.view;
+
+import com.csvmonitor.swing.model.RowStore;
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+
+class SortedTableModelTest {
+
+    private static final int ID_COLUMN = 0;
+    private static final int SYMBOL_COLUMN = 1;
+    private static final int QTY_COLUMN = 3;
+    private static final int STATUS_COLUMN = 4;
+
+    @Test
+    void emptyStoreSortsToNoRows() {
+        RowStore store = new RowStore();
+
+        assertArrayEquals(new int[0], SortedTableModel.sortedRows(store, 0, CsvTableModel.PRICE_COLUMN, true));
+        assertArrayEquals(new int[0], SortedTableModel.sortedRows(store, 0, ID_COLUMN, false));
+    }
+
+    @Test
+    void intColumnsSortBySignedValueWithTiesInRowOrder() {
+        RowStore store = storeWithQtys(5, -3, 5, 0, Integer.MIN_VALUE, Integer.MAX_VALUE, -3);
+
+        assertArrayEquals(new int[] {4, 1, 6, 3, 0, 2, 5},
+                SortedTableModel.sortedRows(store, store.size(), QTY_COLUMN, true));
+        // Descending inverts the key, ties stay in row order
+        assertArrayEquals(new int[] {5, 0, 2, 3, 1, 6, 4},
+                SortedTableModel.sortedRows(store, store.size(), QTY_COLUMN, false));
+    }
+
+    @Test
+    void pricesDifferingOnlyInLowHalfAreOrdered() {
+        // Neighbouring doubles share the high 32 bits of their key
+        double base = 100.0;
+        double up = Math.nextUp(base);
+        double upUp = Math.nextUp(up);
+        RowStore store = storeWithPrices(upUp, base, -0.5, up, base, Double.NEGATIVE_INFINITY, 2e9);
+
+        assertArrayEquals(new int[] {5, 2, 1, 4, 3, 0, 6},
+                SortedTableModel.sortedRows(store, store.size(), CsvTableModel.PRICE_COLUMN, true));
+        assertArrayEquals(new int[] {6, 0, 3, 1, 4, 2, 5},
+                SortedTableModel.sortedRows(store, store.size(), CsvTableModel.PRICE_COLUMN, false));
+    }
+
+    @Test
+    void manyRowsMatchAComparatorSort() {
+        RowStore store = new RowStore();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            // Few distinct high halves, so runs are sorted by the low half
+            double price = 1000 + random.nextInt(4) + random.nextInt(1 << 20) * Math.ulp(1000.0);
+            store.append(i, "S" + (i % 7), price, random.nextInt(50) - 25, "ACTIVE", "2024-01-01T00:00:00");
+        }
+
+        for (boolean ascending : new boolean[] {true, false}) {
+            Integer[] expected = new Integer[store.size()];
+            Arrays.setAll(expected, row -> row);
+            Comparator<Integer> byPrice = Comparator.comparingDouble(store::getPrice);
+            Arrays.sort(expected, ascending ? byPrice : byPrice.reversed());
+
+            assertArrayEquals(Arrays.stream(expected).mapToInt(Integer::intValue).toArray(),
+                    SortedTableModel.sortedRows(store, store.size(), CsvTableModel.PRICE_COLUMN, ascending),
+                    ascending ? "ascending" : "descending");
+        }
+    }
+
+    @Test
+    void dictionaryColumnsSortByText() {
+        RowStore store = new RowStore();
+        store.append(1, "MSFT", 1, 1, "PENDING", "t");
+        store.append(2, "AAPL", 1, 1, "ACTIVE", "t");
+        store.append(3, "IBM", 1, 1, "ALERT", "t");
+        store.append(4, "AAPL", 1, 1, "CLOSED", "t");
+
+        assertArrayEquals(new int[] {1, 3, 2, 0},
+                SortedTableModel.sortedRows(store, store.size(), SYMBOL_COLUMN, true));
+        assertArrayEquals(new int[] {0, 2, 1, 3},
+                SortedTableModel.sortedRows(store, store.size(), SYMBOL_COLUMN, false));
+        assertArrayEquals(new int[] {1, 2, 3, 0},
+                SortedTableModel.sortedRows(store, store.size(), STATUS_COLUMN, true));
+    }
+
+    @Test
+    void sortsOnlyTheGivenPrefixOfTheStore() {
+        RowStore store = storeWithQtys(3, 2, 1, 0);
+
+        assertArrayEquals(new int[] {1, 0}, SortedTableModel.sortedRows(store, 2, QTY_COLUMN, true));
+    }
+
+    private static RowStore storeWithQtys(int... qtys) {
+        RowStore store = new RowStore();
+        for (int i = 0; i < qtys.length; i++) {
+            store.append(i, "S", 1.0, qtys[i], "ACTIVE", "2024-01-01T00:00:00");
+        }
+        return store;
+    }
+
+    private static RowStore storeWithPrices(double... prices) {
+        RowStore store = new RowStore();
+        for (int i = 0; i < prices.length; i++) {
+            store.append(i, "S", prices[i], 1, "ACTIVE", "2024-01-01T00:00:00");
+        }
+        return store;
+    }
+}